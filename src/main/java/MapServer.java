@@ -1,15 +1,28 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.Javalin;
+import io.javalin.http.ContentType;
 import io.javalin.validation.ValidationException;
 import org.apache.commons.codec.binary.Base64InputStream;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
 import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
 import org.locationtech.spatial4j.shape.ShapeFactory;
 
+import autocomplete.NormalizedAutocomplete;
 import graphs.MapGraph;
+import graphs.PlaceIndex;
+import graphs.Route;
+import graphs.WeightFeed;
 
+import java.io.IOException;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Run the Husky Maps server.
@@ -31,21 +44,69 @@ public class MapServer {
      * The place-importance TSV data file path from OpenStreetMap.
      */
     private static final String PLACES_PATH = "places.tsv";
+    /**
+     * The OSM way ID and access score TSV data file path from Project Sidewalk.
+     *
+     * @see <a href="https://sidewalk-sea.cs.washington.edu/api">Project Sidewalk</a>
+     */
+    private static final String ACCESS_PATH = "access.tsv";
     /**
      * Maximum number of autocomplete search results.
      */
     private static final int MAX_MATCHES = 10;
+    /**
+     * Maximum length of search prefixes whose autocomplete responses are precomputed on startup.
+     */
+    private static final int MAX_PRECOMPUTED_LENGTH = 3;
     /**
      * The maximum dimension for the map image.
      *
      * @see <a href="https://docs.mapbox.com/api/maps/static-images/">Mapbox Static Images API</a>
      */
     private static final int MAX_DIMENSION = 1280;
+    /**
+     * Width and height in pixels of a map tile at zoom level 0.
+     */
+    private static final int TILE_SIZE = 512;
+    /**
+     * Width and height in pixels of the grid cells for clustering nearby pins into one aggregate marker.
+     */
+    private static final int CLUSTER_SIZE = 48;
+    /**
+     * Largest zoom level at which nearby pins are clustered.
+     */
+    private static final int MAX_CLUSTER_ZOOM = 14;
+    /**
+     * Largest count shown on an aggregate marker, since marker labels are limited to two digits.
+     */
+    private static final int MAX_CLUSTER_LABEL = 99;
+    /**
+     * The default zoom level for simplifying routes served as JSON, which is the most detailed zoom level.
+     */
+    private static final int MAX_ZOOM = 22;
+    /**
+     * Maximum number of alternative routes drawn on the map image.
+     */
+    private static final int MAX_ALTERNATIVES = 3;
+    /**
+     * Maximum number of stops in a tour.
+     */
+    private static final int MAX_STOPS = 50;
+    /**
+     * Number of meters per degree of distance.
+     */
+    private static final double METERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 1000;
 
     public static void main(String[] args) throws Exception {
         SpatialContext context = SpatialContext.GEO;
         ShapeFactory factory = context.getShapeFactory();
-        MapGraph map = new MapGraph(OSM_DB_PATH, PLACES_PATH, context);
+        MapGraph map = new MapGraph(OSM_DB_PATH, PLACES_PATH, ACCESS_PATH, context);
+        Map<String, byte[]> precomputedSearches = precomputeSearches(map);
+        String feed = System.getenv("WEIGHT_FEED");
+        if (feed != null) {
+            // Apply road closures and congestion in the background while serving routes
+            Thread.ofVirtual().name("weight-feed").start(new WeightFeed(feed, map));
+        }
         Javalin app = Javalin.create(config -> {
             config.spaRoot.addFile("/", "index.html");
             config.routes.get("/map/{lon},{lat},{zoom}/{width}x{height}", ctx -> {
@@ -57,7 +118,7 @@ public class MapServer {
                 String term = ctx.queryParam("term");
 
                 Point center = factory.pointLatLon(lat, lon);
-                List<Point> route;
+                List<List<Point>> routes = new ArrayList<>();
                 try {
                     double startLon = ctx.queryParamAsClass("startLon", Double.class).get();
                     double startLat = ctx.queryParamAsClass("startLat", Double.class).get();
@@ -65,24 +126,162 @@ public class MapServer {
                     double goalLat = ctx.queryParamAsClass("goalLat", Double.class).get();
                     Point start = factory.pointLatLon(startLat, startLon);
                     Point goal = factory.pointLatLon(goalLat, goalLon);
-                    route = map.shortestPath(start, goal);
+                    MapGraph.Profile profile = profile(ctx.queryParam("profile"));
+                    int alternatives = ctx.queryParamAsClass("alternatives", Integer.class).getOrDefault(1);
+                    List<List<Point>> paths;
+                    if (alternatives > 1) {
+                        int k = Math.min(alternatives, MAX_ALTERNATIVES);
+                        paths = map.alternativePaths(start, goal, k, profile);
+                    } else {
+                        paths = List.of(map.shortestPath(start, goal, profile));
+                    }
+                    for (List<Point> path : paths) {
+                        routes.add(new Route(path, context).simplify(Route.tolerance(zoom, lat)));
+                    }
                 } catch (ValidationException e) {
-                    route = List.of();
+                    routes.clear();
                 }
-                List<Point> locations = map.getLocations(term);
+                int[] size = imageSize(width, height);
+                List<Pin> pins = cluster(map.getLocations(term, viewport(center, zoom, size, factory)), zoom);
                 ctx.result(
                     Base64InputStream.builder()
-                    .setInputStream(url(center, zoom, width, height, route, locations).openStream())
+                    .setInputStream(url(center, zoom, size, routes, pins).openStream())
                     .setEncode(true)
                     .get()
                 );
             });
+            config.routes.get("/route", ctx -> {
+                double startLon = ctx.queryParamAsClass("startLon", Double.class).get();
+                double startLat = ctx.queryParamAsClass("startLat", Double.class).get();
+                double goalLon = ctx.queryParamAsClass("goalLon", Double.class).get();
+                double goalLat = ctx.queryParamAsClass("goalLat", Double.class).get();
+                int zoom = ctx.queryParamAsClass("zoom", Integer.class).getOrDefault(MAX_ZOOM);
+                Point start = factory.pointLatLon(startLat, startLon);
+                Point goal = factory.pointLatLon(goalLat, goalLon);
+                Route route = new Route(map.shortestPath(start, goal, profile(ctx.queryParam("profile"))), context);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("distance", route.distance());
+                result.put("polyline", encode(route.simplify(Route.tolerance(zoom, startLat))));
+                result.put("maneuvers", route.maneuvers());
+                ctx.json(result);
+            });
+            config.routes.get("/tour", ctx -> {
+                String stops = ctx.queryParamAsClass("stops", String.class)
+                        .check(value -> parseStops(value, factory) != null, "Expected up to " + MAX_STOPS
+                                + " stops as semicolon-separated lon,lat pairs")
+                        .get();
+                int zoom = ctx.queryParamAsClass("zoom", Integer.class).getOrDefault(MAX_ZOOM);
+                List<Point> points = parseStops(stops, factory);
+                MapGraph.Tour tour = map.optimizeTour(points, profile(ctx.queryParam("profile")));
+                Route route = new Route(tour.path(), context);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("order", tour.order());
+                result.put("distance", route.distance());
+                result.put("polyline", encode(route.simplify(Route.tolerance(zoom, points.get(0).getLat()))));
+                ctx.json(result);
+            });
+            config.routes.get("/reverse", ctx -> {
+                double lon = ctx.queryParamAsClass("lon", Double.class).get();
+                double lat = ctx.queryParamAsClass("lat", Double.class).get();
+                int k = ctx.queryParamAsClass("k", Integer.class).check(value -> value > 0, "k must be positive")
+                        .getOrDefault(MAX_MATCHES);
+                Double radius = ctx.queryParamAsClass("radius", Double.class).getOrDefault(null);
+                Point target = factory.pointLatLon(lat, lon);
+                List<PlaceIndex.Place> places;
+                if (radius != null) {
+                    places = map.placesWithin(target, radius);
+                    places = places.subList(0, Math.min(k, places.size()));
+                } else {
+                    places = map.nearestPlaces(target, k);
+                }
+                List<Map<String, Object>> result = new ArrayList<>(places.size());
+                for (PlaceIndex.Place place : places) {
+                    Map<String, Object> json = new LinkedHashMap<>();
+                    json.put("name", place.name());
+                    json.put("lat", place.location().getLat());
+                    json.put("lon", place.location().getLon());
+                    json.put("importance", place.importance());
+                    json.put("distance", context.calcDistance(target, place.location()) * METERS_PER_DEGREE);
+                    result.add(json);
+                }
+                ctx.json(result);
+            });
             config.routes.get("/search", ctx -> {
-                ctx.json(map.getLocationsByPrefix(ctx.queryParam("term"), MAX_MATCHES));
+                String term = ctx.queryParam("term");
+                byte[] precomputed = null;
+                if (term != null) {
+                    precomputed = precomputedSearches.get(NormalizedAutocomplete.normalize(term));
+                }
+                if (precomputed != null) {
+                    ctx.contentType(ContentType.APPLICATION_JSON).result(precomputed);
+                } else {
+                    ctx.json(map.getLocationsByPrefix(term, MAX_MATCHES));
+                }
             });
         }).start(port());
     }
 
+    /**
+     * Returns the serialized JSON autocomplete response for each short search prefix. Search results only depend on
+     * the normalized form of the prefix, so the keys are normalized prefixes.
+     *
+     * @param map the map graph to search.
+     * @return a map of each normalized search prefix to its serialized JSON autocomplete response.
+     * @throws IOException if a response cannot be serialized.
+     */
+    private static Map<String, byte[]> precomputeSearches(MapGraph map) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, byte[]> result = new HashMap<>();
+        for (String prefix : map.getSearchPrefixes(MAX_PRECOMPUTED_LENGTH)) {
+            result.put(prefix, mapper.writeValueAsBytes(map.getLocationsByPrefix(prefix, MAX_MATCHES)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the routing profile with the given case-insensitive name, or the shortest profile if there is none.
+     *
+     * @param name the name of the routing profile, or null.
+     * @return the routing profile with the given name, or the shortest profile if there is none.
+     */
+    private static MapGraph.Profile profile(String name) {
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            if (profile.name().equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        return MapGraph.Profile.SHORTEST;
+    }
+
+    /**
+     * Returns the stops in a tour request, or null if the stops are invalid.
+     *
+     * @param stops   between 1 and {@link #MAX_STOPS} semicolon-separated pairs of longitude and latitude.
+     * @param factory the shape factory for creating points.
+     * @return a list of the stops, or null if the stops are invalid.
+     */
+    private static List<Point> parseStops(String stops, ShapeFactory factory) {
+        String[] pairs = stops.split(";");
+        if (pairs.length > MAX_STOPS) {
+            return null;
+        }
+        List<Point> result = new ArrayList<>(pairs.length);
+        for (String pair : pairs) {
+            String[] coordinates = pair.split(",");
+            if (coordinates.length != 2) {
+                return null;
+            }
+            try {
+                double lon = Double.parseDouble(coordinates[0]);
+                double lat = Double.parseDouble(coordinates[1]);
+                result.add(factory.pointLatLon(lat, lon));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns the port for communicating with the server.
      *
@@ -96,31 +295,138 @@ public class MapServer {
         return PORT;
     }
 
+    /**
+     * Returns the width and height of the map image to request for the window, which is half the size of the window
+     * for the @2x scale factor and scaled down to fit {@link #MAX_DIMENSION} if needed.
+     *
+     * @param width  the width of the window.
+     * @param height the height of the window.
+     * @return an array of the width and height of the map image.
+     */
+    private static int[] imageSize(int width, int height) {
+        // Request image at @2x scale factor for better resolution on high-density displays
+        int reqWidth = (int) Math.ceil(width / 2.);
+        int reqHeight = (int) Math.ceil(height / 2.);
+        if (reqWidth > MAX_DIMENSION || reqHeight > MAX_DIMENSION) {
+            double scale = Math.max(reqWidth / (double) MAX_DIMENSION, reqHeight / (double) MAX_DIMENSION);
+            reqWidth = (int) Math.round(reqWidth / scale);
+            reqHeight = (int) Math.round(reqHeight / scale);
+        }
+        return new int[]{reqWidth, reqHeight};
+    }
+
+    /**
+     * Returns the bounds of the area visible in the map image.
+     *
+     * @param center  the center of the map image.
+     * @param zoom    the zoom level of the map image.
+     * @param size    the width and height of the map image.
+     * @param factory the shape factory for creating the bounds.
+     * @return the bounds of the visible area, where x is longitude and y is latitude.
+     */
+    private static Rectangle viewport(Point center, int zoom, int[] size, ShapeFactory factory) {
+        double x = pixelX(center.getLon(), zoom);
+        double y = pixelY(center.getLat(), zoom);
+        double worldSize = TILE_SIZE * Math.pow(2, zoom);
+        double minLon = (x - size[0] / 2.0) / worldSize * 360 - 180;
+        double maxLon = (x + size[0] / 2.0) / worldSize * 360 - 180;
+        // Pixel coordinates increase southward, so the top of the image is the maximum latitude
+        double maxLat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * (y - size[1] / 2.0) / worldSize))));
+        double minLat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * (y + size[1] / 2.0) / worldSize))));
+        return factory.rect(minLon, maxLon, minLat, maxLat);
+    }
+
+    /**
+     * Returns the horizontal Web Mercator pixel coordinate of the longitude at the zoom level.
+     *
+     * @param lon  the longitude.
+     * @param zoom the zoom level.
+     * @return the horizontal pixel coordinate from the left edge of the world.
+     */
+    private static double pixelX(double lon, int zoom) {
+        return (lon + 180) / 360 * TILE_SIZE * Math.pow(2, zoom);
+    }
+
+    /**
+     * Returns the vertical Web Mercator pixel coordinate of the latitude at the zoom level.
+     *
+     * @param lat  the latitude.
+     * @param zoom the zoom level.
+     * @return the vertical pixel coordinate from the top edge of the world.
+     */
+    private static double pixelY(double lat, int zoom) {
+        double radians = Math.toRadians(lat);
+        double y = Math.log(Math.tan(radians) + 1 / Math.cos(radians));
+        return (1 - y / Math.PI) / 2 * TILE_SIZE * Math.pow(2, zoom);
+    }
+
+    /**
+     * Returns the pins for the locations. At zoom levels up to {@link #MAX_CLUSTER_ZOOM}, the locations in each cell
+     * of a grid of {@link #CLUSTER_SIZE} pixels are clustered into one pin at their centroid.
+     *
+     * @param locations the list of locations.
+     * @param zoom      the zoom level of the map image.
+     * @return a list of the pins for the locations.
+     */
+    private static List<Pin> cluster(List<Point> locations, int zoom) {
+        List<Pin> result = new ArrayList<>();
+        if (zoom > MAX_CLUSTER_ZOOM) {
+            for (Point location : locations) {
+                result.add(new Pin(location.getLon(), location.getLat(), 1));
+            }
+            return result;
+        }
+        // Sum of longitudes, sum of latitudes, and number of locations in each grid cell
+        Map<Long, double[]> cells = new LinkedHashMap<>();
+        for (Point location : locations) {
+            long col = (long) Math.floor(pixelX(location.getLon(), zoom) / CLUSTER_SIZE);
+            long row = (long) Math.floor(pixelY(location.getLat(), zoom) / CLUSTER_SIZE);
+            double[] sums = cells.computeIfAbsent(row << 32 | col, cell -> new double[3]);
+            sums[0] += location.getLon();
+            sums[1] += location.getLat();
+            sums[2] += 1;
+        }
+        for (double[] sums : cells.values()) {
+            result.add(new Pin(sums[0] / sums[2], sums[1] / sums[2], (int) sums[2]));
+        }
+        return result;
+    }
+
     /**
      * Return the API URL for retrieving the map image.
      *
-     * @param center    the center of the map image.
-     * @param width     the width of the window.
-     * @param height    the height of the window.
-     * @param route     the list of route points (or null).
-     * @param locations the list of locations (or null).
+     * @param center the center of the map image.
+     * @param zoom   the zoom level of the map image.
+     * @param size   the width and height of the map image.
+     * @param routes the list of routes, each a list of route points, with the best route first (or null).
+     * @param pins   the list of pins (or null).
      * @return the URL for retrieving the map image.
      * @throws MalformedURLException if the URL is invalid.
      */
-    private static URL url(Point center, int zoom, int width, int height, List<Point> route, List<Point> locations)
+    private static URL url(Point center, int zoom, int[] size, List<List<Point>> routes, List<Pin> pins)
             throws MalformedURLException, URISyntaxException {
         StringBuilder overlay = new StringBuilder();
-        if (route != null && !route.isEmpty()) {
-            overlay.append("path-4+6cb5e6-1(");
-            overlay.append(URLEncoder.encode(encode(route), StandardCharsets.UTF_8));
-            overlay.append("),");
+        if (routes != null) {
+            // Draw the alternative routes first so that the best route is drawn on top of them
+            for (int i = routes.size() - 1; i >= 0; i -= 1) {
+                List<Point> route = routes.get(i);
+                if (!route.isEmpty()) {
+                    overlay.append(i == 0 ? "path-4+6cb5e6-1(" : "path-4+9e9e9e-0.8(");
+                    overlay.append(URLEncoder.encode(encode(route), StandardCharsets.UTF_8));
+                    overlay.append("),");
+                }
+            }
         }
-        if (locations != null && !locations.isEmpty()) {
-            for (Point location : locations) {
-                overlay.append("pin-s(");
-                overlay.append(location.getLon());
+        if (pins != null) {
+            for (Pin pin : pins) {
+                if (pin.count() == 1) {
+                    overlay.append("pin-s(");
+                } else {
+                    overlay.append("pin-l-").append(Math.min(pin.count(), MAX_CLUSTER_LABEL)).append('(');
+                }
+                overlay.append(pin.lon());
                 overlay.append(',');
-                overlay.append(location.getLat());
+                overlay.append(pin.lat());
                 overlay.append("),");
             }
         }
@@ -128,15 +434,6 @@ public class MapServer {
             // Replace the trailing comma with a forward slash
             overlay.setCharAt(overlay.length() - 1, '/');
         }
-        // Request image at @2x scale factor for better resolution on high-density displays
-        int reqWidth = (int) Math.ceil(width / 2.);
-        int reqHeight = (int) Math.ceil(height / 2.);
-        if (reqWidth > MAX_DIMENSION || reqHeight > MAX_DIMENSION) {
-            double scale = Math.max(reqWidth / (double) MAX_DIMENSION, reqHeight / (double) MAX_DIMENSION);
-            reqWidth = (int) Math.round(reqWidth / scale);
-            reqHeight = (int) Math.round(reqHeight / scale);
-        }
-
         return new URI(String.format(
                 "https://api.mapbox.com/"
                         // {username}/{style_id} and {overlay} (must include trailing slash)
@@ -149,7 +446,7 @@ public class MapServer {
                 "cj7t3i5yj0unt2rmt3y4b5e32",
                 overlay,
                 center.getLon(), center.getLat(), zoom,
-                reqWidth, reqHeight, "@2x",
+                size[0], size[1], "@2x",
                 System.getenv("TOKEN")
         )).toURL();
     }
@@ -193,4 +490,14 @@ public class MapServer {
         }
         result.append(Character.toChars((int) (diff + 63)));
     }
+
+    /**
+     * A pin on the map image for one location or a cluster of nearby locations.
+     *
+     * @param lon   the longitude of the pin.
+     * @param lat   the latitude of the pin.
+     * @param count the number of locations represented by the pin.
+     */
+    private record Pin(double lon, double lat, int count) {
+    }
 }
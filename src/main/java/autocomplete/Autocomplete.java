@@ -10,6 +10,9 @@ import java.util.List;
  * @see SequentialSearchAutocomplete
  * @see BinarySearchAutocomplete
  * @see TernarySearchTreeAutocomplete
+ * @see NormalizedAutocomplete
+ * @see LevenshteinAutocomplete
+ * @see TokenAutocomplete
  */
 public interface Autocomplete {
     /**
@@ -27,17 +30,24 @@ public interface Autocomplete {
     List<CharSequence> allMatches(CharSequence prefix);
 
     /**
-     * Returns true if and only if the given term matches the given prefix.
+     * Returns true if and only if the given term matches the given prefix. Compares characters in place rather than
+     * creating a subsequence of the term, so checking many terms does not allocate any objects.
      *
      * @param prefix prefix template.
      * @param term term to check against the prefix.
      * @return true if and only if the given term matches the given prefix.
      */
     static boolean isPrefixOf(CharSequence prefix, CharSequence term) {
-        if (prefix.length() <= term.length()) {
-            CharSequence part = term.subSequence(0, prefix.length());
-            return CharSequence.compare(prefix, part) == 0;
+        if (prefix.length() > term.length()) {
+            return false;
+        } else if (prefix instanceof String p && term instanceof String t) {
+            return t.startsWith(p);
         }
-        return false;
+        for (int i = 0; i < prefix.length(); i += 1) {
+            if (prefix.charAt(i) != term.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,154 @@
+package autocomplete;
+
+import java.util.*;
+
+/**
+ * Typo-tolerant trie implementation of the {@link Autocomplete} interface. A term matches a query if some prefix of
+ * the term is within a bounded edit distance of the query, where an edit is an insertion, deletion, substitution, or
+ * transposition of adjacent characters. Matching simulates a Levenshtein automaton for the query over the trie, so
+ * only the subtrees whose paths stay within the edit budget are ever visited.
+ *
+ * @see Autocomplete
+ */
+public class LevenshteinAutocomplete implements Autocomplete {
+    /**
+     * Length of the shortest query that tolerates an edit. Shorter queries must match exactly since otherwise almost
+     * every term would match.
+     */
+    private static final int MIN_TYPO_LENGTH = 3;
+    /**
+     * Number of additional query characters needed to afford each additional edit, so that queries of 3 to 7
+     * characters tolerate 1 edit and queries of 8 to 12 characters tolerate 2 edits.
+     */
+    private static final int CHARACTERS_PER_EDIT = 5;
+    /**
+     * The maximum edit distance for any query regardless of its length.
+     */
+    private final int maxDistance;
+    /**
+     * The overall root of the trie representing the empty string.
+     */
+    private final Node overallRoot;
+
+    /**
+     * Constructs an empty instance.
+     *
+     * @param maxDistance the maximum edit distance for any query.
+     */
+    public LevenshteinAutocomplete(int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Negative distance " + maxDistance);
+        }
+        this.maxDistance = maxDistance;
+        this.overallRoot = new Node('\0');
+    }
+
+    /**
+     * Constructs an instance containing the given terms.
+     *
+     * @param maxDistance the maximum edit distance for any query.
+     */
+    public LevenshteinAutocomplete(int maxDistance, Collection<? extends CharSequence> terms) {
+        this(maxDistance);
+        addAll(terms);
+    }
+
+    @Override
+    public void addAll(Collection<? extends CharSequence> terms) {
+        for (CharSequence term : terms) {
+            Node curr = overallRoot;
+            for (int i = 0; i < term.length(); i += 1) {
+                curr = curr.children.computeIfAbsent(term.charAt(i), Node::new);
+            }
+            if (curr.term == null) {
+                curr.term = term;
+            }
+        }
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix) {
+        List<CharSequence> result = new ArrayList<>();
+        if (prefix == null || prefix.length() == 0) {
+            return result;
+        }
+        int distance = prefix.length() < MIN_TYPO_LENGTH ? 0
+                : Math.min(maxDistance, 1 + (prefix.length() - MIN_TYPO_LENGTH) / CHARACTERS_PER_EDIT);
+        // Each row of edit distances is one state of the automaton: rows[depth][j] is the edit distance between the
+        // first j characters of the prefix and the trie path of the given depth. No path deeper than this can match.
+        int[][] rows = new int[prefix.length() + distance + 2][prefix.length() + 1];
+        for (int j = 0; j <= prefix.length(); j += 1) {
+            rows[0][j] = j;
+        }
+        for (Node child : overallRoot.children.values()) {
+            collect(child, '\0', 1, prefix, distance, rows, result);
+        }
+        return result;
+    }
+
+    /**
+     * Advances the automaton by the character at the given node and adds all terms in the subtree to the result once
+     * the path is within the given distance of the entire prefix.
+     *
+     * @param node     the current node.
+     * @param previous the character of the parent node, or {@code '\0'} at the top of the trie.
+     * @param depth    the length of the path to the current node.
+     * @param prefix   the query prefix.
+     * @param distance the maximum edit distance.
+     * @param rows     the automaton states along the path, overwritten for the current depth.
+     * @param result   the destination for adding matching terms.
+     */
+    private static void collect(Node node, char previous, int depth, CharSequence prefix, int distance,
+                                int[][] rows, List<CharSequence> result) {
+        int[] above = rows[depth - 1];
+        int[] row = rows[depth];
+        row[0] = depth;
+        int min = row[0];
+        for (int j = 1; j <= prefix.length(); j += 1) {
+            char c = prefix.charAt(j - 1);
+            int cost = c == node.data ? 0 : 1;
+            row[j] = Math.min(Math.min(above[j] + 1, row[j - 1] + 1), above[j - 1] + cost);
+            if (depth > 1 && j > 1 && c == previous && prefix.charAt(j - 2) == node.data) {
+                row[j] = Math.min(row[j], rows[depth - 2][j - 2] + 1);
+            }
+            min = Math.min(min, row[j]);
+        }
+        if (row[prefix.length()] <= distance) {
+            addSubtree(node, result);
+        } else if (min <= distance) {
+            for (Node child : node.children.values()) {
+                collect(child, node.data, depth + 1, prefix, distance, rows, result);
+            }
+        }
+    }
+
+    /**
+     * Adds all terms in the subtree rooted at the given node to the result.
+     *
+     * @param node   the root of the subtree.
+     * @param result the destination for adding terms.
+     */
+    private static void addSubtree(Node node, List<CharSequence> result) {
+        if (node.term != null) {
+            result.add(node.term);
+        }
+        for (Node child : node.children.values()) {
+            addSubtree(child, result);
+        }
+    }
+
+    /**
+     * A trie node representing a single character in an autocompletion term.
+     */
+    private static class Node {
+        private final char data;
+        private final Map<Character, Node> children;
+        private CharSequence term;
+
+        public Node(char data) {
+            this.data = data;
+            this.children = new HashMap<>();
+            this.term = null;
+        }
+    }
+}
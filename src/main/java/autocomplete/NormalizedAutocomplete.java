@@ -0,0 +1,94 @@
+package autocomplete;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Case-, accent-, and punctuation-insensitive implementation of the {@link Autocomplete} interface. Each term is
+ * normalized once when it is added, so a query only needs to normalize the prefix before delegating to another
+ * {@link Autocomplete} over the normalized terms.
+ *
+ * @see Autocomplete
+ */
+public class NormalizedAutocomplete implements Autocomplete {
+    /**
+     * Combining marks left over after canonical decomposition, such as the accent in "é".
+     */
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    /**
+     * Characters that are neither letters, digits, nor whitespace.
+     */
+    private static final Pattern PUNCTUATION = Pattern.compile("[^\\p{L}\\p{N}\\s]+");
+    /**
+     * Runs of one or more whitespace characters.
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    /**
+     * {@link Autocomplete} of normalized terms.
+     */
+    private final Autocomplete normalized;
+    /**
+     * {@link Map} of each normalized term to all the original terms that share the same normalized form.
+     */
+    private final Map<String, List<CharSequence>> originals;
+
+    /**
+     * Constructs an empty instance that stores normalized terms in the given {@link Autocomplete}.
+     *
+     * @param normalized an empty {@link Autocomplete} for storing normalized terms.
+     */
+    public NormalizedAutocomplete(Autocomplete normalized) {
+        this.normalized = normalized;
+        this.originals = new HashMap<>();
+    }
+
+    /**
+     * Constructs an instance containing the given terms that stores normalized terms in the given {@link Autocomplete}.
+     */
+    public NormalizedAutocomplete(Autocomplete normalized, Collection<? extends CharSequence> terms) {
+        this(normalized);
+        addAll(terms);
+    }
+
+    @Override
+    public void addAll(Collection<? extends CharSequence> terms) {
+        List<CharSequence> added = new ArrayList<>();
+        for (CharSequence term : terms) {
+            String key = normalize(term);
+            if (!originals.containsKey(key)) {
+                originals.put(key, new ArrayList<>(1));
+                added.add(key);
+            }
+            originals.get(key).add(term);
+        }
+        normalized.addAll(added);
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix) {
+        List<CharSequence> result = new ArrayList<>();
+        if (prefix == null) {
+            return result;
+        }
+        for (CharSequence key : normalized.allMatches(normalize(prefix))) {
+            result.addAll(originals.get(key.toString()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the normalized form of the given text: decomposed, stripped of accents and punctuation, lowercased, and
+     * with consecutive whitespace collapsed into a single space.
+     *
+     * @param text the text to normalize.
+     * @return the normalized form of the given text.
+     */
+    public static String normalize(CharSequence text) {
+        String result = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        result = MARKS.matcher(result).replaceAll("");
+        result = PUNCTUATION.matcher(result).replaceAll("");
+        result = WHITESPACE.matcher(result).replaceAll(" ");
+        return result.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,163 @@
+package autocomplete;
+
+import java.util.Arrays;
+
+/**
+ * Contiguous storage for many terms. Rather than storing each term as a separate object, all characters are packed
+ * into a single {@code char[]} and each term is identified by its index into an array of offsets. Comparing a stored
+ * term against a query reads characters in place, so searching through many terms does not allocate any objects.
+ *
+ * @see Autocomplete
+ */
+public class TermArena {
+    /**
+     * The characters of all terms, one after another.
+     */
+    private char[] chars;
+    /**
+     * The offset of each term in {@code chars}, followed by one more offset marking the end of the last term.
+     */
+    private int[] offsets;
+    /**
+     * The number of terms.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public TermArena() {
+        chars = new char[16];
+        offsets = new int[]{0, 0};
+        size = 0;
+    }
+
+    /**
+     * Adds the given term to the end of this arena.
+     *
+     * @param term the term to add.
+     * @return the index of the added term.
+     */
+    public int add(CharSequence term) {
+        int start = offsets[size];
+        int end = start + term.length();
+        if (end > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(end, 2 * chars.length));
+        }
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        }
+        for (int i = 0; i < term.length(); i += 1) {
+            chars[start + i] = term.charAt(i);
+        }
+        size += 1;
+        offsets[size] = end;
+        return size - 1;
+    }
+
+    /**
+     * Returns the number of terms in this arena.
+     *
+     * @return the number of terms in this arena.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the term at the given index.
+     *
+     * @param index the index of the term.
+     * @return the length of the term at the given index.
+     */
+    public int length(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Compares the term at the given index with the given text lexicographically by character values.
+     *
+     * @param index the index of the term.
+     * @param text  the text to compare against.
+     * @return a negative integer, zero, or a positive integer as the term is less than, equal to, or greater than the
+     * text.
+     * @see CharSequence#compare(CharSequence, CharSequence)
+     */
+    public int compare(int index, CharSequence text) {
+        int start = offsets[index];
+        int length = length(index);
+        int n = Math.min(length, text.length());
+        for (int i = 0; i < n; i += 1) {
+            char c = chars[start + i];
+            char other = text.charAt(i);
+            if (c != other) {
+                return c - other;
+            }
+        }
+        return length - text.length();
+    }
+
+    /**
+     * Returns true if and only if the term at the given index matches the given prefix.
+     *
+     * @param prefix prefix template.
+     * @param index  the index of the term to check against the prefix.
+     * @return true if and only if the term at the given index matches the given prefix.
+     * @see Autocomplete#isPrefixOf(CharSequence, CharSequence)
+     */
+    public boolean isPrefixOf(CharSequence prefix, int index) {
+        if (prefix.length() > length(index)) {
+            return false;
+        }
+        int start = offsets[index];
+        for (int i = 0; i < prefix.length(); i += 1) {
+            if (chars[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first term that is greater than or equal to the given text, assuming that the terms in
+     * this arena were added in sorted order.
+     *
+     * @param text the text to search for.
+     * @return the index of the first term that is greater than or equal to the given text.
+     */
+    public int ceiling(CharSequence text) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(mid, text) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns a new string containing the term at the given index.
+     *
+     * @param index the index of the term.
+     * @return a new string containing the term at the given index.
+     */
+    public String get(int index) {
+        return new String(chars, offsets[index], length(index));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < size; i += 1) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(chars, offsets[i], length(i));
+        }
+        return result.append(']').toString();
+    }
+}
@@ -0,0 +1,202 @@
+package autocomplete;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index implementation of the {@link Autocomplete} interface. Rather than matching the prefix against the
+ * beginning of each term, a term matches if every whitespace-separated token in the prefix is a prefix of some token
+ * in the term. For example, "tavern pi" matches "The Northlake Tavern & Pizza House".
+ *
+ * @see Autocomplete
+ */
+public class TokenAutocomplete implements Autocomplete {
+    /**
+     * Runs of one or more whitespace characters separating tokens.
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    /**
+     * {@link List} of added autocompletion terms, where the index of each term is its term ID.
+     */
+    private final List<CharSequence> elements;
+    /**
+     * All distinct tokens in sorted order, where the index of each token is its token ID.
+     */
+    private TermArena tokens;
+    /**
+     * The postings list for each token: a sorted array of the term IDs of all terms containing that token.
+     */
+    private int[][] postings;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public TokenAutocomplete() {
+        elements = new ArrayList<>();
+        tokens = new TermArena();
+        postings = new int[0][];
+    }
+
+    /**
+     * Constructs an instance containing the given terms.
+     */
+    public TokenAutocomplete(Collection<? extends CharSequence> terms) {
+        this();
+        addAll(terms);
+    }
+
+    @Override
+    public void addAll(Collection<? extends CharSequence> terms) {
+        // Index only the added terms, which is garbage once merged into the packed tokens and postings
+        NavigableMap<String, List<Integer>> index = new TreeMap<>();
+        for (CharSequence term : terms) {
+            int id = elements.size();
+            elements.add(term);
+            for (String token : tokenize(term)) {
+                List<Integer> ids = index.computeIfAbsent(token, t -> new ArrayList<>());
+                // Skip repeated tokens within the same term
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+                    ids.add(id);
+                }
+            }
+        }
+        // Merge the sorted existing tokens with the sorted added tokens. Added term IDs are larger than every existing
+        // term ID, so appending them to the existing postings keeps each postings list sorted.
+        TermArena merged = new TermArena();
+        int[][] mergedPostings = new int[tokens.size() + index.size()][];
+        int size = 0;
+        int i = 0;
+        Iterator<Map.Entry<String, List<Integer>>> added = index.entrySet().iterator();
+        Map.Entry<String, List<Integer>> entry = added.hasNext() ? added.next() : null;
+        while (i < tokens.size() || entry != null) {
+            int cmp = entry == null ? -1 : i == tokens.size() ? 1 : tokens.compare(i, entry.getKey());
+            if (cmp <= 0) {
+                merged.add(tokens.get(i));
+                mergedPostings[size] = postings[i];
+                i += 1;
+            } else {
+                merged.add(entry.getKey());
+                mergedPostings[size] = new int[0];
+            }
+            if (cmp >= 0) {
+                int[] ids = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+                int[] existing = mergedPostings[size];
+                mergedPostings[size] = Arrays.copyOf(existing, existing.length + ids.length);
+                System.arraycopy(ids, 0, mergedPostings[size], existing.length, ids.length);
+                entry = added.hasNext() ? added.next() : null;
+            }
+            size += 1;
+        }
+        tokens = merged;
+        postings = Arrays.copyOf(mergedPostings, size);
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix) {
+        List<CharSequence> result = new ArrayList<>();
+        if (prefix == null) {
+            return result;
+        }
+        String[] queryTokens = tokenize(prefix);
+        if (queryTokens.length == 0) {
+            return result;
+        }
+        int[][] matches = new int[queryTokens.length][];
+        for (int i = 0; i < queryTokens.length; i += 1) {
+            matches[i] = prefixPostings(queryTokens[i]);
+        }
+        // Intersect starting from the shortest postings so that each intersection can skip through the longer ones
+        Arrays.sort(matches, Comparator.comparingInt(ids -> ids.length));
+        int[] ids = matches[0];
+        int size = ids.length;
+        if (matches.length > 1) {
+            // Copy the postings since the intersection is computed in place
+            ids = ids.clone();
+        }
+        for (int i = 1; i < matches.length && size > 0; i += 1) {
+            size = intersect(ids, size, matches[i]);
+        }
+        for (int i = 0; i < size; i += 1) {
+            result.add(elements.get(ids[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sorted term IDs of all terms containing a token that starts with the given prefix.
+     *
+     * @param prefix the token prefix.
+     * @return the sorted term IDs of all terms containing a token that starts with the given prefix.
+     */
+    private int[] prefixPostings(String prefix) {
+        int lo = tokens.ceiling(prefix);
+        int hi = lo;
+        while (hi < tokens.size() && tokens.isPrefixOf(prefix, hi)) {
+            hi += 1;
+        }
+        if (hi - lo == 1) {
+            return postings[lo];
+        }
+        BitSet union = new BitSet(elements.size());
+        for (int i = lo; i < hi; i += 1) {
+            for (int id : postings[i]) {
+                union.set(id);
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    /**
+     * Intersects the first size term IDs in the destination with the other sorted term IDs, storing the result at the
+     * beginning of the destination. Each lookup gallops (doubles its step size) through the other array, so the cost
+     * is logarithmic in the gaps between matches rather than linear in the length of the other array.
+     *
+     * @param ids   the sorted term IDs to intersect and the destination for the result.
+     * @param size  the number of term IDs in the destination.
+     * @param other the other sorted term IDs.
+     * @return the number of term IDs in the intersection.
+     */
+    private static int intersect(int[] ids, int size, int[] other) {
+        int result = 0;
+        int lo = 0;
+        for (int i = 0; i < size && lo < other.length; i += 1) {
+            int id = ids[i];
+            int step = 1;
+            int hi = lo;
+            while (hi < other.length && other[hi] < id) {
+                lo = hi + 1;
+                hi += step;
+                step *= 2;
+            }
+            hi = Math.min(hi, other.length);
+            // Binary search for the first ID at least as large as the target between lo and hi
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (other[mid] < id) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo < other.length && other[lo] == id) {
+                ids[result] = id;
+                result += 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the whitespace-separated tokens in the given text.
+     *
+     * @param text the text to tokenize.
+     * @return the whitespace-separated tokens in the given text.
+     */
+    private static String[] tokenize(CharSequence text) {
+        String stripped = text.toString().strip();
+        if (stripped.isEmpty()) {
+            return new String[0];
+        }
+        return WHITESPACE.split(stripped);
+    }
+}
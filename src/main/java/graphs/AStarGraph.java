@@ -8,6 +8,7 @@ import graphs.shortestpaths.AStarSolver;
  * @param <V> the type of vertices.
  * @see Graph
  * @see AStarSolver
+ * @see LandmarkGraph
  */
 public interface AStarGraph<V> extends Graph<V> {
     /**
@@ -0,0 +1,119 @@
+package graphs;
+
+import graphs.shortestpaths.ArcFlagSolver;
+import graphs.shortestpaths.IntDijkstraSolver;
+import graphs.shortestpaths.SearchWorkspace;
+
+import java.util.stream.IntStream;
+
+/**
+ * Arc flags for pruning point-to-point shortest path searches in an {@link IntGraph} whose vertices are partitioned
+ * into cells. Each edge is flagged with every cell that contains the end of some shortest path through that edge, so
+ * a search toward a goal only needs to relax the edges flagged with the cell of the goal. During preprocessing, every
+ * edge within a cell is flagged with that cell, and a backward shortest path search is run from each boundary vertex
+ * of a cell (a vertex with an incoming edge from another cell) to flag the edges of its shortest path tree with that
+ * cell. The cells are preprocessed in parallel.
+ *
+ * @see IntGraph
+ * @see ArcFlagSolver
+ */
+public class ArcFlags {
+    /**
+     * Maximum number of cells, since the flags for each edge are stored in the bits of a long.
+     */
+    public static final int MAX_CELLS = Long.SIZE;
+    /**
+     * The cell of each vertex.
+     */
+    private final int[] cells;
+    /**
+     * The flags of each edge, where bit c is set if and only if the edge is flagged with cell c.
+     */
+    private final long[] flags;
+
+    /**
+     * Constructs the arc flags for the graph partitioned into the given cells.
+     *
+     * @param graph    the input graph.
+     * @param cells    the cell of each vertex, from 0 to the number of cells (exclusive).
+     * @param numCells the number of cells.
+     * @throws IllegalArgumentException if the number of cells is not between 1 and {@link #MAX_CELLS}.
+     */
+    public ArcFlags(IntGraph graph, int[] cells, int numCells) {
+        if (numCells < 1 || numCells > MAX_CELLS) {
+            throw new IllegalArgumentException("Number of cells must be between 1 and " + MAX_CELLS + ": " + numCells);
+        }
+        this.cells = cells.clone();
+        flags = new long[graph.numEdges()];
+        ReverseGraph reverse = new ReverseGraph(graph);
+        IntStream.range(0, numCells).parallel().forEach(cell -> {
+            boolean[] flagged = flagCell(graph, reverse, cell);
+            synchronized (flags) {
+                for (int e = 0; e < flagged.length; e += 1) {
+                    if (flagged[e]) {
+                        flags[e] |= 1L << cell;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns which edges should be flagged with the given cell.
+     *
+     * @param graph   the input graph.
+     * @param reverse the reverse of the input graph.
+     * @param cell    the cell to preprocess.
+     * @return whether each edge should be flagged with the given cell.
+     */
+    private boolean[] flagCell(IntGraph graph, ReverseGraph reverse, int cell) {
+        boolean[] result = new boolean[graph.numEdges()];
+        IntDijkstraSolver solver = new IntDijkstraSolver(reverse, new SearchWorkspace(graph.numVertices()));
+        for (int v = 0; v < graph.numVertices(); v += 1) {
+            if (cells[v] != cell) {
+                continue;
+            }
+            boolean boundary = false;
+            for (int e = reverse.firstEdge(v); e < reverse.endEdge(v); e += 1) {
+                int from = reverse.to(e);
+                if (cells[from] == cell) {
+                    result[reverse.originalEdge(e)] = true;
+                } else {
+                    boundary = true;
+                }
+            }
+            if (boundary) {
+                // Every shortest path into the cell through this vertex can follow the shortest path tree to it
+                solver.solve(v);
+                for (int u = 0; u < graph.numVertices(); u += 1) {
+                    int e = solver.edgeTo(u);
+                    if (e >= 0) {
+                        result[reverse.originalEdge(e)] = true;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cell of the given vertex.
+     *
+     * @param vertex the index of the vertex.
+     * @return the cell of the given vertex.
+     */
+    public int cell(int vertex) {
+        return cells[vertex];
+    }
+
+    /**
+     * Returns true if and only if the given edge is flagged with the given cell.
+     *
+     * @param edge the index of the edge.
+     * @param cell the cell of interest.
+     * @return true if and only if the given edge is flagged with the given cell.
+     */
+    public boolean isFlagged(int edge, int cell) {
+        return (flags[edge] & (1L << cell)) != 0;
+    }
+}
@@ -0,0 +1,168 @@
+package graphs;
+
+import java.util.*;
+
+/**
+ * {@link IntAStarGraph} built from the vertices of a {@link Graph} that are reachable from the given start vertices.
+ * Each reachable vertex is assigned a dense integer index in breadth-first order, and the edges are stored in
+ * compressed sparse row form: parallel arrays of edge endpoints and weights ordered by originating vertex, along with
+ * the index of the first outgoing edge from each vertex. The outgoing edges from each vertex keep the order of
+ * {@link Graph#neighbors(Object)}, so side arrays indexed by edge can be filled in the same order. If the graph is an
+ * {@link AStarGraph}, its heuristic function is used to estimate distances. Otherwise, every estimate is 0.
+ *
+ * @param <V> the type of vertices in the original graph.
+ * @see IntAStarGraph
+ * @see Graph
+ */
+public class CompactGraph<V> implements IntAStarGraph {
+    /**
+     * The original graph.
+     */
+    private final Graph<V> graph;
+    /**
+     * The reachable vertices of the original graph ordered by index.
+     */
+    private final List<V> vertices;
+    /**
+     * {@link Map} of reachable vertices of the original graph to their indices.
+     */
+    private final Map<V, Integer> indices;
+    /**
+     * The index of the first outgoing edge from each vertex, followed by the total number of edges.
+     */
+    private final int[] firstEdges;
+    /**
+     * The index of the originating vertex of each edge.
+     */
+    private final int[] froms;
+    /**
+     * The index of the destination vertex of each edge.
+     */
+    private final int[] tos;
+    /**
+     * The weight of each edge.
+     */
+    private final double[] weights;
+
+    /**
+     * Constructs a new instance from the vertices of the graph that are reachable from the given start vertices.
+     *
+     * @param graph  the input graph.
+     * @param starts the start vertices.
+     */
+    public CompactGraph(Graph<V> graph, Collection<? extends V> starts) {
+        this.graph = graph;
+        vertices = new ArrayList<>();
+        indices = new HashMap<>();
+        for (V start : starts) {
+            indexOrAdd(start);
+        }
+        int[] firstEdges = new int[16];
+        int[] froms = new int[16];
+        int[] tos = new int[16];
+        double[] weights = new double[16];
+        int numEdges = 0;
+        // Vertices are discovered in breadth-first order, so each vertex is visited after all smaller indices
+        for (int i = 0; i < vertices.size(); i += 1) {
+            if (i + 1 >= firstEdges.length) {
+                firstEdges = Arrays.copyOf(firstEdges, 2 * firstEdges.length);
+            }
+            firstEdges[i] = numEdges;
+            for (Edge<V> e : graph.neighbors(vertices.get(i))) {
+                if (numEdges == tos.length) {
+                    froms = Arrays.copyOf(froms, 2 * numEdges);
+                    tos = Arrays.copyOf(tos, 2 * numEdges);
+                    weights = Arrays.copyOf(weights, 2 * numEdges);
+                }
+                froms[numEdges] = i;
+                tos[numEdges] = indexOrAdd(e.to);
+                weights[numEdges] = e.weight;
+                numEdges += 1;
+            }
+        }
+        firstEdges[vertices.size()] = numEdges;
+        this.firstEdges = Arrays.copyOf(firstEdges, vertices.size() + 1);
+        this.froms = Arrays.copyOf(froms, numEdges);
+        this.tos = Arrays.copyOf(tos, numEdges);
+        this.weights = Arrays.copyOf(weights, numEdges);
+    }
+
+    /**
+     * Returns the index of the given vertex, or -1 if the vertex is not reachable from the start vertices.
+     *
+     * @param vertex a vertex of the original graph.
+     * @return the index of the given vertex, or -1 if the vertex is not reachable from the start vertices.
+     */
+    public int indexOf(V vertex) {
+        return indices.getOrDefault(vertex, -1);
+    }
+
+    /**
+     * Returns the vertex of the original graph with the given index.
+     *
+     * @param index the index of the vertex.
+     * @return the vertex of the original graph with the given index.
+     */
+    public V vertex(int index) {
+        return vertices.get(index);
+    }
+
+    @Override
+    public int numVertices() {
+        return vertices.size();
+    }
+
+    @Override
+    public int numEdges() {
+        return tos.length;
+    }
+
+    @Override
+    public int firstEdge(int vertex) {
+        return firstEdges[vertex];
+    }
+
+    @Override
+    public int endEdge(int vertex) {
+        return firstEdges[vertex + 1];
+    }
+
+    @Override
+    public int from(int edge) {
+        return froms[edge];
+    }
+
+    @Override
+    public int to(int edge) {
+        return tos[edge];
+    }
+
+    @Override
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    @Override
+    public double estimatedDistance(int start, int end) {
+        if (graph instanceof AStarGraph<V> aStarGraph) {
+            return aStarGraph.estimatedDistance(vertices.get(start), vertices.get(end));
+        }
+        return 0.0;
+    }
+
+    /**
+     * Returns the index of the given vertex, assigning it the next index if it has not been discovered yet.
+     *
+     * @param vertex a vertex of the original graph.
+     * @return the index of the given vertex.
+     */
+    private int indexOrAdd(V vertex) {
+        Integer index = indices.get(vertex);
+        if (index == null) {
+            index = vertices.size();
+            indices.put(vertex, index);
+            vertices.add(vertex);
+        }
+        return index;
+    }
+}
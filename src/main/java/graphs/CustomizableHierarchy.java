@@ -0,0 +1,719 @@
+package graphs;
+
+import graphs.shortestpaths.HierarchySolver;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Customizable contraction hierarchy (CCH) for answering shortest path queries in an {@link IntGraph} under any edge
+ * weights. Preprocessing is split into two phases:
+ * <ol>
+ *     <li>The metric-independent phase ranks the vertices by an order, such as a nested dissection order, and then
+ *     contracts them from lowest to highest rank without looking at any edge weights. Contracting a vertex connects
+ *     all its higher-ranked neighbors to each other with shortcut arcs, so the result is a chordal supergraph of the
+ *     undirected graph where every arc goes from a lower-ranked to a higher-ranked vertex.</li>
+ *     <li>The customization phase takes a vector of edge weights and computes the weight of every arc in both
+ *     directions by relaxing lower triangles: the weight of the arc from x to y is at most the weight from x down to a
+ *     lower-ranked vertex v plus the weight from v up to y. Vertices are grouped into levels such that the arcs of
+ *     each vertex only depend on the arcs of vertices in lower levels, so each level is customized in parallel.</li>
+ * </ol>
+ * A customization is cheap enough to repeat for every routing profile or whenever edge weights change, and each
+ * resulting {@link Metric} can be queried with a {@link HierarchySolver}.
+ *
+ * @see IntGraph
+ * @see HierarchySolver
+ */
+public class CustomizableHierarchy {
+    /**
+     * Maximum number of vertices in a part that nested dissection orders without splitting any further.
+     */
+    private static final int LEAF_SIZE = 8;
+    /**
+     * The rank of each vertex.
+     */
+    private final int[] ranks;
+    /**
+     * The vertex with each rank.
+     */
+    private final int[] vertices;
+    /**
+     * The lowest-ranked upward neighbor of each rank, which is its parent in the elimination tree, or -1 if none.
+     */
+    private final int[] parents;
+    /**
+     * The index of the first upward arc from each rank, followed by the total number of arcs.
+     */
+    private final int[] firstArcs;
+    /**
+     * The lower rank of each arc.
+     */
+    private final int[] tails;
+    /**
+     * The higher rank of each arc. The arcs from each rank are sorted by their higher rank.
+     */
+    private final int[] heads;
+    /**
+     * The index of the first downward arc into each rank in {@link #downArcs}, followed by the total number of arcs.
+     */
+    private final int[] firstDownArcs;
+    /**
+     * The arcs into each rank from lower ranks, sorted by their lower rank.
+     */
+    private final int[] downArcs;
+    /**
+     * The ranks in each level, where the arcs of a rank only depend on the arcs of ranks in lower levels.
+     */
+    private final int[][] levels;
+    /**
+     * The arc for each edge of the original graph, or -1 if the edge is a self-loop.
+     */
+    private final int[] edgeArcs;
+    /**
+     * Whether each edge of the original graph goes from a lower-ranked to a higher-ranked vertex.
+     */
+    private final boolean[] edgeUpward;
+
+    /**
+     * Constructs the metric-independent hierarchy for the graph with vertices ranked by the given order.
+     *
+     * @param graph the input graph.
+     * @param order the vertices of the graph from lowest to highest rank.
+     * @throws IllegalArgumentException if the order is not a permutation of the vertices.
+     */
+    public CustomizableHierarchy(IntGraph graph, int[] order) {
+        int n = graph.numVertices();
+        if (order.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " vertices but got " + order.length);
+        }
+        ranks = new int[n];
+        Arrays.fill(ranks, -1);
+        for (int i = 0; i < n; i += 1) {
+            if (ranks[order[i]] >= 0) {
+                throw new IllegalArgumentException("Already contains " + order[i]);
+            }
+            ranks[order[i]] = i;
+        }
+        vertices = order.clone();
+
+        // Collect the upward neighbors of each rank, ignoring the direction of edges
+        int[][] up = new int[n][];
+        int[] sizes = new int[n];
+        for (int e = 0; e < graph.numEdges(); e += 1) {
+            int a = ranks[graph.from(e)];
+            int b = ranks[graph.to(e)];
+            if (a != b) {
+                append(up, sizes, Math.min(a, b), Math.max(a, b));
+            }
+        }
+        // Contract each rank by connecting its upward neighbors, which only requires adding them to its parent
+        parents = new int[n];
+        int numArcs = 0;
+        for (int v = 0; v < n; v += 1) {
+            int size = sortDistinct(up[v], sizes[v]);
+            sizes[v] = size;
+            parents[v] = size == 0 ? -1 : up[v][0];
+            for (int i = 1; i < size; i += 1) {
+                append(up, sizes, parents[v], up[v][i]);
+            }
+            numArcs += size;
+        }
+        firstArcs = new int[n + 1];
+        tails = new int[numArcs];
+        heads = new int[numArcs];
+        firstDownArcs = new int[n + 1];
+        for (int v = 0; v < n; v += 1) {
+            firstArcs[v + 1] = firstArcs[v] + sizes[v];
+            for (int i = 0; i < sizes[v]; i += 1) {
+                int arc = firstArcs[v] + i;
+                tails[arc] = v;
+                heads[arc] = up[v][i];
+                firstDownArcs[heads[arc] + 1] += 1;
+            }
+            up[v] = null;
+        }
+        for (int v = 0; v < n; v += 1) {
+            firstDownArcs[v + 1] += firstDownArcs[v];
+        }
+        downArcs = new int[numArcs];
+        int[] next = Arrays.copyOf(firstDownArcs, n);
+        for (int arc = 0; arc < numArcs; arc += 1) {
+            downArcs[next[heads[arc]]] = arc;
+            next[heads[arc]] += 1;
+        }
+
+        // Each rank is one level above the highest level of the lower ranks that it depends on
+        int[] levelOf = new int[n];
+        int numLevels = 0;
+        for (int v = 0; v < n; v += 1) {
+            for (int i = firstDownArcs[v]; i < firstDownArcs[v + 1]; i += 1) {
+                levelOf[v] = Math.max(levelOf[v], levelOf[tails[downArcs[i]]] + 1);
+            }
+            numLevels = Math.max(numLevels, levelOf[v] + 1);
+        }
+        int[] levelSizes = new int[numLevels];
+        for (int v = 0; v < n; v += 1) {
+            levelSizes[levelOf[v]] += 1;
+        }
+        levels = new int[numLevels][];
+        for (int i = 0; i < numLevels; i += 1) {
+            levels[i] = new int[levelSizes[i]];
+            levelSizes[i] = 0;
+        }
+        for (int v = 0; v < n; v += 1) {
+            int level = levelOf[v];
+            levels[level][levelSizes[level]] = v;
+            levelSizes[level] += 1;
+        }
+
+        edgeArcs = new int[graph.numEdges()];
+        edgeUpward = new boolean[graph.numEdges()];
+        for (int e = 0; e < graph.numEdges(); e += 1) {
+            int a = ranks[graph.from(e)];
+            int b = ranks[graph.to(e)];
+            edgeArcs[e] = a == b ? -1 : findArc(Math.min(a, b), Math.max(a, b));
+            edgeUpward[e] = a < b;
+        }
+    }
+
+    /**
+     * Returns a nested dissection order of the vertices of the graph using their coordinates. The vertices are split
+     * in half at the median coordinate along the wider dimension of their bounding box, and the vertices on the
+     * smaller side of the cut edges form a separator. The two halves without the separator are ordered recursively,
+     * and the separator is ranked above both so that contracting either half never adds arcs across the cut.
+     *
+     * @param graph the input graph.
+     * @param xs    the horizontal coordinate of each vertex.
+     * @param ys    the vertical coordinate of each vertex.
+     * @return the vertices of the graph from lowest to highest rank.
+     */
+    public static int[] nestedDissection(IntGraph graph, double[] xs, double[] ys) {
+        int n = graph.numVertices();
+        // Undirected adjacency lists in compressed sparse row form
+        int[] first = new int[n + 1];
+        for (int e = 0; e < graph.numEdges(); e += 1) {
+            first[graph.from(e) + 1] += 1;
+            first[graph.to(e) + 1] += 1;
+        }
+        for (int v = 0; v < n; v += 1) {
+            first[v + 1] += first[v];
+        }
+        int[] adjacent = new int[first[n]];
+        int[] next = Arrays.copyOf(first, n);
+        for (int e = 0; e < graph.numEdges(); e += 1) {
+            int a = graph.from(e);
+            int b = graph.to(e);
+            adjacent[next[a]] = b;
+            next[a] += 1;
+            adjacent[next[b]] = a;
+            next[b] += 1;
+        }
+        int[] segment = new int[n];
+        for (int v = 0; v < n; v += 1) {
+            segment[v] = v;
+        }
+        int[] order = new int[n];
+        new Dissection(first, adjacent, xs, ys, segment, order).dissect(0, n);
+        return order;
+    }
+
+    /**
+     * Recursive state for computing a nested dissection order.
+     */
+    private static class Dissection {
+        private final int[] first;
+        private final int[] adjacent;
+        private final double[] xs;
+        private final double[] ys;
+        /**
+         * The vertices being ordered, where each recursive call rearranges its own range.
+         */
+        private final int[] segment;
+        /**
+         * The vertices from lowest to highest rank, where each range of the segment fills the same range.
+         */
+        private final int[] order;
+        /**
+         * The most recent tag for each vertex, identifying which part of a split it belongs to.
+         */
+        private final int[] tags;
+        /**
+         * Temporary storage for rearranging a range of the segment.
+         */
+        private final int[] temp;
+        /**
+         * The last tag used.
+         */
+        private int lastTag;
+
+        Dissection(int[] first, int[] adjacent, double[] xs, double[] ys, int[] segment, int[] order) {
+            this.first = first;
+            this.adjacent = adjacent;
+            this.xs = xs;
+            this.ys = ys;
+            this.segment = segment;
+            this.order = order;
+            tags = new int[segment.length];
+            temp = new int[segment.length];
+            lastTag = 0;
+        }
+
+        /**
+         * Orders the vertices in the given range of the segment into the same range of the order.
+         *
+         * @param lo the first index of the range.
+         * @param hi one more than the last index of the range.
+         */
+        void dissect(int lo, int hi) {
+            int size = hi - lo;
+            if (size <= LEAF_SIZE) {
+                System.arraycopy(segment, lo, order, lo, size);
+                return;
+            }
+            double minX = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i += 1) {
+                int v = segment[i];
+                minX = Math.min(minX, xs[v]);
+                maxX = Math.max(maxX, xs[v]);
+                minY = Math.min(minY, ys[v]);
+                maxY = Math.max(maxY, ys[v]);
+            }
+            int mid = lo + size / 2;
+            select(lo, hi, mid, maxX - minX >= maxY - minY ? xs : ys);
+            int left = tag(lo, mid);
+            int right = tag(mid, hi);
+            // Use the boundary of whichever side has fewer vertices incident to the cut edges as the separator
+            int leftBoundary = countBoundary(lo, mid, right);
+            int rightBoundary = countBoundary(mid, hi, left);
+            int separator = lastTag + 1;
+            lastTag += 1;
+            if (leftBoundary <= rightBoundary) {
+                markBoundary(lo, mid, right, separator);
+            } else {
+                markBoundary(mid, hi, left, separator);
+            }
+            int numLeft = gather(lo, hi, left, lo);
+            int numRight = gather(lo, hi, right, lo + numLeft);
+            gather(lo, hi, separator, lo + numLeft + numRight);
+            System.arraycopy(temp, lo, segment, lo, size);
+            dissect(lo, lo + numLeft);
+            dissect(lo + numLeft, lo + numLeft + numRight);
+            System.arraycopy(segment, lo + numLeft + numRight, order, lo + numLeft + numRight,
+                    size - numLeft - numRight);
+        }
+
+        /**
+         * Tags every vertex in the given range of the segment with a new tag.
+         *
+         * @param lo the first index of the range.
+         * @param hi one more than the last index of the range.
+         * @return the new tag.
+         */
+        private int tag(int lo, int hi) {
+            lastTag += 1;
+            for (int i = lo; i < hi; i += 1) {
+                tags[segment[i]] = lastTag;
+            }
+            return lastTag;
+        }
+
+        /**
+         * Returns the number of vertices in the given range of the segment adjacent to a vertex with the other tag.
+         *
+         * @param lo    the first index of the range.
+         * @param hi    one more than the last index of the range.
+         * @param other the tag of the other side.
+         * @return the number of vertices in the range adjacent to the other side.
+         */
+        private int countBoundary(int lo, int hi, int other) {
+            int result = 0;
+            for (int i = lo; i < hi; i += 1) {
+                if (isAdjacent(segment[i], other)) {
+                    result += 1;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Tags every vertex in the given range of the segment adjacent to a vertex with the other tag.
+         *
+         * @param lo        the first index of the range.
+         * @param hi        one more than the last index of the range.
+         * @param other     the tag of the other side.
+         * @param separator the tag for the vertices adjacent to the other side.
+         */
+        private void markBoundary(int lo, int hi, int other, int separator) {
+            for (int i = lo; i < hi; i += 1) {
+                if (isAdjacent(segment[i], other)) {
+                    tags[segment[i]] = separator;
+                }
+            }
+        }
+
+        /**
+         * Returns true if and only if the vertex is adjacent to a vertex with the given tag.
+         *
+         * @param v   the vertex.
+         * @param tag the tag.
+         * @return true if and only if the vertex is adjacent to a vertex with the given tag.
+         */
+        private boolean isAdjacent(int v, int tag) {
+            for (int i = first[v]; i < first[v + 1]; i += 1) {
+                if (tags[adjacent[i]] == tag) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Copies the vertices in the given range of the segment with the given tag into the temporary storage.
+         *
+         * @param lo    the first index of the range.
+         * @param hi    one more than the last index of the range.
+         * @param tag   the tag.
+         * @param start the first index in the temporary storage to copy into.
+         * @return the number of vertices copied.
+         */
+        private int gather(int lo, int hi, int tag, int start) {
+            int result = 0;
+            for (int i = lo; i < hi; i += 1) {
+                if (tags[segment[i]] == tag) {
+                    temp[start + result] = segment[i];
+                    result += 1;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Rearranges the given range of the segment so that the vertex at index k has the kth smallest key, with no
+         * larger keys before it and no smaller keys after it.
+         *
+         * @param lo   the first index of the range.
+         * @param hi   one more than the last index of the range.
+         * @param k    the index to select.
+         * @param keys the key of each vertex.
+         */
+        private void select(int lo, int hi, int k, double[] keys) {
+            hi -= 1;
+            while (lo < hi) {
+                double pivot = keys[segment[lo + (hi - lo) / 2]];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (keys[segment[i]] < pivot) {
+                        i += 1;
+                    }
+                    while (keys[segment[j]] > pivot) {
+                        j -= 1;
+                    }
+                    if (i <= j) {
+                        int swap = segment[i];
+                        segment[i] = segment[j];
+                        segment[j] = swap;
+                        i += 1;
+                        j -= 1;
+                    }
+                }
+                if (k <= j) {
+                    hi = j;
+                } else if (k >= i) {
+                    lo = i;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends the value to the list at the given index, growing the list if needed.
+     *
+     * @param lists the lists.
+     * @param sizes the number of values in each list.
+     * @param i     the index of the list.
+     * @param value the value to append.
+     */
+    private static void append(int[][] lists, int[] sizes, int i, int value) {
+        if (lists[i] == null) {
+            lists[i] = new int[4];
+        } else if (sizes[i] == lists[i].length) {
+            lists[i] = Arrays.copyOf(lists[i], 2 * sizes[i]);
+        }
+        lists[i][sizes[i]] = value;
+        sizes[i] += 1;
+    }
+
+    /**
+     * Sorts the first values of the array and removes duplicates.
+     *
+     * @param values the array, or null if there are no values.
+     * @param size   the number of values.
+     * @return the number of distinct values, which are now at the start of the array in sorted order.
+     */
+    private static int sortDistinct(int[] values, int size) {
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(values, 0, size);
+        int result = 1;
+        for (int i = 1; i < size; i += 1) {
+            if (values[i] != values[result - 1]) {
+                values[result] = values[i];
+                result += 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices.
+     */
+    public int numVertices() {
+        return ranks.length;
+    }
+
+    /**
+     * Returns the number of arcs, including shortcuts.
+     *
+     * @return the number of arcs.
+     */
+    public int numArcs() {
+        return heads.length;
+    }
+
+    /**
+     * Returns the rank of the given vertex.
+     *
+     * @param vertex the index of the vertex.
+     * @return the rank of the given vertex.
+     */
+    public int rank(int vertex) {
+        return ranks[vertex];
+    }
+
+    /**
+     * Returns the vertex with the given rank.
+     *
+     * @param rank the rank.
+     * @return the index of the vertex with the given rank.
+     */
+    public int vertex(int rank) {
+        return vertices[rank];
+    }
+
+    /**
+     * Returns the parent of the given rank in the elimination tree, or -1 if it is a root. The ranks reachable from a
+     * rank by following upward arcs are exactly its ancestors in the elimination tree.
+     *
+     * @param rank the rank.
+     * @return the parent of the given rank in the elimination tree, or -1 if it is a root.
+     */
+    public int parent(int rank) {
+        return parents[rank];
+    }
+
+    /**
+     * Returns the index of the first upward arc from the given rank.
+     *
+     * @param rank the rank.
+     * @return the index of the first upward arc from the given rank.
+     */
+    public int firstArc(int rank) {
+        return firstArcs[rank];
+    }
+
+    /**
+     * Returns one more than the index of the last upward arc from the given rank.
+     *
+     * @param rank the rank.
+     * @return one more than the index of the last upward arc from the given rank.
+     */
+    public int endArc(int rank) {
+        return firstArcs[rank + 1];
+    }
+
+    /**
+     * Returns the lower rank of the given arc.
+     *
+     * @param arc the index of the arc.
+     * @return the lower rank of the given arc.
+     */
+    public int tail(int arc) {
+        return tails[arc];
+    }
+
+    /**
+     * Returns the higher rank of the given arc.
+     *
+     * @param arc the index of the arc.
+     * @return the higher rank of the given arc.
+     */
+    public int head(int arc) {
+        return heads[arc];
+    }
+
+    /**
+     * Returns the index of the arc between the given ranks, or -1 if there is no such arc.
+     *
+     * @param lower  the lower rank.
+     * @param higher the higher rank.
+     * @return the index of the arc between the given ranks, or -1 if there is no such arc.
+     */
+    public int findArc(int lower, int higher) {
+        int result = Arrays.binarySearch(heads, firstArcs[lower], firstArcs[lower + 1], higher);
+        return result < 0 ? -1 : result;
+    }
+
+    /**
+     * Returns a new {@link Metric} by customizing the arc weights for the given edge weights. Each level is
+     * customized in parallel.
+     *
+     * @param weights the weight of each edge of the original graph.
+     * @return the customized {@link Metric}.
+     * @throws IllegalArgumentException if the number of weights is not the number of edges.
+     */
+    public Metric customize(float[] weights) {
+        if (weights.length != edgeArcs.length) {
+            throw new IllegalArgumentException("Expected " + edgeArcs.length + " weights but got " + weights.length);
+        }
+        Metric metric = new Metric();
+        for (int e = 0; e < weights.length; e += 1) {
+            int arc = edgeArcs[e];
+            if (arc < 0) {
+                continue;
+            }
+            if (edgeUpward[e]) {
+                metric.up[arc] = Math.min(metric.up[arc], weights[e]);
+            } else {
+                metric.down[arc] = Math.min(metric.down[arc], weights[e]);
+            }
+        }
+        // The arc from each rank to each of its upward neighbors, reused by each thread
+        ThreadLocal<int[]> arcsTo = ThreadLocal.withInitial(() -> new int[ranks.length]);
+        for (int[] level : levels) {
+            IntStream.range(0, level.length).parallel().forEach(i -> metric.customize(level[i], arcsTo.get()));
+        }
+        return metric;
+    }
+
+    /**
+     * The customized weights of every arc of a {@link CustomizableHierarchy} for one vector of edge weights. Each arc
+     * also records the lower rank in the middle of the lower triangle that gave its weight, so that a path of arcs can
+     * be unpacked back into a path of edges. The weights never change after customization, so a metric can be
+     * queried by any number of threads.
+     */
+    public class Metric {
+        /**
+         * The weight of each arc from its lower rank to its higher rank.
+         */
+        private final float[] up;
+        /**
+         * The weight of each arc from its higher rank to its lower rank.
+         */
+        private final float[] down;
+        /**
+         * The middle rank of the lower triangle that gave the weight of each arc from its lower rank to its higher
+         * rank, or -1 if the weight is from an edge of the original graph.
+         */
+        private final int[] upVia;
+        /**
+         * The middle rank of the lower triangle that gave the weight of each arc from its higher rank to its lower
+         * rank, or -1 if the weight is from an edge of the original graph.
+         */
+        private final int[] downVia;
+
+        /**
+         * Constructs a metric where every arc has infinite weight.
+         */
+        private Metric() {
+            up = new float[heads.length];
+            down = new float[heads.length];
+            upVia = new int[heads.length];
+            downVia = new int[heads.length];
+            Arrays.fill(up, Float.POSITIVE_INFINITY);
+            Arrays.fill(down, Float.POSITIVE_INFINITY);
+            Arrays.fill(upVia, -1);
+            Arrays.fill(downVia, -1);
+        }
+
+        /**
+         * Relaxes every lower triangle of the upward arcs from the given rank. The arcs of every lower rank must
+         * already be customized.
+         *
+         * @param x      the rank.
+         * @param arcsTo reusable storage for the arc from the rank to each higher rank.
+         */
+        private void customize(int x, int[] arcsTo) {
+            for (int arc = firstArcs[x]; arc < firstArcs[x + 1]; arc += 1) {
+                arcsTo[heads[arc]] = arc;
+            }
+            for (int i = firstDownArcs[x]; i < firstDownArcs[x + 1]; i += 1) {
+                int vx = downArcs[i];
+                int v = tails[vx];
+                // The arcs from v are sorted, so the arcs after the one to x lead to the upward neighbors of x
+                for (int vy = vx + 1; vy < firstArcs[v + 1]; vy += 1) {
+                    int xy = arcsTo[heads[vy]];
+                    float weight = down[vx] + up[vy];
+                    if (weight < up[xy]) {
+                        up[xy] = weight;
+                        upVia[xy] = v;
+                    }
+                    weight = down[vy] + up[vx];
+                    if (weight < down[xy]) {
+                        down[xy] = weight;
+                        downVia[xy] = v;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the hierarchy of this metric.
+         *
+         * @return the hierarchy of this metric.
+         */
+        public CustomizableHierarchy hierarchy() {
+            return CustomizableHierarchy.this;
+        }
+
+        /**
+         * Returns the weight of the given arc from its lower rank to its higher rank.
+         *
+         * @param arc the index of the arc.
+         * @return the weight of the given arc from its lower rank to its higher rank.
+         */
+        public float upWeight(int arc) {
+            return up[arc];
+        }
+
+        /**
+         * Returns the weight of the given arc from its higher rank to its lower rank.
+         *
+         * @param arc the index of the arc.
+         * @return the weight of the given arc from its higher rank to its lower rank.
+         */
+        public float downWeight(int arc) {
+            return down[arc];
+        }
+
+        /**
+         * Returns the middle rank of the lower triangle that gave the weight of the given arc, or -1 if the weight is
+         * from an edge of the original graph.
+         *
+         * @param arc    the index of the arc.
+         * @param upward true for the direction from the lower rank to the higher rank, or false for the other.
+         * @return the middle rank of the lower triangle that gave the weight of the given arc, or -1 if none.
+         */
+        public int via(int arc, boolean upward) {
+            return upward ? upVia[arc] : downVia[arc];
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.List;
  * @see Edge
  * @see ShortestPathSolver
  * @see AStarGraph
+ * @see IntGraph
  */
 @FunctionalInterface
 public interface Graph<V> {
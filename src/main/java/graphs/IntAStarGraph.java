@@ -0,0 +1,20 @@
+package graphs;
+
+import graphs.shortestpaths.IntAStarSolver;
+
+/**
+ * Directed, edge-weighted graph of integer vertices with a heuristic function to estimate distances between vertices.
+ *
+ * @see IntGraph
+ * @see IntAStarSolver
+ */
+public interface IntAStarGraph extends IntGraph {
+    /**
+     * Returns an estimated distance from start to end.
+     *
+     * @param start the index of the beginning vertex.
+     * @param end   the index of the destination vertex.
+     * @return an estimated distance from start to end.
+     */
+    double estimatedDistance(int start, int end);
+}
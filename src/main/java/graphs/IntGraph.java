@@ -0,0 +1,70 @@
+package graphs;
+
+import graphs.shortestpaths.IntDijkstraSolver;
+
+/**
+ * Directed, edge-weighted graph whose vertices and edges are identified by dense integer indices. Vertices are
+ * numbered from 0 to {@link #numVertices()} (exclusive) and edges from 0 to {@link #numEdges()} (exclusive). The
+ * outgoing edges from each vertex are numbered consecutively from {@link #firstEdge(int)} to {@link #endEdge(int)}
+ * (exclusive). Unlike {@link Graph}, iterating over the outgoing edges from a vertex creates no objects.
+ *
+ * @see Graph
+ * @see IntAStarGraph
+ * @see IntDijkstraSolver
+ * @see CustomizableHierarchy
+ */
+public interface IntGraph {
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph.
+     */
+    int numVertices();
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph.
+     */
+    int numEdges();
+
+    /**
+     * Returns the index of the first outgoing edge from the given vertex.
+     *
+     * @param vertex the index of the vertex of interest.
+     * @return the index of the first outgoing edge from the given vertex.
+     */
+    int firstEdge(int vertex);
+
+    /**
+     * Returns one more than the index of the last outgoing edge from the given vertex.
+     *
+     * @param vertex the index of the vertex of interest.
+     * @return one more than the index of the last outgoing edge from the given vertex.
+     */
+    int endEdge(int vertex);
+
+    /**
+     * Returns the index of the originating vertex of the given edge.
+     *
+     * @param edge the index of the edge.
+     * @return the index of the originating vertex of the given edge.
+     */
+    int from(int edge);
+
+    /**
+     * Returns the index of the destination vertex of the given edge.
+     *
+     * @param edge the index of the edge.
+     * @return the index of the destination vertex of the given edge.
+     */
+    int to(int edge);
+
+    /**
+     * Returns the weight of the given edge.
+     *
+     * @param edge the index of the edge.
+     * @return the weight of the given edge.
+     */
+    double weight(int edge);
+}
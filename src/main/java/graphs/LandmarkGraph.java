@@ -0,0 +1,207 @@
+package graphs;
+
+import graphs.shortestpaths.IntDijkstraSolver;
+import graphs.shortestpaths.SearchWorkspace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link AStarGraph} decorator that strengthens the heuristic function of another graph with the ALT (A*, landmarks,
+ * triangle inequality) lower bounds. During preprocessing, a few landmark vertices are selected and the shortest path
+ * distances from each landmark to every vertex, and from every vertex to each landmark, are stored in float arrays. By
+ * the triangle inequality, the distance from v to t is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L) for
+ * every landmark L, so the estimated distance is the largest of these bounds and the estimate of the original graph.
+ * Landmarks are selected with the farthest heuristic: each landmark is the reachable vertex that is farthest from all
+ * the previously-selected landmarks, so landmarks end up spread around the edges of the graph where they give the
+ * tightest bounds. Since this class is also an {@link IntAStarGraph} over the same indices as the given
+ * {@link CompactGraph}, it can be searched with either vertex representation.
+ *
+ * @param <V> the type of vertices.
+ * @see AStarGraph
+ * @see CompactGraph
+ */
+public class LandmarkGraph<V> implements AStarGraph<V>, IntAStarGraph {
+    /**
+     * The original graph.
+     */
+    private final AStarGraph<V> graph;
+    /**
+     * The compact copy of the original graph defining the vertex and edge indices.
+     */
+    private final CompactGraph<V> compact;
+    /**
+     * The indices of the landmark vertices.
+     */
+    private final int[] landmarks;
+    /**
+     * The distance from each landmark to each vertex, where the distances for vertex v start at index v times the
+     * number of landmarks.
+     */
+    private final float[] fromLandmarks;
+    /**
+     * The distance from each vertex to each landmark, where the distances for vertex v start at index v times the
+     * number of landmarks.
+     */
+    private final float[] toLandmarks;
+
+    /**
+     * Constructs a new instance by selecting the given number of landmarks and computing their distances.
+     *
+     * @param graph        the original graph.
+     * @param compact      a compact copy of the original graph.
+     * @param numLandmarks the number of landmarks to select.
+     * @throws IllegalArgumentException if the number of landmarks is negative.
+     */
+    public LandmarkGraph(AStarGraph<V> graph, CompactGraph<V> compact, int numLandmarks) {
+        if (numLandmarks < 0) {
+            throw new IllegalArgumentException("Number of landmarks must be non-negative: " + numLandmarks);
+        }
+        this.graph = graph;
+        this.compact = compact;
+        int numVertices = compact.numVertices();
+        numLandmarks = Math.min(numLandmarks, numVertices);
+        landmarks = new int[numLandmarks];
+        fromLandmarks = new float[numVertices * numLandmarks];
+        toLandmarks = new float[numVertices * numLandmarks];
+
+        SearchWorkspace workspace = new SearchWorkspace(numVertices);
+        IntDijkstraSolver forward = new IntDijkstraSolver(compact, workspace);
+        IntDijkstraSolver backward = new IntDijkstraSolver(new ReverseGraph(compact), workspace);
+        // The minimum distance from any selected landmark to each vertex, which selects the next landmark
+        double[] nearest = new double[numVertices];
+        if (numLandmarks > 0) {
+            forward.solve(0);
+            for (int v = 0; v < numVertices; v += 1) {
+                nearest[v] = forward.distTo(v);
+            }
+        }
+        for (int i = 0; i < numLandmarks; i += 1) {
+            int landmark = farthest(nearest);
+            landmarks[i] = landmark;
+            forward.solve(landmark);
+            for (int v = 0; v < numVertices; v += 1) {
+                double dist = forward.distTo(v);
+                fromLandmarks[v * numLandmarks + i] = (float) dist;
+                nearest[v] = i == 0 ? dist : Math.min(nearest[v], dist);
+            }
+            backward.solve(landmark);
+            for (int v = 0; v < numVertices; v += 1) {
+                toLandmarks[v * numLandmarks + i] = (float) backward.distTo(v);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the vertex with the largest finite distance, or 0 if every distance is infinite.
+     *
+     * @param distances the distance to each vertex.
+     * @return the index of the vertex with the largest finite distance.
+     */
+    private static int farthest(double[] distances) {
+        int result = -1;
+        for (int v = 0; v < distances.length; v += 1) {
+            if (distances[v] < Double.POSITIVE_INFINITY && (result < 0 || distances[v] > distances[result])) {
+                result = v;
+            }
+        }
+        return Math.max(result, 0);
+    }
+
+    /**
+     * Returns a list of the landmark vertices.
+     *
+     * @return a list of the landmark vertices.
+     */
+    public List<V> landmarks() {
+        List<V> result = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks) {
+            result.add(compact.vertex(landmark));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Edge<V>> neighbors(V vertex) {
+        return graph.neighbors(vertex);
+    }
+
+    @Override
+    public double estimatedDistance(V start, V end) {
+        int s = compact.indexOf(start);
+        int t = compact.indexOf(end);
+        if (s < 0 || t < 0) {
+            return graph.estimatedDistance(start, end);
+        }
+        return Math.max(graph.estimatedDistance(start, end), landmarkDistance(s, t));
+    }
+
+    @Override
+    public double estimatedDistance(int start, int end) {
+        return Math.max(compact.estimatedDistance(start, end), landmarkDistance(start, end));
+    }
+
+    /**
+     * Returns the largest triangle inequality lower bound on the distance from start to end across all landmarks, or
+     * 0 if no landmark gives a bound. Each bound is reduced by the largest possible rounding error of the float
+     * distances so that it never overestimates.
+     *
+     * @param start the index of the beginning vertex.
+     * @param end   the index of the destination vertex.
+     * @return the largest lower bound on the distance from start to end.
+     */
+    private double landmarkDistance(int start, int end) {
+        int k = landmarks.length;
+        double result = 0.0;
+        for (int i = 0; i < k; i += 1) {
+            float fromStart = fromLandmarks[start * k + i];
+            float fromEnd = fromLandmarks[end * k + i];
+            if (fromEnd < Float.POSITIVE_INFINITY) {
+                // d(L, end) <= d(L, start) + d(start, end)
+                result = Math.max(result, (double) fromEnd - fromStart - Math.ulp(fromEnd) - Math.ulp(fromStart));
+            }
+            float toStart = toLandmarks[start * k + i];
+            float toEnd = toLandmarks[end * k + i];
+            if (toStart < Float.POSITIVE_INFINITY) {
+                // d(start, L) <= d(start, end) + d(end, L)
+                result = Math.max(result, (double) toStart - toEnd - Math.ulp(toStart) - Math.ulp(toEnd));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int numVertices() {
+        return compact.numVertices();
+    }
+
+    @Override
+    public int numEdges() {
+        return compact.numEdges();
+    }
+
+    @Override
+    public int firstEdge(int vertex) {
+        return compact.firstEdge(vertex);
+    }
+
+    @Override
+    public int endEdge(int vertex) {
+        return compact.endEdge(vertex);
+    }
+
+    @Override
+    public int from(int edge) {
+        return compact.from(edge);
+    }
+
+    @Override
+    public int to(int edge) {
+        return compact.to(edge);
+    }
+
+    @Override
+    public double weight(int edge) {
+        return compact.weight(edge);
+    }
+}
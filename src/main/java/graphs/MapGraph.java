@@ -1,11 +1,20 @@
 package graphs;
 
 import autocomplete.Autocomplete;
+import autocomplete.LevenshteinAutocomplete;
+import autocomplete.NormalizedAutocomplete;
+import autocomplete.TokenAutocomplete;
 import autocomplete.TreeSetAutocomplete;
-import graphs.shortestpaths.AStarSolver;
-import minpq.DoubleMapMinPQ;
+import graphs.shortestpaths.ArcFlagSolver;
+import graphs.shortestpaths.HierarchySolver;
+import graphs.shortestpaths.IntDijkstraSolver;
+import graphs.shortestpaths.PlateauSolver;
+import graphs.shortestpaths.SearchWorkspace;
+import minpq.MinPQ;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
 import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -16,6 +25,10 @@ import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -24,16 +37,174 @@ import java.util.zip.GZIPInputStream;
  * @see AStarGraph
  */
 public class MapGraph implements AStarGraph<Point> {
+    /**
+     * Maximum number of typos (character edits) tolerated in a search prefix.
+     */
+    private static final int MAX_TYPOS = 2;
+    /**
+     * Access score for ways that are missing from the access scores file, which halves the preference for ways that
+     * are known to be fully accessible.
+     */
+    private static final float DEFAULT_ACCESS_SCORE = 0.5f;
+    /**
+     * Smallest access score for computing weights, so that ways that are almost inaccessible are still routable as a
+     * last resort rather than dividing by zero.
+     */
+    private static final double MIN_ACCESS_SCORE = 0.01;
+    /**
+     * Largest ratio of the cost of an alternative route to the cost of the best route.
+     */
+    private static final double MAX_STRETCH = 1.4;
+    /**
+     * Largest fraction of the cost of an alternative route along the edges of better routes.
+     */
+    private static final double MAX_OVERLAP = 0.6;
+    /**
+     * Number of nanoseconds after the shortest path trees are computed to keep considering alternative routes.
+     */
+    private static final long ALTERNATIVES_TIME_LIMIT = 100_000_000;
+    /**
+     * Number of nanoseconds after the distances between stops are computed to keep improving the order of a tour.
+     */
+    private static final long TOUR_TIME_LIMIT = 500_000_000;
+    /**
+     * Number of rows and columns in the grid of cells for arc flags used for routing.
+     */
+    private static final int ARC_FLAG_GRID = 4;
+    /**
+     * Number of seconds per hour.
+     */
+    private static final double SECONDS_PER_HOUR = 3600;
+    /**
+     * Largest speed in kilometers per hour, which is the largest value of an unsigned byte.
+     */
+    private static final int MAX_SPEED = 255;
+    /**
+     * Number of kilometers per hour per mile per hour.
+     */
+    private static final double KMH_PER_MPH = 1.609344;
+    /**
+     * Number of kilometers per hour per knot.
+     */
+    private static final double KMH_PER_KNOT = 1.852;
+    /**
+     * {@link Map} of each routable highway type to its speed in kilometers per hour for ways without a maxspeed tag.
+     */
+    private static final Map<String, Integer> DEFAULT_SPEEDS = Map.ofEntries(
+            Map.entry("motorway", 100),
+            Map.entry("trunk", 80),
+            Map.entry("primary", 65),
+            Map.entry("secondary", 55),
+            Map.entry("tertiary", 40),
+            Map.entry("unclassified", 30),
+            Map.entry("residential", 25),
+            Map.entry("living_street", 10),
+            Map.entry("motorway_link", 60),
+            Map.entry("trunk_link", 50),
+            Map.entry("primary_link", 40),
+            Map.entry("secondary_link", 35),
+            Map.entry("tertiary_link", 30)
+    );
+    /**
+     * Smallest number of locations of a name for a spatial index over only the locations of that name, since checking
+     * fewer locations one by one is faster than a range query.
+     */
+    private static final int MIN_INDEXED_LOCATIONS = 64;
+    /**
+     * Highway types that are one-way unless their oneway tag says otherwise.
+     */
+    private static final Set<String> ONEWAY_HIGHWAY_TYPES = Set.of("motorway", "motorway_link");
     private final String osmPath;
     private final String placesPath;
+    private final String accessPath;
     private final SpatialContext context;
     private final Map<Point, List<Edge<Point>>> neighbors;
     private final Map<String, List<Point>> locations;
     private final Autocomplete autocomplete;
+    private final Autocomplete tokenAutocomplete;
+    private final Autocomplete fuzzyAutocomplete;
     private final Map<CharSequence, Integer> importance;
+    /**
+     * Spatial index over the locations of every named place for reverse geocoding.
+     */
+    private final PlaceIndex places;
+    /**
+     * Spatial index over the locations of each name with at least {@link #MIN_INDEXED_LOCATIONS} locations.
+     */
+    private final Map<String, PlaceIndex> placesByName;
+    /**
+     * Compact integer-indexed copy of this graph for routing.
+     */
+    private final CompactGraph<Point> compact;
+    /**
+     * Strongly connected components of the compact graph for choosing the vertices that clicks snap to and that GPS
+     * points are matched to.
+     */
+    private final StronglyConnectedComponents components;
+    /**
+     * Vertices in the largest strongly connected component, which are the only vertices that clicks snap to so that
+     * isolated fragments such as parking lot service roads are never chosen as a start or goal.
+     */
+    private final List<Point> routable;
+    /**
+     * Metric-independent hierarchy of the compact graph, customized once for each routing profile.
+     */
+    private final CustomizableHierarchy hierarchy;
+    /**
+     * The cell of each vertex in the compact graph for arc flags, which divides its bounding box into a square grid.
+     */
+    private final int[] cells;
+    /**
+     * The OSM way ID of each edge in the compact graph.
+     */
+    private final long[] wayIds;
+    /**
+     * The access score of each edge in the compact graph, or NaN if its way is missing from the access scores file.
+     */
+    private final float[] accessScores;
+    /**
+     * The speed in kilometers per hour of each edge in the compact graph as an unsigned byte.
+     */
+    private final byte[] speeds;
+    /**
+     * Matches GPS traces to the edges of the compact graph.
+     */
+    private final MapMatcher matcher;
+    /**
+     * The weight of each edge in the compact graph for each routing profile before weight overrides.
+     */
+    private final Map<Profile, float[]> profileWeights;
+    /**
+     * The reverse of the compact graph, whose reversed edges are shared by the reverse graph of every snapshot.
+     */
+    private final ReverseGraph reverse;
+    /**
+     * The current weight factor of each edge in the compact graph, which is only modified while holding the lock on
+     * this map graph.
+     */
+    private final float[] factors;
+    /**
+     * The hierarchy and compact graph weighted for each routing profile with the current weight factors, which is
+     * replaced as a whole whenever weights are overridden so that every query reads one consistent snapshot without
+     * locking.
+     */
+    private final AtomicReference<Snapshot> snapshot;
+    /**
+     * {@link HierarchySolver} for each thread serving shortest path queries, which is reused across queries so that
+     * steady-state routing only allocates the returned path.
+     */
+    private final ThreadLocal<HierarchySolver> solvers;
+    /**
+     * {@link SearchWorkspace} for each thread for the forward shortest path tree of alternative routes.
+     */
+    private final ThreadLocal<SearchWorkspace> forwardWorkspaces;
+    /**
+     * {@link SearchWorkspace} for each thread for the backward shortest path tree of alternative routes.
+     */
+    private final ThreadLocal<SearchWorkspace> backwardWorkspaces;
 
     /**
-     * Constructs a new map graph from the path to an OSM GZ file and a places TSV.
+     * Constructs a new map graph from the path to an OSM GZ file and a places TSV without access scores.
      *
      * @param osmPath    The path to a gzipped OSM (XML) file.
      * @param placesPath The path to a TSV file representing places and importance.
@@ -43,34 +214,91 @@ public class MapGraph implements AStarGraph<Point> {
      */
     public MapGraph(String osmPath, String placesPath, SpatialContext context)
             throws ParserConfigurationException, SAXException, IOException {
+        this(osmPath, placesPath, null, context);
+    }
+
+    /**
+     * Constructs a new map graph from the path to an OSM GZ file, a places TSV, and an access scores TSV.
+     *
+     * @param osmPath    The path to a gzipped OSM (XML) file.
+     * @param placesPath The path to a TSV file representing places and importance.
+     * @param accessPath The path to a TSV file representing OSM way IDs and access scores, or null if none.
+     * @throws ParserConfigurationException if a parser cannot be created.
+     * @throws SAXException                 for SAX errors.
+     * @throws IOException                  if a file is not found or if the file is not gzipped.
+     */
+    public MapGraph(String osmPath, String placesPath, String accessPath, SpatialContext context)
+            throws ParserConfigurationException, SAXException, IOException {
         this.osmPath = osmPath;
         this.placesPath = placesPath;
+        this.accessPath = accessPath;
         this.context = context;
 
         // Parse the OpenStreetMap (OSM) data using the SAXParser XML tree walker.
         neighbors = new HashMap<>();
-        Handler handler = new Handler(Set.of(
-                "motorway",
-                "trunk",
-                "primary",
-                "secondary",
-                "tertiary",
-                "unclassified",
-                "residential",
-                "living_street",
-                "motorway_link",
-                "trunk_link",
-                "primary_link",
-                "secondary_link",
-                "tertiary_link"
-        ));
+        Handler handler = new Handler(DEFAULT_SPEEDS.keySet());
         SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
         saxParser.parse(new GZIPInputStream(fileStream(osmPath)), handler);
+        compact = new CompactGraph<>(this, neighbors.keySet());
+        components = new StronglyConnectedComponents(compact);
+        routable = new ArrayList<>(components.size(components.largest()));
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            if (components.component(v) == components.largest()) {
+                routable.add(compact.vertex(v));
+            }
+        }
+        hierarchy = new CustomizableHierarchy(compact, nestedDissection(compact));
+        cells = gridCells(compact, ARC_FLAG_GRID);
+        solvers = ThreadLocal.withInitial(() -> new HierarchySolver(hierarchy));
+        forwardWorkspaces = ThreadLocal.withInitial(() -> new SearchWorkspace(compact.numVertices()));
+        backwardWorkspaces = ThreadLocal.withInitial(() -> new SearchWorkspace(compact.numVertices()));
+
+        // Store the way ID, access score, and speed of each edge in arrays indexed by the edges of the compact graph.
+        Map<Long, Float> scores = new HashMap<>();
+        if (accessPath != null) {
+            try (Scanner input = new Scanner(fileStream(accessPath))) {
+                input.nextLine(); // Skip the header
+                while (input.hasNextLine()) {
+                    try (Scanner line = new Scanner(input.nextLine()).useDelimiter("\t")) {
+                        scores.put(line.nextLong(), Float.parseFloat(line.next()));
+                    }
+                }
+            }
+        }
+        wayIds = new long[compact.numEdges()];
+        accessScores = new float[compact.numEdges()];
+        speeds = new byte[compact.numEdges()];
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            int e = compact.firstEdge(v);
+            for (Edge<Point> edge : neighbors(compact.vertex(v))) {
+                wayIds[e] = ((Road) edge).wayId;
+                accessScores[e] = scores.getOrDefault(wayIds[e], Float.NaN);
+                speeds[e] = ((Road) edge).speed;
+                e += 1;
+            }
+        }
+        matcher = new MapMatcher(compact, components, wayIds, context);
+        profileWeights = new EnumMap<>(Profile.class);
+        for (Profile profile : Profile.values()) {
+            profileWeights.put(profile, switch (profile) {
+                case SHORTEST -> distanceWeights();
+                case WHEELCHAIR -> wheelchairWeights();
+                case FASTEST -> travelTimeWeights();
+            });
+        }
+        reverse = new ReverseGraph(compact);
+        factors = new float[compact.numEdges()];
+        Arrays.fill(factors, 1.0f);
+        snapshot = new AtomicReference<>(customize());
 
         // Add reachable locations to the Autocomplete engine.
         locations = handler.byName;
-        autocomplete = new TreeSetAutocomplete();
+        autocomplete = new NormalizedAutocomplete(new TreeSetAutocomplete());
         autocomplete.addAll(locations.keySet());
+        tokenAutocomplete = new NormalizedAutocomplete(new TokenAutocomplete());
+        tokenAutocomplete.addAll(locations.keySet());
+        fuzzyAutocomplete = new NormalizedAutocomplete(new LevenshteinAutocomplete(MAX_TYPOS));
+        fuzzyAutocomplete.addAll(locations.keySet());
 
         // Parse the place-importance data.
         importance = new HashMap<>();
@@ -81,6 +309,13 @@ public class MapGraph implements AStarGraph<Point> {
                 }
             }
         }
+        places = new PlaceIndex(locations, importance);
+        placesByName = new HashMap<>();
+        for (Map.Entry<String, List<Point>> entry : locations.entrySet()) {
+            if (entry.getValue().size() >= MIN_INDEXED_LOCATIONS) {
+                placesByName.put(entry.getKey(), new PlaceIndex(Map.of(entry.getKey(), entry.getValue()), importance));
+            }
+        }
     }
 
     /**
@@ -94,33 +329,143 @@ public class MapGraph implements AStarGraph<Point> {
     }
 
     /**
-     * Returns the location closest to the given target location.
+     * Returns a nested dissection order of the compact graph using the location of each vertex, where degrees of
+     * longitude are scaled by the cosine of the latitude so that both coordinates are in comparable units.
+     *
+     * @param compact the compact graph.
+     * @return the vertices of the compact graph from lowest to highest rank.
+     * @see CustomizableHierarchy#nestedDissection(IntGraph, double[], double[])
+     */
+    private static int[] nestedDissection(CompactGraph<Point> compact) {
+        double[] xs = new double[compact.numVertices()];
+        double[] ys = new double[compact.numVertices()];
+        for (int v = 0; v < xs.length; v += 1) {
+            Point point = compact.vertex(v);
+            xs[v] = point.getLon() * Math.cos(Math.toRadians(point.getLat()));
+            ys[v] = point.getLat();
+        }
+        return CustomizableHierarchy.nestedDissection(compact, xs, ys);
+    }
+
+    /**
+     * Returns the cell of each vertex in the compact graph when its bounding box is divided into a square grid.
+     *
+     * @param compact the compact graph.
+     * @param size    the number of rows and columns in the grid.
+     * @return the cell of each vertex, numbered in row-major order.
+     */
+    private static int[] gridCells(CompactGraph<Point> compact, int size) {
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < compact.numVertices(); v += 1) {
+            Point point = compact.vertex(v);
+            minLat = Math.min(minLat, point.getLat());
+            maxLat = Math.max(maxLat, point.getLat());
+            minLon = Math.min(minLon, point.getLon());
+            maxLon = Math.max(maxLon, point.getLon());
+        }
+        int[] result = new int[compact.numVertices()];
+        for (int v = 0; v < result.length; v += 1) {
+            Point point = compact.vertex(v);
+            int row = gridIndex(point.getLat(), minLat, maxLat, size);
+            int col = gridIndex(point.getLon(), minLon, maxLon, size);
+            result[v] = row * size + col;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the grid interval containing the value when the range is divided into equal intervals.
+     *
+     * @param value the value.
+     * @param min   the minimum value of the range.
+     * @param max   the maximum value of the range.
+     * @param size  the number of intervals.
+     * @return the index of the interval containing the value.
+     */
+    private static int gridIndex(double value, double min, double max, int size) {
+        if (!(max > min)) {
+            return 0;
+        }
+        return Math.min((int) ((value - min) / (max - min) * size), size - 1);
+    }
+
+    /**
+     * Returns the location in the largest strongly connected component closest to the given target location.
      *
      * @param target the target location.
      * @return the id of the location closest to the target.
      */
     public Point closest(Point target) {
-        if (neighbors.containsKey(target)) {
+        int index = compact.indexOf(target);
+        if (index >= 0 && components.component(index) == components.largest()) {
             return target;
         }
-        return Collections.min(neighbors.keySet(),
+        return Collections.min(routable,
                 Comparator.comparingDouble(p -> estimatedDistance(target, p)));
     }
 
     /**
-     * Return up to the given number of location names that match the prefix string by greatest importance.
+     * Return up to the given number of location names that match the prefix string by greatest importance. Names that
+     * start with the prefix string come first, followed by names containing words that start with each word in the
+     * prefix string. If no location names match at all, tolerate up to {@link #MAX_TYPOS} typos in the prefix string.
      *
      * @param prefix prefix string that could be any case with or without punctuation.
      * @param maxMatches the maximum number of results to return.
      * @return a list of full names of locations matching the prefix.
      */
     public List<CharSequence> getLocationsByPrefix(String prefix, int maxMatches) {
-        List<CharSequence> matches = autocomplete.allMatches(prefix);
-        Map<CharSequence, Double> elementsAndPriorities = new HashMap<>(matches.size());
-        for (CharSequence match : matches) {
-            elementsAndPriorities.put(match, (double) importance.get(match));
+        List<CharSequence> result = mostImportant(autocomplete.allMatches(prefix), maxMatches);
+        if (result.size() < maxMatches) {
+            List<CharSequence> tokenMatches = tokenAutocomplete.allMatches(prefix);
+            tokenMatches.removeAll(new HashSet<>(result));
+            result.addAll(mostImportant(tokenMatches, maxMatches - result.size()));
         }
-        return new DoubleMapMinPQ<>(elementsAndPriorities).removeMin(maxMatches);
+        if (result.isEmpty()) {
+            result = mostImportant(fuzzyAutocomplete.allMatches(prefix), maxMatches);
+        }
+        return result;
+    }
+
+    /**
+     * Returns every normalized search prefix up to the given length that starts a location name or a word in a
+     * location name. These are the short prefixes most likely to be searched.
+     *
+     * @param maxLength the maximum prefix length.
+     * @return a set of normalized search prefixes up to the given length.
+     * @see NormalizedAutocomplete#normalize(CharSequence)
+     */
+    public Set<String> getSearchPrefixes(int maxLength) {
+        Set<String> result = new HashSet<>();
+        for (String name : locations.keySet()) {
+            String key = NormalizedAutocomplete.normalize(name);
+            int start = 0;
+            while (start >= 0) {
+                for (int end = start + 1; end <= Math.min(start + maxLength, key.length()); end += 1) {
+                    result.add(key.substring(start, end).strip());
+                }
+                int space = key.indexOf(' ', start);
+                start = space < 0 ? -1 : space + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to the given number of location names by greatest importance.
+     *
+     * @param names the location names to rank.
+     * @param maxMatches the maximum number of results to return.
+     * @return a list of up to the given number of location names by greatest importance.
+     */
+    private List<CharSequence> mostImportant(List<CharSequence> names, int maxMatches) {
+        Map<CharSequence, Double> elementsAndPriorities = new HashMap<>(names.size());
+        for (CharSequence name : names) {
+            elementsAndPriorities.put(name, (double) importance.get(name));
+        }
+        return MinPQ.selectMin(elementsAndPriorities, maxMatches);
     }
 
     /**
@@ -133,6 +478,81 @@ public class MapGraph implements AStarGraph<Point> {
         return locations.getOrDefault(locationName, List.of());
     }
 
+    /**
+     * Return the locations inside the bounds that match a valid location name. Only the locations of the name are
+     * visited: names with many locations are found with a range query on the spatial index of that name, and the
+     * locations of other names are checked one by one.
+     *
+     * @param locationName a full name of a valid location.
+     * @param bounds       the bounds, where x is longitude and y is latitude.
+     * @return a list of locations inside the bounds whose name matches the location name.
+     */
+    public List<Point> getLocations(String locationName, Rectangle bounds) {
+        List<Point> result = new ArrayList<>();
+        PlaceIndex index = placesByName.get(locationName);
+        if (index != null) {
+            for (PlaceIndex.Place place : index.insideUnordered(bounds)) {
+                result.add(place.location());
+            }
+            return result;
+        }
+        for (Point location : getLocations(locationName)) {
+            if (bounds.getMinX() <= location.getLon() && location.getLon() <= bounds.getMaxX()
+                    && bounds.getMinY() <= location.getLat() && location.getLat() <= bounds.getMaxY()) {
+                result.add(location);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to k named places nearest to the target, where more important places are preferred over slightly
+     * closer but less important places.
+     *
+     * @param target the target location.
+     * @param k      the maximum number of places to return.
+     * @return a list of up to k named places nearest to the target, best first.
+     * @see PlaceIndex#nearest(Point, int)
+     */
+    public List<PlaceIndex.Place> nearestPlaces(Point target, int k) {
+        return places.nearest(target, k);
+    }
+
+    /**
+     * Returns every named place within the given radius of the target by greatest importance.
+     *
+     * @param target the target location.
+     * @param radius the radius in meters.
+     * @return a list of every named place within the radius of the target by greatest importance.
+     * @see PlaceIndex#within(Point, double)
+     */
+    public List<PlaceIndex.Place> placesWithin(Point target, double radius) {
+        return places.within(target, radius);
+    }
+
+    /**
+     * Returns the matched position of each GPS point in each trace, matching different traces in parallel.
+     *
+     * @param traces the traces, each given by its GPS points in the order they were recorded.
+     * @return a list of the matches for each trace.
+     * @see MapMatcher#matchAll(List)
+     */
+    public List<List<MapMatcher.Match>> matchTraces(List<? extends List<Point>> traces) {
+        return matcher.matchAll(traces);
+    }
+
+    /**
+     * Streams the GPS points of the trace through the map matcher, which outputs the matched position of each GPS
+     * point in order without holding the entire trace in memory.
+     *
+     * @param trace  the GPS points in the order they were recorded.
+     * @param output the consumer of the match for each GPS point.
+     * @see MapMatcher#match(Iterator, Consumer)
+     */
+    public void matchTrace(Iterator<Point> trace, Consumer<MapMatcher.Match> output) {
+        matcher.match(trace, output);
+    }
+
     /**
      * Returns a list of points representing the shortest path from the points closest to the start and goal.
      *
@@ -141,12 +561,291 @@ public class MapGraph implements AStarGraph<Point> {
      * @return a list of points representing the shortest path from the points closest to the start and goal.
      */
     public List<Point> shortestPath(Point start, Point goal) {
-        return new AStarSolver<>(this, closest(start), closest(goal)).solution();
+        return shortestPath(start, goal, Profile.SHORTEST);
+    }
+
+    /**
+     * Returns a list of points representing the best path for the routing profile from the points closest to the
+     * start and goal. The hierarchy is customized for every profile in advance, so every profile is equally fast. If
+     * the goal is unreachable, such as when road closures cut it off from the start, the list only contains the goal.
+     *
+     * @param start   the {@link Point} to start the path.
+     * @param goal    the {@link Point} to end the path.
+     * @param profile the routing profile.
+     * @return a list of points representing the best path from the points closest to the start and goal.
+     */
+    public List<Point> shortestPath(Point start, Point goal, Profile profile) {
+        return shortestPath(start, goal, profile, Speedup.HIERARCHY);
+    }
+
+    /**
+     * Returns a list of points representing the best path for the routing profile from the points closest to the
+     * start and goal using the given speedup technique. Every technique returns a best path, so only the time to
+     * answer differs. If the goal is unreachable, the list only contains the goal.
+     *
+     * @param start   the {@link Point} to start the path.
+     * @param goal    the {@link Point} to end the path.
+     * @param profile the routing profile.
+     * @param speedup the speedup technique.
+     * @return a list of points representing the best path from the points closest to the start and goal.
+     */
+    public List<Point> shortestPath(Point start, Point goal, Profile profile, Speedup speedup) {
+        int s = compact.indexOf(closest(start));
+        int t = compact.indexOf(closest(goal));
+        Snapshot current = snapshot.get();
+        List<Point> result;
+        if (speedup == Speedup.ARC_FLAGS) {
+            WeightedGraph graph = current.graphs().get(profile);
+            ArcFlags flags = current.arcFlags().computeIfAbsent(profile,
+                    p -> new ArcFlags(graph, cells, ARC_FLAG_GRID * ARC_FLAG_GRID));
+            ArcFlagSolver solver = new ArcFlagSolver(graph, flags, forwardWorkspaces.get());
+            solver.solve(s, t);
+            int length = solver.tracePath();
+            result = new ArrayList<>(length);
+            for (int i = 0; i < length; i += 1) {
+                result.add(compact.vertex(solver.pathVertex(i)));
+            }
+        } else {
+            HierarchySolver solver = solvers.get();
+            solver.solve(current.metrics().get(profile), s, t);
+            int length = solver.tracePath();
+            result = new ArrayList<>(length);
+            for (int i = 0; i < length; i += 1) {
+                result.add(compact.vertex(solver.pathVertex(i)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new {@link LandmarkGraph} over this map graph with the given number of landmarks, so that A* search
+     * such as {@link graphs.shortestpaths.AStarSolver} can use the ALT heuristic instead of the straight-line
+     * distance. The landmark distances are physical distances without weight overrides, and selecting the landmarks
+     * takes one forward and one backward search over the entire graph per landmark.
+     *
+     * @param numLandmarks the number of landmarks to select.
+     * @return a new landmark graph over this map graph.
+     * @throws IllegalArgumentException if the number of landmarks is negative.
+     */
+    public LandmarkGraph<Point> landmarks(int numLandmarks) {
+        return new LandmarkGraph<>(this, compact, numLandmarks);
+    }
+
+    /**
+     * Overrides the weights of every edge on the given ways by multiplying the weight for every routing profile by the
+     * given factor, such as a factor greater than 1 for congestion or an infinite factor for a road closure. A factor
+     * of 1 removes the override. Overrides from earlier batches for other ways are kept. The new snapshot is published
+     * atomically once every profile is customized, so queries in progress finish with the previous snapshot and never
+     * observe a partially-applied batch. If the batch does not change any factor, the current snapshot is kept.
+     *
+     * @param factors {@link Map} of each OSM way ID to its new weight factor.
+     * @throws IllegalArgumentException if a factor is not positive.
+     */
+    public synchronized void overrideWeights(Map<Long, Float> factors) {
+        for (Map.Entry<Long, Float> entry : factors.entrySet()) {
+            if (!(entry.getValue() > 0)) {
+                throw new IllegalArgumentException("Factor for way " + entry.getKey() + " must be positive: "
+                        + entry.getValue());
+            }
+        }
+        boolean changed = false;
+        for (int e = 0; e < this.factors.length; e += 1) {
+            Float factor = factors.get(wayIds[e]);
+            if (factor != null && factor != this.factors[e]) {
+                this.factors[e] = factor;
+                changed = true;
+            }
+        }
+        if (changed) {
+            snapshot.set(customize());
+        }
+    }
+
+    /**
+     * Returns a new snapshot with the hierarchy customized for every routing profile with the current weight factors.
+     * Only the metrics and the weights are new, since the hierarchy and the edges of the compact graph and its reverse
+     * never change.
+     *
+     * @return a new snapshot with the hierarchy customized for every routing profile.
+     */
+    private Snapshot customize() {
+        Map<Profile, CustomizableHierarchy.Metric> metrics = new EnumMap<>(Profile.class);
+        Map<Profile, WeightedGraph> graphs = new EnumMap<>(Profile.class);
+        Map<Profile, ReverseGraph> reverses = new EnumMap<>(Profile.class);
+        for (Profile profile : Profile.values()) {
+            float[] base = profileWeights.get(profile);
+            float[] weights = new float[base.length];
+            double[] doubleWeights = new double[base.length];
+            for (int e = 0; e < weights.length; e += 1) {
+                weights[e] = base[e] * factors[e];
+                doubleWeights[e] = weights[e];
+            }
+            metrics.put(profile, hierarchy.customize(weights));
+            WeightedGraph graph = new WeightedGraph(compact, doubleWeights);
+            graphs.put(profile, graph);
+            reverses.put(profile, new ReverseGraph(reverse, graph));
+        }
+        return new Snapshot(metrics, graphs, reverses, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Returns the shortest profile weight of each edge in the compact graph, which is its distance.
+     *
+     * @return the shortest profile weight of each edge in the compact graph.
+     */
+    private float[] distanceWeights() {
+        float[] result = new float[compact.numEdges()];
+        for (int e = 0; e < result.length; e += 1) {
+            result[e] = (float) compact.weight(e);
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to k materially different paths for the routing profile from the points closest to the start and
+     * goal, starting with the best path. Alternatives are found with the plateau method and must cost at most
+     * {@link #MAX_STRETCH} times the best path, overlap the paths before them by at most {@link #MAX_OVERLAP} of their
+     * cost, and be found within {@link #ALTERNATIVES_TIME_LIMIT} nanoseconds after the shortest path trees. If the
+     * goal is unreachable, the only path contains only the goal.
+     *
+     * @param start   the {@link Point} to start the paths.
+     * @param goal    the {@link Point} to end the paths.
+     * @param k       the maximum number of paths.
+     * @param profile the routing profile.
+     * @return a list of up to k paths from the points closest to the start and goal, each as a list of points.
+     * @see PlateauSolver
+     */
+    public List<List<Point>> alternativePaths(Point start, Point goal, int k, Profile profile) {
+        int s = compact.indexOf(closest(start));
+        int t = compact.indexOf(closest(goal));
+        Snapshot current = snapshot.get();
+        PlateauSolver solver = new PlateauSolver(current.graphs().get(profile), current.reverses().get(profile),
+                forwardWorkspaces.get(), backwardWorkspaces.get());
+        long deadline = System.nanoTime() + ALTERNATIVES_TIME_LIMIT;
+        List<List<Point>> result = new ArrayList<>();
+        for (int[] path : solver.solve(s, t, k, MAX_STRETCH, MAX_OVERLAP, deadline)) {
+            List<Point> points = new ArrayList<>(path.length);
+            for (int v : path) {
+                points.add(compact.vertex(v));
+            }
+            result.add(points);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a short tour for the routing profile that starts at the point closest to the first stop and visits the
+     * points closest to every other stop. The distances between stops are computed with one search from each stop in
+     * parallel, each stopping once every stop is reached. The order of the stops is then optimized for up to
+     * {@link #TOUR_TIME_LIMIT} nanoseconds, and the path between each pair of consecutive stops is found with the
+     * hierarchy.
+     *
+     * @param stops   the stops to visit, starting with the first stop.
+     * @param profile the routing profile.
+     * @return the order of the stops and the path that visits them in that order.
+     * @see TourOptimizer
+     */
+    public Tour optimizeTour(List<Point> stops, Profile profile) {
+        int[] vertices = new int[stops.size()];
+        for (int i = 0; i < vertices.length; i += 1) {
+            vertices[i] = compact.indexOf(closest(stops.get(i)));
+        }
+        Snapshot current = snapshot.get();
+        IntGraph graph = current.graphs().get(profile);
+        double[][] distances = new double[vertices.length][];
+        IntStream.range(0, vertices.length).parallel().forEach(i -> {
+            IntDijkstraSolver solver = new IntDijkstraSolver(graph, forwardWorkspaces.get());
+            solver.solve(vertices[i], vertices);
+            distances[i] = new double[vertices.length];
+            for (int j = 0; j < vertices.length; j += 1) {
+                distances[i][j] = solver.distTo(vertices[j]);
+            }
+        });
+        int[] order = TourOptimizer.optimize(distances, System.nanoTime() + TOUR_TIME_LIMIT);
+
+        List<Integer> orderList = new ArrayList<>(order.length);
+        List<Point> path = new ArrayList<>();
+        HierarchySolver solver = solvers.get();
+        for (int i = 0; i < order.length; i += 1) {
+            orderList.add(order[i]);
+            if (i == 0) {
+                path.add(compact.vertex(vertices[order[i]]));
+                continue;
+            }
+            solver.solve(current.metrics().get(profile), vertices[order[i - 1]], vertices[order[i]]);
+            int length = solver.tracePath();
+            // The first vertex of each leg is the last vertex of the previous leg
+            for (int j = 1; j < length; j += 1) {
+                path.add(compact.vertex(solver.pathVertex(j)));
+            }
+        }
+        return new Tour(orderList, path);
+    }
+
+    /**
+     * Returns the wheelchair profile weight of each edge in the compact graph: its distance divided by its access
+     * score, or by {@link #DEFAULT_ACCESS_SCORE} if its way has no access score.
+     *
+     * @return the wheelchair profile weight of each edge in the compact graph.
+     */
+    private float[] wheelchairWeights() {
+        float[] result = new float[compact.numEdges()];
+        for (int e = 0; e < result.length; e += 1) {
+            double score = Float.isNaN(accessScores[e]) ? DEFAULT_ACCESS_SCORE : accessScores[e];
+            result[e] = (float) (compact.weight(e) / Math.clamp(score, MIN_ACCESS_SCORE, 1.0));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fastest profile weight of each edge in the compact graph, which is its travel time in seconds at the
+     * speed of its way.
+     *
+     * @return the fastest profile weight of each edge in the compact graph.
+     */
+    private float[] travelTimeWeights() {
+        float[] result = new float[compact.numEdges()];
+        for (int e = 0; e < result.length; e += 1) {
+            double kilometers = compact.weight(e) * DistanceUtils.DEG_TO_KM;
+            result[e] = (float) (kilometers / Byte.toUnsignedInt(speeds[e]) * SECONDS_PER_HOUR);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the speed in kilometers per hour given by the value of a maxspeed tag, such as "50", "30 mph", or
+     * "10 knots", clamped to between 1 and {@link #MAX_SPEED}. If the value has several speeds separated by
+     * semicolons, only the first speed is used.
+     *
+     * @param maxSpeed     the value of the maxspeed tag, or null if there is none.
+     * @param defaultSpeed the speed if the value is missing or not numeric, such as "none" or "signals".
+     * @return the speed in kilometers per hour.
+     */
+    static int parseSpeed(String maxSpeed, int defaultSpeed) {
+        double speed = defaultSpeed;
+        if (maxSpeed != null) {
+            String value = maxSpeed.split(";", 2)[0].strip();
+            String unit = value.replaceFirst("^[0-9.]+", "").strip();
+            String number = value.substring(0, value.length() - unit.length()).strip();
+            try {
+                double parsed = Double.parseDouble(number);
+                switch (unit) {
+                    case "", "km/h", "kmh", "kph" -> speed = parsed;
+                    case "mph" -> speed = parsed * KMH_PER_MPH;
+                    case "knots" -> speed = parsed * KMH_PER_KNOT;
+                    default -> {
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // Not numeric, so keep the default speed
+            }
+        }
+        return (int) Math.clamp(Math.round(speed), 1, MAX_SPEED);
     }
 
     @Override
     public List<Edge<Point>> neighbors(Point point) {
-        return neighbors.computeIfAbsent(point, (p) -> List.of());
+        return neighbors.getOrDefault(point, List.of());
     }
 
     @Override
@@ -154,11 +853,33 @@ public class MapGraph implements AStarGraph<Point> {
         return context.calcDistance(start, end);
     }
 
+    /**
+     * Returns the index of the location in the compact graph, or -1 if the location is not on a routable street.
+     *
+     * @param point the location.
+     * @return the index of the location in the compact graph, or -1 if the location is not on a routable street.
+     */
+    int indexOf(Point point) {
+        return compact.indexOf(point);
+    }
+
+    /**
+     * Returns the compact graph with the weights of the routing profile in the current snapshot, including the weight
+     * factors of every override.
+     *
+     * @param profile the routing profile.
+     * @return the compact graph with the weights of the routing profile in the current snapshot.
+     */
+    IntGraph weightedGraph(Profile profile) {
+        return snapshot.get().graphs().get(profile);
+    }
+
     @Override
     public String toString() {
         return "MapGraph{" +
                 "osmPath='" + osmPath + '\'' +
                 ", placesPath='" + placesPath + '\'' +
+                ", accessPath='" + accessPath + '\'' +
                 ", context='" + context + '\'' +
                 '}';
     }
@@ -166,14 +887,94 @@ public class MapGraph implements AStarGraph<Point> {
     /**
      * Adds an edge to this graph if it doesn't already exist using distance as the weight.
      *
-     * @param from the originating point of the edge.
-     * @param to the terminating point of the edge.
+     * @param from  the originating point of the edge.
+     * @param to    the terminating point of the edge.
+     * @param wayId the OSM way ID of the street containing the edge.
+     * @param speed the speed in kilometers per hour of the street containing the edge.
      */
-    private void addEdge(Point from, Point to) {
+    private void addEdge(Point from, Point to, long wayId, int speed) {
         if (!neighbors.containsKey(from)) {
             neighbors.put(from, new ArrayList<>());
         }
-        neighbors.get(from).add(new Edge<>(from, to, estimatedDistance(from, to)));
+        neighbors.get(from).add(new Road(from, to, estimatedDistance(from, to), wayId, (byte) speed));
+    }
+
+    /**
+     * Routing profiles that each prefer different paths.
+     */
+    public enum Profile {
+        /**
+         * Minimizes the physical distance.
+         */
+        SHORTEST,
+        /**
+         * Minimizes the physical distance divided by the access score of each way, so that less accessible ways
+         * incur larger distance penalties.
+         */
+        WHEELCHAIR,
+        /**
+         * Minimizes the travel time at the speed of each way, which is its maxspeed tag or the default speed for its
+         * highway type.
+         */
+        FASTEST
+    }
+
+    /**
+     * Speedup techniques for point-to-point shortest path queries, which all return a best path.
+     */
+    public enum Speedup {
+        /**
+         * Searches the hierarchy customized for the routing profile, which answers queries fastest.
+         */
+        HIERARCHY,
+        /**
+         * A* search that only relaxes the edges flagged with the grid cell of the goal. The arc flags for each routing
+         * profile are computed by the first query after each weight override.
+         */
+        ARC_FLAGS
+    }
+
+    /**
+     * A tour that visits every stop.
+     *
+     * @param order the index of each stop in visiting order, starting with 0 for the first stop.
+     * @param path  the points on the path that visits the stops in order.
+     */
+    public record Tour(List<Integer> order, List<Point> path) {
+    }
+
+    /**
+     * The hierarchy and compact graph weighted for each routing profile with the weight factors when the snapshot was
+     * created. Nothing is modified after the snapshot is published, except that the arc flags for each routing profile
+     * are added by the first query that needs them.
+     *
+     * @param metrics  {@link Map} of each routing profile to its customized hierarchy.
+     * @param graphs   {@link Map} of each routing profile to the compact graph with its weights.
+     * @param reverses {@link Map} of each routing profile to the reverse of the compact graph with its weights.
+     * @param arcFlags {@link Map} of each routing profile to the arc flags for the compact graph with its weights.
+     */
+    private record Snapshot(Map<Profile, CustomizableHierarchy.Metric> metrics, Map<Profile, WeightedGraph> graphs,
+                            Map<Profile, ReverseGraph> reverses, Map<Profile, ArcFlags> arcFlags) {
+    }
+
+    /**
+     * {@link Edge} along a street that also stores the OSM way ID and speed of the street.
+     */
+    private static class Road extends Edge<Point> {
+        /**
+         * The OSM way ID of the street containing this edge.
+         */
+        private final long wayId;
+        /**
+         * The speed in kilometers per hour of the street containing this edge as an unsigned byte.
+         */
+        private final byte speed;
+
+        Road(Point from, Point to, double weight, long wayId, byte speed) {
+            super(from, to, weight);
+            this.wayId = wayId;
+            this.speed = speed;
+        }
     }
 
     /**
@@ -187,6 +988,10 @@ public class MapGraph implements AStarGraph<Point> {
         private long id;
         private String name;
         private boolean validWay;
+        private String highway;
+        private String maxSpeed;
+        private String oneway;
+        private boolean roundabout;
         private Point location;
         private Queue<Point> path;
 
@@ -205,6 +1010,10 @@ public class MapGraph implements AStarGraph<Point> {
             id = Long.MIN_VALUE;
             name = "";
             validWay = false;
+            highway = null;
+            maxSpeed = null;
+            oneway = null;
+            roundabout = false;
             location = null;
             path = new ArrayDeque<>();
         }
@@ -233,14 +1042,23 @@ public class MapGraph implements AStarGraph<Point> {
                 );
             } else if (qName.equals("way")) {
                 state = "way";
+                id = Long.parseLong(attributes.getValue("id"));
             } else if (state.equals("way") && qName.equals("nd")) {
                 long ref = Long.parseLong(attributes.getValue("ref"));
                 path.add(byId.get(ref));
             } else if (state.equals("way") && qName.equals("tag")) {
                 String k = attributes.getValue("k");
                 String v = attributes.getValue("v");
-                if (k.equals("highway")) {
-                    validWay = allowedHighwayTypes.contains(v);
+                switch (k) {
+                    case "highway" -> {
+                        validWay = allowedHighwayTypes.contains(v);
+                        highway = v;
+                    }
+                    case "maxspeed" -> maxSpeed = v;
+                    case "oneway" -> oneway = v;
+                    case "junction" -> roundabout = v.equals("roundabout");
+                    default -> {
+                    }
                 }
             } else if (state.equals("node") && qName.equals("tag") && attributes.getValue("k").equals("name")) {
                 name = attributes.getValue("v").strip();
@@ -263,11 +1081,21 @@ public class MapGraph implements AStarGraph<Point> {
         public void endElement(String uri, String localName, String qName) {
             if (qName.equals("way")) {
                 if (validWay && !path.isEmpty()) {
+                    int speed = parseSpeed(maxSpeed, DEFAULT_SPEEDS.get(highway));
+                    // Roundabouts and motorways are one-way unless tagged otherwise
+                    boolean forward = !List.of("-1", "reverse").contains(String.valueOf(oneway));
+                    boolean backward = oneway == null
+                            ? !roundabout && !ONEWAY_HIGHWAY_TYPES.contains(highway)
+                            : !List.of("yes", "true", "1").contains(oneway);
                     Point from = path.remove();
                     while (!path.isEmpty()) {
                         Point to = path.remove();
-                        addEdge(from, to);
-                        addEdge(to, from);
+                        if (forward) {
+                            addEdge(from, to, id, speed);
+                        }
+                        if (backward) {
+                            addEdge(to, from, id, speed);
+                        }
                         from = to;
                     }
                 }
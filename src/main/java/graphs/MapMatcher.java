@@ -0,0 +1,523 @@
+package graphs;
+
+import graphs.shortestpaths.IntDijkstraSolver;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Map matching of GPS traces to the edges of a {@link CompactGraph} of {@link Point} vertices with a hidden Markov
+ * model, following Newson and Krumm. The hidden state of each GPS point is its true position on an edge, and:
+ * <ul>
+ *     <li>The candidates for each GPS point are the closest positions on up to {@link #MAX_CANDIDATES} edges within
+ *     {@link #SEARCH_RADIUS} meters, found with a uniform grid whose cells are as wide as the search radius.</li>
+ *     <li>The emission probability of a candidate decays with the square of its distance from the GPS point, as if GPS
+ *     noise were Gaussian with standard deviation {@link #SIGMA} meters.</li>
+ *     <li>The transition probability between candidates of consecutive GPS points decays exponentially with the
+ *     difference between the route distance and the straight-line distance, since true routes rarely take detours.
+ *     Route distances come from a search that stops after {@link #MAX_DETOUR} times the straight-line distance.</li>
+ * </ul>
+ * The most likely sequence of candidates is decoded with the Viterbi algorithm in log space. Traces are streamed
+ * through a window of {@link #WINDOW} GPS points: once the window is full, the oldest point is decided by following the
+ * most likely path back from the newest point and then output, so memory does not grow with the length of a trace. If
+ * a GPS point has no candidates or no candidate can be reached from the previous point, the trace is split there.
+ * <p>
+ * Each thread has its own search workspace, so different traces can be matched in parallel.
+ *
+ * @see MapGraph
+ * @see IntDijkstraSolver
+ */
+public class MapMatcher {
+    /**
+     * Number of meters per degree of distance.
+     */
+    private static final double METERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 1000;
+    /**
+     * Largest distance in meters from a GPS point to any of its candidates, which is also the width of a grid cell.
+     */
+    private static final double SEARCH_RADIUS = 50.0;
+    /**
+     * Maximum number of candidates for each GPS point.
+     */
+    private static final int MAX_CANDIDATES = 8;
+    /**
+     * Standard deviation in meters of the GPS noise.
+     */
+    private static final double SIGMA = 10.0;
+    /**
+     * Difference in meters between the route distance and the straight-line distance that is e times less likely.
+     */
+    private static final double BETA = 10.0;
+    /**
+     * Largest route distance between consecutive candidates as a multiple of the straight-line distance, in addition
+     * to twice the search radius.
+     */
+    private static final double MAX_DETOUR = 2.0;
+    /**
+     * Maximum number of GPS points that have been read but not yet output.
+     */
+    private static final int WINDOW = 32;
+    /**
+     * The input graph.
+     */
+    private final CompactGraph<Point> graph;
+    /**
+     * The OSM way ID of each edge.
+     */
+    private final long[] wayIds;
+    /**
+     * The spatial context for creating points.
+     */
+    private final SpatialContext context;
+    /**
+     * The number of degrees of latitude per degree of longitude.
+     */
+    private final double scale;
+    /**
+     * The smallest horizontal coordinate in degrees of latitude.
+     */
+    private final double minX;
+    /**
+     * The smallest vertical coordinate in degrees of latitude.
+     */
+    private final double minY;
+    /**
+     * The number of columns in the grid.
+     */
+    private final int columns;
+    /**
+     * The number of rows in the grid.
+     */
+    private final int rows;
+    /**
+     * The sorted index of each grid cell that overlaps at least one edge.
+     */
+    private final int[] cells;
+    /**
+     * The position in {@link #cellEdges} of the first edge of each grid cell, followed by the number of entries.
+     */
+    private final int[] firstCellEdges;
+    /**
+     * The edges overlapping each grid cell, grouped by grid cell.
+     */
+    private final int[] cellEdges;
+    /**
+     * The route distance search for each thread.
+     */
+    private final ThreadLocal<IntDijkstraSolver> solvers;
+
+    /**
+     * Constructs a new instance for the graph that matches GPS points to edges in its largest strongly connected
+     * component.
+     *
+     * @param graph      the input graph.
+     * @param components the strongly connected components of the graph.
+     * @param wayIds     the OSM way ID of each edge.
+     * @param context    the spatial context for creating points.
+     * @throws IllegalArgumentException if the graph covers too large an area for the grid.
+     */
+    public MapMatcher(CompactGraph<Point> graph, StronglyConnectedComponents components, long[] wayIds,
+                      SpatialContext context) {
+        this.graph = graph;
+        this.wayIds = wayIds;
+        this.context = context;
+        double sumLat = 0.0;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < graph.numVertices(); v += 1) {
+            Point point = graph.vertex(v);
+            sumLat += point.getLat();
+            minLon = Math.min(minLon, point.getLon());
+            maxLon = Math.max(maxLon, point.getLon());
+            minLat = Math.min(minLat, point.getLat());
+            maxLat = Math.max(maxLat, point.getLat());
+        }
+        scale = graph.numVertices() == 0 ? 1.0 : Math.cos(Math.toRadians(sumLat / graph.numVertices()));
+        minX = minLon * scale;
+        minY = minLat;
+        columns = Math.max(column(maxLon * scale) + 1, 1);
+        rows = Math.max(row(maxLat) + 1, 1);
+        if ((long) columns * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid of " + columns + " by " + rows + " cells is too large");
+        }
+
+        // Pack the grid cell index and edge of each overlap into one long so that sorting groups edges by cell
+        long[] entries = new long[graph.numEdges()];
+        int size = 0;
+        for (int e = 0; e < graph.numEdges(); e += 1) {
+            int from = graph.from(e);
+            int to = graph.to(e);
+            int largest = components.largest();
+            if (components.component(from) != largest || components.component(to) != largest) {
+                continue;
+            }
+            Point a = graph.vertex(from);
+            Point b = graph.vertex(to);
+            int lastColumn = column(Math.max(a.getLon(), b.getLon()) * scale);
+            int lastRow = row(Math.max(a.getLat(), b.getLat()));
+            for (int r = row(Math.min(a.getLat(), b.getLat())); r <= lastRow; r += 1) {
+                for (int c = column(Math.min(a.getLon(), b.getLon()) * scale); c <= lastColumn; c += 1) {
+                    if (size == entries.length) {
+                        entries = Arrays.copyOf(entries, 2 * size);
+                    }
+                    entries[size] = ((long) (r * columns + c) << 32) | e;
+                    size += 1;
+                }
+            }
+        }
+        Arrays.parallelSort(entries, 0, size);
+        int numCells = 0;
+        for (int i = 0; i < size; i += 1) {
+            if (i == 0 || entries[i] >>> 32 != entries[i - 1] >>> 32) {
+                numCells += 1;
+            }
+        }
+        cells = new int[numCells];
+        firstCellEdges = new int[numCells + 1];
+        cellEdges = new int[size];
+        int cell = -1;
+        for (int i = 0; i < size; i += 1) {
+            if (i == 0 || entries[i] >>> 32 != entries[i - 1] >>> 32) {
+                cell += 1;
+                cells[cell] = (int) (entries[i] >>> 32);
+                firstCellEdges[cell] = i;
+            }
+            cellEdges[i] = (int) entries[i];
+        }
+        firstCellEdges[numCells] = size;
+        solvers = ThreadLocal.withInitial(() -> new IntDijkstraSolver(graph));
+    }
+
+    /**
+     * Returns the grid column containing the given horizontal coordinate, clamped to the grid.
+     *
+     * @param x the horizontal coordinate in degrees of latitude.
+     * @return the grid column containing the coordinate.
+     */
+    private int column(double x) {
+        return (int) Math.clamp(Math.floor((x - minX) * METERS_PER_DEGREE / SEARCH_RADIUS), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the grid row containing the given vertical coordinate, clamped to the grid.
+     *
+     * @param y the vertical coordinate in degrees of latitude.
+     * @return the grid row containing the coordinate.
+     */
+    private int row(double y) {
+        return (int) Math.clamp(Math.floor((y - minY) * METERS_PER_DEGREE / SEARCH_RADIUS), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the matched position of each GPS point in the trace.
+     *
+     * @param trace the GPS points in the order they were recorded.
+     * @return a list of the match for each GPS point in the trace.
+     */
+    public List<Match> match(List<Point> trace) {
+        List<Match> result = new ArrayList<>(trace.size());
+        match(trace.iterator(), result::add);
+        return result;
+    }
+
+    /**
+     * Returns the matched position of each GPS point in each trace, matching different traces in parallel.
+     *
+     * @param traces the traces, each given by its GPS points in the order they were recorded.
+     * @return a list of the matches for each trace.
+     */
+    public List<List<Match>> matchAll(List<? extends List<Point>> traces) {
+        return traces.parallelStream().map(this::match).toList();
+    }
+
+    /**
+     * Streams the GPS points of the trace through the model and outputs the matched position of each GPS point in
+     * order. Each match is output at most {@link #WINDOW} GPS points after its GPS point is read.
+     *
+     * @param trace  the GPS points in the order they were recorded.
+     * @param output the consumer of the match for each GPS point.
+     */
+    public void match(Iterator<Point> trace, Consumer<Match> output) {
+        // Ring buffer of the steps that have not been output
+        Step[] window = new Step[WINDOW];
+        int[] decoded = new int[WINDOW];
+        int first = 0;
+        int count = 0;
+        while (trace.hasNext()) {
+            Step step = candidates(trace.next());
+            if (count > 0 && (step.size == 0 || !transition(window[(first + count - 1) % WINDOW], step))) {
+                // The trace is split here, so every remaining step can be decided
+                decode(window, first, count, decoded);
+                for (int i = 0; i < count; i += 1) {
+                    output.accept(window[(first + i) % WINDOW].match(decoded[i]));
+                }
+                count = 0;
+            }
+            if (step.size == 0) {
+                output.accept(new Match(step.observation, null, -1));
+                continue;
+            }
+            if (count == 0) {
+                first = 0;
+                for (int j = 0; j < step.size; j += 1) {
+                    step.scores[j] = emission(step.distances[j]);
+                }
+            }
+            window[(first + count) % WINDOW] = step;
+            count += 1;
+            if (count == WINDOW) {
+                decode(window, first, count, decoded);
+                output.accept(window[first].match(decoded[0]));
+                window[first] = null;
+                first = (first + 1) % WINDOW;
+                count -= 1;
+            }
+        }
+        decode(window, first, count, decoded);
+        for (int i = 0; i < count; i += 1) {
+            output.accept(window[(first + i) % WINDOW].match(decoded[i]));
+        }
+    }
+
+    /**
+     * Stores the candidate of each step on the most likely path to the most likely candidate of the newest step.
+     *
+     * @param window  the ring buffer of steps.
+     * @param first   the position of the oldest step in the ring buffer.
+     * @param count   the number of steps.
+     * @param decoded the array for the index of the candidate of each step, from oldest to newest.
+     */
+    private static void decode(Step[] window, int first, int count, int[] decoded) {
+        if (count == 0) {
+            return;
+        }
+        Step newest = window[(first + count - 1) % WINDOW];
+        int best = 0;
+        for (int j = 1; j < newest.size; j += 1) {
+            if (newest.scores[j] > newest.scores[best]) {
+                best = j;
+            }
+        }
+        decoded[count - 1] = best;
+        for (int i = count - 1; i > 0; i -= 1) {
+            decoded[i - 1] = window[(first + i) % WINDOW].back[decoded[i]];
+        }
+    }
+
+    /**
+     * Returns the log emission probability of a candidate at the given distance from its GPS point.
+     *
+     * @param distance the distance in meters.
+     * @return the log emission probability of the candidate.
+     */
+    private static double emission(double distance) {
+        return -0.5 * (distance / SIGMA) * (distance / SIGMA);
+    }
+
+    /**
+     * Computes the score of the most likely path to each candidate of the next step and the candidate of the previous
+     * step on that path. Scores are shifted so that the best score is 0, which keeps them from losing precision.
+     *
+     * @param previous the previous step.
+     * @param next     the next step.
+     * @return true if and only if any candidate of the next step can be reached from the previous step.
+     */
+    private boolean transition(Step previous, Step next) {
+        IntDijkstraSolver solver = solvers.get();
+        double straight = Math.hypot(x(next.observation) - x(previous.observation),
+                next.observation.getLat() - previous.observation.getLat()) * METERS_PER_DEGREE;
+        // The largest route distance in the units of the edge weights
+        double limit = (MAX_DETOUR * straight + 2 * SEARCH_RADIUS) / METERS_PER_DEGREE;
+        int[] targets = new int[next.size];
+        for (int j = 0; j < next.size; j += 1) {
+            targets[j] = graph.from(next.edges[j]);
+        }
+        Arrays.fill(next.scores, 0, next.size, Double.NEGATIVE_INFINITY);
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < previous.size; i += 1) {
+            if (previous.scores[i] == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            int e = previous.edges[i];
+            solver.solve(graph.to(e), targets, limit);
+            double rest = (1 - previous.fractions[i]) * graph.weight(e);
+            for (int j = 0; j < next.size; j += 1) {
+                int f = next.edges[j];
+                double route;
+                if (f == e && next.fractions[j] >= previous.fractions[i]) {
+                    route = (next.fractions[j] - previous.fractions[i]) * graph.weight(e);
+                } else {
+                    route = rest + solver.distTo(graph.from(f)) + next.fractions[j] * graph.weight(f);
+                }
+                if (route > limit) {
+                    continue;
+                }
+                double score = previous.scores[i] - Math.abs(route * METERS_PER_DEGREE - straight) / BETA
+                        + emission(next.distances[j]);
+                if (score > next.scores[j]) {
+                    next.scores[j] = score;
+                    next.back[j] = i;
+                    best = Math.max(best, score);
+                }
+            }
+        }
+        if (best == Double.NEGATIVE_INFINITY) {
+            return false;
+        }
+        for (int j = 0; j < next.size; j += 1) {
+            next.scores[j] -= best;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a step with the closest position on each of the closest edges to the GPS point.
+     *
+     * @param observation the GPS point.
+     * @return a step with the candidates for the GPS point, closest first.
+     */
+    private Step candidates(Point observation) {
+        Step result = new Step(observation);
+        double x = x(observation);
+        double y = observation.getLat();
+        double radius = SEARCH_RADIUS / METERS_PER_DEGREE;
+        int lastRow = Math.min(row(y + radius), rows - 1);
+        int lastColumn = Math.min(column(x + radius), columns - 1);
+        for (int r = row(y - radius); r <= lastRow; r += 1) {
+            for (int c = column(x - radius); c <= lastColumn; c += 1) {
+                int cell = Arrays.binarySearch(cells, r * columns + c);
+                if (cell < 0) {
+                    continue;
+                }
+                for (int i = firstCellEdges[cell]; i < firstCellEdges[cell + 1]; i += 1) {
+                    result.offer(cellEdges[i], x, y);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the horizontal coordinate of the given point in degrees of latitude.
+     *
+     * @param point the point.
+     * @return the horizontal coordinate of the point.
+     */
+    private double x(Point point) {
+        return point.getLon() * scale;
+    }
+
+    /**
+     * The matched position of a GPS point.
+     *
+     * @param observation the GPS point.
+     * @param location    the matched position on the edge, or null if the GPS point could not be matched.
+     * @param wayId       the OSM way ID of the matched edge, or -1 if the GPS point could not be matched.
+     */
+    public record Match(Point observation, Point location, long wayId) {
+    }
+
+    /**
+     * The candidates for a GPS point and the Viterbi state for each candidate.
+     */
+    private class Step {
+        /**
+         * The GPS point.
+         */
+        private final Point observation;
+        /**
+         * The edge of each candidate.
+         */
+        private final int[] edges;
+        /**
+         * The position of each candidate as a fraction of the way along its edge.
+         */
+        private final double[] fractions;
+        /**
+         * The distance in meters from the GPS point to each candidate.
+         */
+        private final double[] distances;
+        /**
+         * The log probability of the most likely path to each candidate, shifted so that the best score is 0.
+         */
+        private final double[] scores;
+        /**
+         * The candidate of the previous step on the most likely path to each candidate.
+         */
+        private final int[] back;
+        /**
+         * The number of candidates.
+         */
+        private int size;
+
+        Step(Point observation) {
+            this.observation = observation;
+            edges = new int[MAX_CANDIDATES];
+            fractions = new double[MAX_CANDIDATES];
+            distances = new double[MAX_CANDIDATES];
+            scores = new double[MAX_CANDIDATES];
+            back = new int[MAX_CANDIDATES];
+        }
+
+        /**
+         * Adds the closest position on the edge as a candidate if it is within the search radius and among the
+         * closest candidates, keeping the candidates sorted by distance.
+         *
+         * @param e the index of the edge.
+         * @param x the horizontal coordinate of the GPS point.
+         * @param y the vertical coordinate of the GPS point.
+         */
+        void offer(int e, double x, double y) {
+            Point a = graph.vertex(graph.from(e));
+            Point b = graph.vertex(graph.to(e));
+            double dx = x(b) - x(a);
+            double dy = b.getLat() - a.getLat();
+            double length = dx * dx + dy * dy;
+            double t = length == 0 ? 0.0 : Math.clamp(((x - x(a)) * dx + (y - a.getLat()) * dy) / length, 0.0, 1.0);
+            double distance = Math.hypot(x(a) + t * dx - x, a.getLat() + t * dy - y) * METERS_PER_DEGREE;
+            if (distance > SEARCH_RADIUS || (size == MAX_CANDIDATES && distance >= distances[size - 1])) {
+                return;
+            }
+            // An edge overlapping several grid cells is offered once for each of them
+            for (int j = 0; j < size; j += 1) {
+                if (edges[j] == e) {
+                    return;
+                }
+            }
+            int j = Math.min(size, MAX_CANDIDATES - 1);
+            for (; j > 0 && distances[j - 1] > distance; j -= 1) {
+                edges[j] = edges[j - 1];
+                fractions[j] = fractions[j - 1];
+                distances[j] = distances[j - 1];
+            }
+            edges[j] = e;
+            fractions[j] = t;
+            distances[j] = distance;
+            size = Math.min(size + 1, MAX_CANDIDATES);
+        }
+
+        /**
+         * Returns the match for the GPS point at the given candidate.
+         *
+         * @param j the index of the candidate.
+         * @return the match for the GPS point.
+         */
+        Match match(int j) {
+            Point a = graph.vertex(graph.from(edges[j]));
+            Point b = graph.vertex(graph.to(edges[j]));
+            Point location = context.getShapeFactory().pointLatLon(
+                    a.getLat() + fractions[j] * (b.getLat() - a.getLat()),
+                    a.getLon() + fractions[j] * (b.getLon() - a.getLon())
+            );
+            return new Match(observation, location, wayIds[edges[j]]);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package graphs;
+
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Static 2-d tree over named places for reverse geocoding. Places are projected onto a plane where degrees of longitude
+ * are scaled by the cosine of the mean latitude, which is accurate at the scale of a city, and then stored in arrays
+ * in the order of a balanced 2-d tree: the median place of each range along the wider dimension is the root of the
+ * range, and the places before and after it form its two subtrees. Queries descend into the subtree on the same side
+ * as the query point first and skip a subtree whenever the splitting line is farther than the current results, so they
+ * only visit a logarithmic number of places for typical inputs.
+ * <p>
+ * Nearest place queries rank places by their distance divided by an importance weight, so that important places such
+ * as landmarks are preferred over obscure places that are only slightly closer. Each node stores the largest weight in
+ * its subtree, which bounds how close any place in the subtree can rank.
+ *
+ * @see MapGraph
+ */
+public class PlaceIndex {
+    /**
+     * Number of meters per degree of distance.
+     */
+    private static final double METERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 1000;
+    /**
+     * The places in the order of the tree.
+     */
+    private final Place[] places;
+    /**
+     * The horizontal coordinate of each place in degrees of latitude.
+     */
+    private final double[] xs;
+    /**
+     * The vertical coordinate of each place in degrees of latitude.
+     */
+    private final double[] ys;
+    /**
+     * Whether each node splits its range by the horizontal coordinate rather than the vertical coordinate.
+     */
+    private final boolean[] horizontal;
+    /**
+     * The largest importance weight in the subtree of each node.
+     */
+    private final double[] maxWeights;
+    /**
+     * The number of degrees of latitude per degree of longitude.
+     */
+    private final double scale;
+
+    /**
+     * Constructs an index over every location of every named place.
+     *
+     * @param locations  {@link Map} of each place name to its locations.
+     * @param importance {@link Map} of each place name to its importance, where missing names have importance 0.
+     */
+    public PlaceIndex(Map<String, List<Point>> locations, Map<? extends CharSequence, Integer> importance) {
+        List<Place> list = new ArrayList<>();
+        double sumLat = 0.0;
+        for (Map.Entry<String, List<Point>> entry : locations.entrySet()) {
+            int value = importance.getOrDefault(entry.getKey(), 0);
+            for (Point location : entry.getValue()) {
+                list.add(new Place(entry.getKey(), location, value));
+                sumLat += location.getLat();
+            }
+        }
+        scale = list.isEmpty() ? 1.0 : Math.cos(Math.toRadians(sumLat / list.size()));
+        places = list.toArray(new Place[0]);
+        xs = new double[places.length];
+        ys = new double[places.length];
+        horizontal = new boolean[places.length];
+        maxWeights = new double[places.length];
+        build(0, places.length);
+    }
+
+    /**
+     * Arranges the given range of places into a balanced 2-d tree rooted at its middle index.
+     *
+     * @param lo the first index of the range.
+     * @param hi one more than the last index of the range.
+     */
+    private void build(int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxWeight = 0.0;
+        for (int i = lo; i < hi; i += 1) {
+            minX = Math.min(minX, x(places[i].location()));
+            maxX = Math.max(maxX, x(places[i].location()));
+            minY = Math.min(minY, places[i].location().getLat());
+            maxY = Math.max(maxY, places[i].location().getLat());
+            maxWeight = Math.max(maxWeight, weight(places[i].importance()));
+        }
+        int mid = lo + (hi - lo) / 2;
+        boolean byX = maxX - minX >= maxY - minY;
+        Comparator<Place> comparator = byX
+                ? Comparator.comparingDouble(place -> x(place.location()))
+                : Comparator.comparingDouble(place -> place.location().getLat());
+        select(lo, hi - 1, mid, comparator);
+        xs[mid] = x(places[mid].location());
+        ys[mid] = places[mid].location().getLat();
+        horizontal[mid] = byX;
+        maxWeights[mid] = maxWeight;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    /**
+     * Rearranges the places from lo to hi (inclusive) so that the place at index k is in its sorted position.
+     *
+     * @param lo         the first index of the range.
+     * @param hi         the last index of the range.
+     * @param k          the index to select.
+     * @param comparator the order of the places.
+     */
+    private void select(int lo, int hi, int k, Comparator<Place> comparator) {
+        while (lo < hi) {
+            Place pivot = places[lo + (hi - lo) / 2];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (comparator.compare(places[i], pivot) < 0) {
+                    i += 1;
+                }
+                while (comparator.compare(places[j], pivot) > 0) {
+                    j -= 1;
+                }
+                if (i <= j) {
+                    Place swap = places[i];
+                    places[i] = places[j];
+                    places[j] = swap;
+                    i += 1;
+                    j -= 1;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the importance weight for the given importance, which is 1 for unimportant places and grows with the
+     * logarithm of the importance.
+     *
+     * @param importance the importance of a place.
+     * @return the importance weight.
+     */
+    private static double weight(int importance) {
+        return 1.0 + Math.log10(1.0 + Math.max(importance, 0));
+    }
+
+    /**
+     * Returns the horizontal coordinate of the given point in degrees of latitude.
+     *
+     * @param point the point.
+     * @return the horizontal coordinate of the point.
+     */
+    private double x(Point point) {
+        return point.getLon() * scale;
+    }
+
+    /**
+     * Returns the number of places in this index.
+     *
+     * @return the number of places in this index.
+     */
+    public int size() {
+        return places.length;
+    }
+
+    /**
+     * Returns up to k places nearest to the target ranked by their distance divided by their importance weight.
+     *
+     * @param target the target location.
+     * @param k      the maximum number of places to return.
+     * @return a list of up to k places nearest to the target, best first.
+     */
+    public List<Place> nearest(Point target, int k) {
+        // Max-oriented priority queue of the best places found so far, so the worst is removed first
+        PriorityQueue<Integer> best = new PriorityQueue<>(Comparator.comparingDouble((Integer i) ->
+                score(i, x(target), target.getLat())).reversed());
+        if (k > 0) {
+            nearest(0, places.length, x(target), target.getLat(), 0.0, k, best);
+        }
+        List<Place> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(places[best.remove()]);
+        }
+        return result.reversed();
+    }
+
+    /**
+     * Adds the best places in the given range to the priority queue of the best places found so far.
+     *
+     * @param lo    the first index of the range.
+     * @param hi    one more than the last index of the range.
+     * @param x     the horizontal coordinate of the target.
+     * @param y     the vertical coordinate of the target.
+     * @param bound a lower bound on the distance from the target to any place in the range.
+     * @param k     the maximum number of places.
+     * @param best  the best places found so far.
+     */
+    private void nearest(int lo, int hi, double x, double y, double bound, int k, PriorityQueue<Integer> best) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        if (best.size() == k && bound / maxWeights[mid] >= score(best.peek(), x, y)) {
+            return;
+        }
+        best.add(mid);
+        if (best.size() > k) {
+            best.remove();
+        }
+        // Every place on the other side of the splitting line is at least as far as the line
+        double offset = horizontal[mid] ? x - xs[mid] : y - ys[mid];
+        double farBound = Math.max(bound, Math.abs(offset));
+        if (offset < 0) {
+            nearest(lo, mid, x, y, bound, k, best);
+            nearest(mid + 1, hi, x, y, farBound, k, best);
+        } else {
+            nearest(mid + 1, hi, x, y, bound, k, best);
+            nearest(lo, mid, x, y, farBound, k, best);
+        }
+    }
+
+    /**
+     * Returns every place within the given radius of the target, ordered by greatest importance.
+     *
+     * @param target the target location.
+     * @param radius the radius in meters.
+     * @return a list of every place within the radius of the target, ordered by greatest importance.
+     */
+    public List<Place> within(Point target, double radius) {
+        List<Place> result = new ArrayList<>();
+        within(0, places.length, x(target), target.getLat(), radius / METERS_PER_DEGREE, result);
+        result.sort(Comparator.comparingInt(Place::importance).reversed());
+        return result;
+    }
+
+    /**
+     * Adds every place in the given range within the given radius of the target to the result.
+     *
+     * @param lo     the first index of the range.
+     * @param hi     one more than the last index of the range.
+     * @param x      the horizontal coordinate of the target.
+     * @param y      the vertical coordinate of the target.
+     * @param radius the radius in degrees of latitude.
+     * @param result the list of places within the radius.
+     */
+    private void within(int lo, int hi, double x, double y, double radius, List<Place> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        if (Math.hypot(xs[mid] - x, ys[mid] - y) <= radius) {
+            result.add(places[mid]);
+        }
+        double offset = horizontal[mid] ? x - xs[mid] : y - ys[mid];
+        if (offset - radius <= 0) {
+            within(lo, mid, x, y, radius, result);
+        }
+        if (offset + radius >= 0) {
+            within(mid + 1, hi, x, y, radius, result);
+        }
+    }
+
+    /**
+     * Returns every place inside the given bounds, ordered by greatest importance.
+     *
+     * @param bounds the bounds, where x is longitude and y is latitude.
+     * @return a list of every place inside the bounds, ordered by greatest importance.
+     */
+    public List<Place> inside(Rectangle bounds) {
+        List<Place> result = insideUnordered(bounds);
+        result.sort(Comparator.comparingInt(Place::importance).reversed());
+        return result;
+    }
+
+    /**
+     * Returns every place inside the given bounds in no particular order, which avoids sorting places that all have
+     * the same importance, such as the locations of one name.
+     *
+     * @param bounds the bounds, where x is longitude and y is latitude.
+     * @return a list of every place inside the bounds.
+     */
+    public List<Place> insideUnordered(Rectangle bounds) {
+        List<Place> result = new ArrayList<>();
+        inside(0, places.length, bounds.getMinX() * scale, bounds.getMaxX() * scale, bounds.getMinY(),
+                bounds.getMaxY(), result);
+        return result;
+    }
+
+    /**
+     * Adds every place in the given range inside the given bounds to the result.
+     *
+     * @param lo     the first index of the range.
+     * @param hi     one more than the last index of the range.
+     * @param minX   the smallest horizontal coordinate of the bounds.
+     * @param maxX   the largest horizontal coordinate of the bounds.
+     * @param minY   the smallest vertical coordinate of the bounds.
+     * @param maxY   the largest vertical coordinate of the bounds.
+     * @param result the list of places inside the bounds.
+     */
+    private void inside(int lo, int hi, double minX, double maxX, double minY, double maxY, List<Place> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        if (minX <= xs[mid] && xs[mid] <= maxX && minY <= ys[mid] && ys[mid] <= maxY) {
+            result.add(places[mid]);
+        }
+        double split = horizontal[mid] ? xs[mid] : ys[mid];
+        if ((horizontal[mid] ? minX : minY) <= split) {
+            inside(lo, mid, minX, maxX, minY, maxY, result);
+        }
+        if ((horizontal[mid] ? maxX : maxY) >= split) {
+            inside(mid + 1, hi, minX, maxX, minY, maxY, result);
+        }
+    }
+
+    /**
+     * Returns the distance from the target to the given place divided by its importance weight.
+     *
+     * @param i the index of the place.
+     * @param x the horizontal coordinate of the target.
+     * @param y the vertical coordinate of the target.
+     * @return the distance from the target to the place divided by its importance weight.
+     */
+    private double score(int i, double x, double y) {
+        return Math.hypot(xs[i] - x, ys[i] - y) / weight(places[i].importance());
+    }
+
+    /**
+     * A named place.
+     *
+     * @param name       the name of the place.
+     * @param location   the location of the place.
+     * @param importance the importance of the place.
+     */
+    public record Place(String name, Point location, int importance) {
+    }
+}
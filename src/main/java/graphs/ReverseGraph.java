@@ -0,0 +1,132 @@
+package graphs;
+
+/**
+ * {@link IntGraph} with the same vertices as another {@link IntGraph} but with the direction of every edge reversed,
+ * stored in compressed sparse row form. A shortest path search from a vertex in the reverse graph finds the shortest
+ * paths to that vertex in the original graph. The weight of each edge is read from the original graph, so graphs with
+ * the same edges but different weights can share the reversed edges.
+ *
+ * @see IntGraph
+ * @see CompactGraph
+ */
+public class ReverseGraph implements IntGraph {
+    /**
+     * The index of the first outgoing edge from each vertex, followed by the total number of edges.
+     */
+    private final int[] firstEdges;
+    /**
+     * The index of the corresponding edge in the original graph for each edge.
+     */
+    private final int[] originalEdges;
+    /**
+     * The index of the originating vertex of each edge.
+     */
+    private final int[] froms;
+    /**
+     * The index of the destination vertex of each edge.
+     */
+    private final int[] tos;
+    /**
+     * The original graph, which has the weight of each edge.
+     */
+    private final IntGraph graph;
+
+    /**
+     * Constructs the reverse of the given graph.
+     *
+     * @param graph the original graph.
+     */
+    public ReverseGraph(IntGraph graph) {
+        int numVertices = graph.numVertices();
+        int numEdges = graph.numEdges();
+        firstEdges = new int[numVertices + 1];
+        originalEdges = new int[numEdges];
+        froms = new int[numEdges];
+        tos = new int[numEdges];
+        this.graph = graph;
+        // Count the incoming edges to each vertex, and then compute where the edges into each vertex start
+        for (int e = 0; e < numEdges; e += 1) {
+            firstEdges[graph.to(e) + 1] += 1;
+        }
+        for (int v = 0; v < numVertices; v += 1) {
+            firstEdges[v + 1] += firstEdges[v];
+        }
+        int[] next = new int[numVertices];
+        for (int v = 0; v < numVertices; v += 1) {
+            next[v] = firstEdges[v];
+        }
+        for (int e = 0; e < numEdges; e += 1) {
+            int from = graph.to(e);
+            int i = next[from];
+            next[from] += 1;
+            originalEdges[i] = e;
+            froms[i] = from;
+            tos[i] = graph.from(e);
+        }
+    }
+
+    /**
+     * Constructs the reverse of the given graph by sharing the reversed edges of the reverse of another graph with the
+     * same vertices and edges, such as the same graph with different weights.
+     *
+     * @param reverse the reverse of a graph with the same vertices and edges as the given graph.
+     * @param graph   the original graph.
+     * @throws IllegalArgumentException if the graphs have different numbers of vertices or edges.
+     */
+    public ReverseGraph(ReverseGraph reverse, IntGraph graph) {
+        if (reverse.numVertices() != graph.numVertices() || reverse.numEdges() != graph.numEdges()) {
+            throw new IllegalArgumentException("Expected " + reverse.numVertices() + " vertices and "
+                    + reverse.numEdges() + " edges but got " + graph.numVertices() + " and " + graph.numEdges());
+        }
+        firstEdges = reverse.firstEdges;
+        originalEdges = reverse.originalEdges;
+        froms = reverse.froms;
+        tos = reverse.tos;
+        this.graph = graph;
+    }
+
+    /**
+     * Returns the index of the edge in the original graph that was reversed to form the given edge.
+     *
+     * @param edge the index of the edge in this graph.
+     * @return the index of the edge in the original graph that was reversed to form the given edge.
+     */
+    public int originalEdge(int edge) {
+        return originalEdges[edge];
+    }
+
+    @Override
+    public int numVertices() {
+        return firstEdges.length - 1;
+    }
+
+    @Override
+    public int numEdges() {
+        return tos.length;
+    }
+
+    @Override
+    public int firstEdge(int vertex) {
+        return firstEdges[vertex];
+    }
+
+    @Override
+    public int endEdge(int vertex) {
+        return firstEdges[vertex + 1];
+    }
+
+    @Override
+    public int from(int edge) {
+        return froms[edge];
+    }
+
+    @Override
+    public int to(int edge) {
+        return tos[edge];
+    }
+
+    @Override
+    public double weight(int edge) {
+        return graph.weight(originalEdges[edge]);
+    }
+}
@@ -0,0 +1,292 @@
+package graphs;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A route through a {@link MapGraph} with post-processing for display and directions. The geometry can be simplified
+ * with the Douglas–Peucker algorithm, which keeps only the points that deviate from a straight line by more than a
+ * tolerance, so routes drawn at low zoom levels need far fewer points. Consecutive edges that continue in roughly the
+ * same direction are aggregated into turn-by-turn {@link Maneuver}s with their headings and cumulative distances.
+ *
+ * @see MapGraph#shortestPath(Point, Point)
+ */
+public class Route {
+    /**
+     * Number of meters per degree of distance.
+     */
+    private static final double METERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 1000;
+    /**
+     * Width in pixels of a map tile at zoom level 0, which spans 360 degrees of longitude.
+     */
+    private static final int TILE_SIZE = 512;
+    /**
+     * Largest change in heading in degrees for consecutive edges to be aggregated into the same maneuver.
+     */
+    private static final double STRAIGHT_ANGLE = 30;
+    /**
+     * Largest change in heading in degrees for a slight turn.
+     */
+    private static final double SLIGHT_ANGLE = 60;
+    /**
+     * Largest change in heading in degrees for a regular turn rather than a sharp turn.
+     */
+    private static final double TURN_ANGLE = 135;
+    private final List<Point> points;
+    private final SpatialContext context;
+
+    /**
+     * Constructs a route through the given points.
+     *
+     * @param points  the points on the route in order from start to goal.
+     * @param context the spatial context for measuring distances.
+     */
+    public Route(List<Point> points, SpatialContext context) {
+        this.points = points;
+        this.context = context;
+    }
+
+    /**
+     * Returns the points on this route in order from start to goal.
+     *
+     * @return the points on this route in order from start to goal.
+     */
+    public List<Point> points() {
+        return points;
+    }
+
+    /**
+     * Returns the total length of this route in meters.
+     *
+     * @return the total length of this route in meters.
+     */
+    public double distance() {
+        double result = 0.0;
+        for (int i = 1; i < points.size(); i += 1) {
+            result += meters(points.get(i - 1), points.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the Douglas–Peucker tolerance in degrees of latitude for drawing a route on a web map at the given zoom
+     * level, which is the size of one pixel at the given latitude.
+     *
+     * @param zoom the zoom level of the map.
+     * @param lat  the latitude at the center of the map.
+     * @return the tolerance in degrees of latitude.
+     */
+    public static double tolerance(int zoom, double lat) {
+        return 360.0 / TILE_SIZE / Math.pow(2, zoom) * Math.cos(Math.toRadians(lat));
+    }
+
+    /**
+     * Returns the points on this route simplified by the Douglas–Peucker algorithm: the start and goal are kept, and
+     * the point farthest from the line between them is kept (and the process repeated on both sides) only if its
+     * distance from the line is greater than the tolerance. Distances are measured on a plane where degrees of
+     * longitude are scaled by the cosine of the latitude of the start.
+     *
+     * @param tolerance the largest distance in degrees of latitude that a removed point can be from the line.
+     * @return the simplified points on this route in order from start to goal.
+     */
+    public List<Point> simplify(double tolerance) {
+        int n = points.size();
+        if (n <= 2) {
+            return new ArrayList<>(points);
+        }
+        double scale = Math.cos(Math.toRadians(points.get(0).getLat()));
+        boolean[] kept = new boolean[n];
+        kept[0] = true;
+        kept[n - 1] = true;
+        // Stack of ranges of points to simplify, as pairs of the first and last index in each range
+        int[] stack = new int[2 * n];
+        int size = 0;
+        stack[size] = 0;
+        stack[size + 1] = n - 1;
+        size += 2;
+        while (size > 0) {
+            size -= 2;
+            int first = stack[size];
+            int last = stack[size + 1];
+            int farthest = -1;
+            double maxDist = tolerance;
+            for (int i = first + 1; i < last; i += 1) {
+                double dist = segmentDistance(points.get(i), points.get(first), points.get(last), scale);
+                if (dist > maxDist) {
+                    farthest = i;
+                    maxDist = dist;
+                }
+            }
+            if (farthest >= 0) {
+                kept[farthest] = true;
+                stack[size] = first;
+                stack[size + 1] = farthest;
+                stack[size + 2] = farthest;
+                stack[size + 3] = last;
+                size += 4;
+            }
+        }
+        List<Point> result = new ArrayList<>();
+        for (int i = 0; i < n; i += 1) {
+            if (kept[i]) {
+                result.add(points.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the distance from the point to the line segment between a and b on a plane where degrees of longitude
+     * are multiplied by the given scale.
+     *
+     * @param p     the point.
+     * @param a     the start of the line segment.
+     * @param b     the end of the line segment.
+     * @param scale the number of degrees of latitude per degree of longitude.
+     * @return the distance in degrees of latitude from the point to the line segment.
+     */
+    private static double segmentDistance(Point p, Point a, Point b, double scale) {
+        double dx = (b.getLon() - a.getLon()) * scale;
+        double dy = b.getLat() - a.getLat();
+        double px = (p.getLon() - a.getLon()) * scale;
+        double py = p.getLat() - a.getLat();
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? Math.clamp((px * dx + py * dy) / lengthSquared, 0.0, 1.0) : 0.0;
+        return Math.hypot(px - t * dx, py - t * dy);
+    }
+
+    /**
+     * Returns the turn-by-turn maneuvers for this route. Consecutive edges whose headings differ by at most
+     * {@link #STRAIGHT_ANGLE} degrees are aggregated into a single maneuver. The first maneuver departs from the
+     * start, and the last maneuver arrives at the goal with a length of 0.
+     *
+     * @return the turn-by-turn maneuvers for this route.
+     */
+    public List<Maneuver> maneuvers() {
+        List<Maneuver> result = new ArrayList<>();
+        if (points.isEmpty()) {
+            return result;
+        }
+        Point start = points.get(0);
+        String turn = "depart";
+        double startHeading = 0.0;
+        double lastHeading = Double.NaN;
+        double distance = 0.0;
+        double length = 0.0;
+        for (int i = 1; i < points.size(); i += 1) {
+            Point from = points.get(i - 1);
+            Point to = points.get(i);
+            double meters = meters(from, to);
+            if (meters == 0) {
+                continue;
+            }
+            double heading = heading(from, to);
+            if (Double.isNaN(lastHeading)) {
+                startHeading = heading;
+            } else {
+                double change = angle(lastHeading, heading);
+                if (Math.abs(change) > STRAIGHT_ANGLE) {
+                    result.add(new Maneuver(start.getLat(), start.getLon(), turn, (int) Math.round(startHeading),
+                            distance, length));
+                    distance += length;
+                    start = from;
+                    turn = turn(change);
+                    startHeading = heading;
+                    length = 0.0;
+                }
+            }
+            length += meters;
+            lastHeading = heading;
+        }
+        if (length > 0) {
+            result.add(new Maneuver(start.getLat(), start.getLon(), turn, (int) Math.round(startHeading),
+                    distance, length));
+            distance += length;
+        }
+        Point goal = points.get(points.size() - 1);
+        int heading = Double.isNaN(lastHeading) ? 0 : (int) Math.round(lastHeading);
+        result.add(new Maneuver(goal.getLat(), goal.getLon(), "arrive", heading, distance, 0.0));
+        return result;
+    }
+
+    /**
+     * Returns the distance in meters between the two points.
+     *
+     * @param from the first point.
+     * @param to   the second point.
+     * @return the distance in meters between the two points.
+     */
+    private double meters(Point from, Point to) {
+        return context.calcDistance(from, to) * METERS_PER_DEGREE;
+    }
+
+    /**
+     * Returns the initial compass heading in degrees clockwise from north on the great circle from one point to the
+     * other.
+     *
+     * @param from the origin point.
+     * @param to   the destination point.
+     * @return the heading in degrees from 0 (inclusive) to 360 (exclusive).
+     */
+    private static double heading(Point from, Point to) {
+        double lat1 = Math.toRadians(from.getLat());
+        double lat2 = Math.toRadians(to.getLat());
+        double dLon = Math.toRadians(to.getLon() - from.getLon());
+        double y = Math.sin(dLon) * Math.cos(lat2);
+        double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(dLon);
+        double result = Math.toDegrees(Math.atan2(y, x));
+        return result < 0 ? result + 360 : result;
+    }
+
+    /**
+     * Returns the signed change in heading from one heading to another, where positive values turn right.
+     *
+     * @param from the original heading in degrees.
+     * @param to   the new heading in degrees.
+     * @return the change in heading in degrees from -180 (exclusive) to 180 (inclusive).
+     */
+    private static double angle(double from, double to) {
+        double result = (to - from) % 360;
+        if (result > 180) {
+            result -= 360;
+        } else if (result <= -180) {
+            result += 360;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of the turn for the given change in heading.
+     *
+     * @param change the change in heading in degrees, where positive values turn right.
+     * @return the name of the turn for the given change in heading.
+     */
+    private static String turn(double change) {
+        String direction = change > 0 ? "right" : "left";
+        double magnitude = Math.abs(change);
+        if (magnitude <= SLIGHT_ANGLE) {
+            return "slight " + direction;
+        } else if (magnitude <= TURN_ANGLE) {
+            return direction;
+        }
+        return "sharp " + direction;
+    }
+
+    /**
+     * A turn-by-turn instruction for following a route: at the given location, make the given turn and continue in
+     * roughly the given heading for the given length.
+     *
+     * @param lat      the latitude of the location of the maneuver.
+     * @param lon      the longitude of the location of the maneuver.
+     * @param turn     the turn to make, such as "depart", "left", "slight right", or "arrive".
+     * @param heading  the compass heading in degrees clockwise from north after the maneuver.
+     * @param distance the cumulative distance in meters from the start of the route to the maneuver.
+     * @param length   the length in meters until the next maneuver.
+     */
+    public record Maneuver(double lat, double lon, String turn, int heading, double distance, double length) {
+    }
+}
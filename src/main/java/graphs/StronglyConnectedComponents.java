@@ -0,0 +1,160 @@
+package graphs;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components of an {@link IntGraph} computed with Tarjan's algorithm. Every vertex can reach every
+ * other vertex in its component, and no vertex can reach a vertex in another component and also be reached from it.
+ * The depth-first search is iterative with an explicit stack so that long chains of vertices, such as the thousands
+ * of edges along a highway, cannot overflow the call stack. Afterwards, checking whether two vertices are in the same
+ * component takes constant time.
+ *
+ * @see IntGraph
+ */
+public class StronglyConnectedComponents {
+    /**
+     * The component of each vertex.
+     */
+    private final int[] components;
+    /**
+     * The number of vertices in each component.
+     */
+    private final int[] sizes;
+    /**
+     * The component with the most vertices, or -1 if there are no vertices.
+     */
+    private final int largest;
+
+    /**
+     * Computes the strongly connected components of the graph.
+     *
+     * @param graph the input graph.
+     */
+    public StronglyConnectedComponents(IntGraph graph) {
+        int n = graph.numVertices();
+        components = new int[n];
+        Arrays.fill(components, -1);
+        // The order in which each vertex was first visited, and the lowest order reachable from its subtree
+        int[] orders = new int[n];
+        int[] lows = new int[n];
+        Arrays.fill(orders, -1);
+        // The next outgoing edge to explore from each vertex on the depth-first search path
+        int[] nextEdges = new int[n];
+        int[] path = new int[n];
+        int depth = 0;
+        // Visited vertices not yet assigned to a component
+        int[] stack = new int[n];
+        int stackSize = 0;
+        int[] counts = new int[n];
+        int numComponents = 0;
+        int order = 0;
+        for (int root = 0; root < n; root += 1) {
+            if (orders[root] >= 0) {
+                continue;
+            }
+            orders[root] = order;
+            lows[root] = order;
+            order += 1;
+            nextEdges[root] = graph.firstEdge(root);
+            path[depth] = root;
+            depth += 1;
+            stack[stackSize] = root;
+            stackSize += 1;
+            while (depth > 0) {
+                int v = path[depth - 1];
+                if (nextEdges[v] < graph.endEdge(v)) {
+                    int w = graph.to(nextEdges[v]);
+                    nextEdges[v] += 1;
+                    if (orders[w] < 0) {
+                        orders[w] = order;
+                        lows[w] = order;
+                        order += 1;
+                        nextEdges[w] = graph.firstEdge(w);
+                        path[depth] = w;
+                        depth += 1;
+                        stack[stackSize] = w;
+                        stackSize += 1;
+                    } else if (components[w] < 0) {
+                        // w is still on the stack, so it is in the same component as v
+                        lows[v] = Math.min(lows[v], orders[w]);
+                    }
+                } else {
+                    depth -= 1;
+                    if (depth > 0) {
+                        int parent = path[depth - 1];
+                        lows[parent] = Math.min(lows[parent], lows[v]);
+                    }
+                    if (lows[v] == orders[v]) {
+                        // v is the first visited vertex of its component, which is everything above it on the stack
+                        int w;
+                        do {
+                            stackSize -= 1;
+                            w = stack[stackSize];
+                            components[w] = numComponents;
+                            counts[numComponents] += 1;
+                        } while (w != v);
+                        numComponents += 1;
+                    }
+                }
+            }
+        }
+        sizes = Arrays.copyOf(counts, numComponents);
+        int result = -1;
+        for (int c = 0; c < numComponents; c += 1) {
+            if (result < 0 || sizes[c] > sizes[result]) {
+                result = c;
+            }
+        }
+        largest = result;
+    }
+
+    /**
+     * Returns the number of components.
+     *
+     * @return the number of components.
+     */
+    public int numComponents() {
+        return sizes.length;
+    }
+
+    /**
+     * Returns the component of the given vertex.
+     *
+     * @param vertex the index of the vertex.
+     * @return the component of the given vertex, from 0 to the number of components (exclusive).
+     */
+    public int component(int vertex) {
+        return components[vertex];
+    }
+
+    /**
+     * Returns the number of vertices in the given component.
+     *
+     * @param component the component.
+     * @return the number of vertices in the given component.
+     */
+    public int size(int component) {
+        return sizes[component];
+    }
+
+    /**
+     * Returns the component with the most vertices, or -1 if there are no vertices.
+     *
+     * @return the component with the most vertices, or -1 if there are no vertices.
+     */
+    public int largest() {
+        return largest;
+    }
+
+    /**
+     * Returns true if and only if the two vertices are in the same component, which means that each can reach the
+     * other.
+     *
+     * @param u the index of the first vertex.
+     * @param v the index of the second vertex.
+     * @return true if and only if the two vertices are in the same component.
+     */
+    public boolean isConnected(int u, int v) {
+        return components[u] == components[v];
+    }
+}
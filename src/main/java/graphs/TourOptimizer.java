@@ -0,0 +1,266 @@
+package graphs;
+
+import java.util.Arrays;
+
+/**
+ * Heuristic for ordering the stops of a multi-stop route, which is an open traveling salesperson problem: the route
+ * starts at the first stop, visits every other stop once, and ends at whichever stop is visited last. The distances
+ * between stops may be asymmetric, such as on a map with one-way streets. An initial order is built by nearest
+ * insertion, which repeatedly takes the unvisited stop nearest to any visited stop and inserts it wherever it adds the
+ * least distance. The order is then improved with two kinds of local search moves until no move shortens the route or
+ * the time budget runs out:
+ * <ul>
+ *     <li>2-opt reverses the order of a range of stops, which untangles crossing legs.</li>
+ *     <li>Or-opt moves a range of up to {@link #MAX_SEGMENT} consecutive stops to another position.</li>
+ * </ul>
+ * Since distances may be asymmetric, each move is evaluated by recomputing the total distance of the route. Routes
+ * with at most {@link #MAX_EXACT_STOPS} stops are instead solved exactly with the Held-Karp dynamic program over
+ * subsets of stops, which local search can miss even for five stops.
+ */
+public class TourOptimizer {
+    /**
+     * Maximum number of consecutive stops moved together by Or-opt.
+     */
+    private static final int MAX_SEGMENT = 3;
+    /**
+     * Largest number of stops for which the best order is found exactly, which takes time proportional to 2^n n^2.
+     */
+    private static final int MAX_EXACT_STOPS = 12;
+    /**
+     * The distance from each stop to each other stop.
+     */
+    private final double[][] distances;
+    /**
+     * The current order of the stops.
+     */
+    private final int[] tour;
+    /**
+     * Temporary storage for evaluating a move.
+     */
+    private final int[] candidate;
+
+    /**
+     * Constructs a new instance for the given distances between stops.
+     *
+     * @param distances the distance from each stop to each other stop, where the first stop is the start.
+     * @throws IllegalArgumentException if the distances are not a square matrix.
+     */
+    private TourOptimizer(double[][] distances) {
+        for (double[] row : distances) {
+            if (row.length != distances.length) {
+                throw new IllegalArgumentException("Expected " + distances.length + " distances but got " + row.length);
+            }
+        }
+        this.distances = distances;
+        tour = new int[distances.length];
+        candidate = new int[distances.length];
+    }
+
+    /**
+     * Returns a short order for visiting every stop starting from the first stop. The order is improved until no
+     * local search move shortens the route or the deadline passes. If there are at most {@link #MAX_EXACT_STOPS}
+     * stops, the best order is returned regardless of the deadline.
+     *
+     * @param distances the distance from each stop to each other stop, where the first stop is the start.
+     * @param deadline  the {@link System#nanoTime()} after which the order is no longer improved.
+     * @return the indices of the stops in visiting order, starting with 0.
+     * @throws IllegalArgumentException if the distances are not a square matrix.
+     */
+    public static int[] optimize(double[][] distances, long deadline) {
+        TourOptimizer optimizer = new TourOptimizer(distances);
+        if (distances.length <= MAX_EXACT_STOPS) {
+            optimizer.solveExactly();
+            return optimizer.tour;
+        }
+        optimizer.insertNearest();
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = optimizer.twoOpt(deadline) | optimizer.orOpt(deadline);
+        }
+        return optimizer.tour;
+    }
+
+    /**
+     * Returns the total distance of visiting the stops in the given order.
+     *
+     * @param distances the distance from each stop to each other stop.
+     * @param order     the indices of the stops in visiting order.
+     * @return the total distance of visiting the stops in the given order.
+     */
+    public static double distance(double[][] distances, int[] order) {
+        double result = 0.0;
+        for (int i = 1; i < order.length; i += 1) {
+            result += distances[order[i - 1]][order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Finds the best order with the Held-Karp dynamic program, which computes the shortest route from the first stop
+     * through each subset of the other stops ending at each stop in the subset from the routes through the subset
+     * without that stop.
+     */
+    private void solveExactly() {
+        int n = distances.length;
+        if (n == 0) {
+            return;
+        }
+        // Subsets of the stops other than the first stop, where stop j is bit j - 1
+        int numSubsets = 1 << (n - 1);
+        // The distance of the shortest route through each subset ending at each stop, indexed by subset * n + stop
+        double[] costs = new double[numSubsets * n];
+        int[] previous = new int[numSubsets * n];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        for (int j = 1; j < n; j += 1) {
+            costs[(1 << (j - 1)) * n + j] = distances[0][j];
+            previous[(1 << (j - 1)) * n + j] = 0;
+        }
+        for (int subset = 1; subset < numSubsets; subset += 1) {
+            for (int j = 1; j < n; j += 1) {
+                int bit = 1 << (j - 1);
+                if ((subset & bit) == 0 || subset == bit) {
+                    continue;
+                }
+                int rest = subset ^ bit;
+                for (int i = 1; i < n; i += 1) {
+                    if ((rest & (1 << (i - 1))) != 0) {
+                        double cost = costs[rest * n + i] + distances[i][j];
+                        // Record some previous stop even if every route is infinite so that the order is complete
+                        if (previous[subset * n + j] < 0 || cost < costs[subset * n + j]) {
+                            costs[subset * n + j] = cost;
+                            previous[subset * n + j] = i;
+                        }
+                    }
+                }
+            }
+        }
+        int subset = numSubsets - 1;
+        int last = Math.min(1, n - 1);
+        for (int j = 2; j < n; j += 1) {
+            if (costs[subset * n + j] < costs[subset * n + last]) {
+                last = j;
+            }
+        }
+        tour[0] = 0;
+        for (int k = n - 1; k > 0; k -= 1) {
+            tour[k] = last;
+            int before = previous[subset * n + last];
+            subset ^= 1 << (last - 1);
+            last = before;
+        }
+    }
+
+    /**
+     * Builds the initial order by nearest insertion.
+     */
+    private void insertNearest() {
+        int n = distances.length;
+        if (n == 0) {
+            return;
+        }
+        boolean[] visited = new boolean[n];
+        // The smallest distance in either direction between each stop and any visited stop
+        double[] nearest = new double[n];
+        tour[0] = 0;
+        visited[0] = true;
+        for (int u = 0; u < n; u += 1) {
+            nearest[u] = Math.min(distances[0][u], distances[u][0]);
+        }
+        for (int size = 1; size < n; size += 1) {
+            int next = -1;
+            for (int u = 0; u < n; u += 1) {
+                if (!visited[u] && (next < 0 || nearest[u] < nearest[next])) {
+                    next = u;
+                }
+            }
+            // Appending to the end only adds the leg from the last stop
+            int position = size;
+            double bestIncrease = distances[tour[size - 1]][next];
+            for (int i = 1; i < size; i += 1) {
+                double increase = distances[tour[i - 1]][next] + distances[next][tour[i]]
+                        - distances[tour[i - 1]][tour[i]];
+                if (increase < bestIncrease) {
+                    position = i;
+                    bestIncrease = increase;
+                }
+            }
+            System.arraycopy(tour, position, tour, position + 1, size - position);
+            tour[position] = next;
+            visited[next] = true;
+            for (int u = 0; u < n; u += 1) {
+                nearest[u] = Math.min(nearest[u], Math.min(distances[next][u], distances[u][next]));
+            }
+        }
+    }
+
+    /**
+     * Applies every 2-opt move that shortens the route.
+     *
+     * @param deadline the {@link System#nanoTime()} after which no more moves are tried.
+     * @return true if and only if the route was shortened.
+     */
+    private boolean twoOpt(long deadline) {
+        int n = tour.length;
+        boolean result = false;
+        double best = distance(distances, tour);
+        for (int i = 1; i < n - 1 && System.nanoTime() < deadline; i += 1) {
+            for (int j = i + 1; j < n; j += 1) {
+                System.arraycopy(tour, 0, candidate, 0, n);
+                for (int a = i, b = j; a < b; a += 1, b -= 1) {
+                    int swap = candidate[a];
+                    candidate[a] = candidate[b];
+                    candidate[b] = swap;
+                }
+                double dist = distance(distances, candidate);
+                if (dist < best) {
+                    System.arraycopy(candidate, 0, tour, 0, n);
+                    best = dist;
+                    result = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies every Or-opt move that shortens the route.
+     *
+     * @param deadline the {@link System#nanoTime()} after which no more moves are tried.
+     * @return true if and only if the route was shortened.
+     */
+    private boolean orOpt(long deadline) {
+        int n = tour.length;
+        boolean result = false;
+        double best = distance(distances, tour);
+        for (int length = 1; length <= MAX_SEGMENT; length += 1) {
+            for (int i = 1; i + length <= n && System.nanoTime() < deadline; i += 1) {
+                // Try inserting the segment starting at i before each stop j of the rest of the route, or at the end
+                for (int j = 1; j <= n - length; j += 1) {
+                    if (j == i) {
+                        continue;
+                    }
+                    int size = 0;
+                    for (int k = 0; k <= n - length; k += 1) {
+                        if (k == j) {
+                            System.arraycopy(tour, i, candidate, size, length);
+                            size += length;
+                        }
+                        if (k < n - length) {
+                            // The kth stop of the rest of the route, skipping the segment
+                            candidate[size] = tour[k < i ? k : k + length];
+                            size += 1;
+                        }
+                    }
+                    double dist = distance(distances, candidate);
+                    if (dist < best) {
+                        System.arraycopy(candidate, 0, tour, 0, n);
+                        best = dist;
+                        result = true;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
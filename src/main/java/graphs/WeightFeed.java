@@ -0,0 +1,165 @@
+package graphs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Feed of live edge weight overrides for a {@link MapGraph}, such as road closures and congestion. The feed is read
+ * from a local file or from a TCP socket as tab-separated lines of an OSM way ID and a weight factor, where blank lines
+ * separate batches. Each batch is applied with a single call to {@link MapGraph#overrideWeights(Map)}, so routes never
+ * reflect only part of a batch. Lines starting with {@code #} are ignored. A batch with an invalid line is logged and
+ * dropped without stopping the feed, and a socket feed reconnects with exponential backoff whenever its connection
+ * fails or ends.
+ * <pre>
+ * # way_id	factor
+ * 4636201	2.5
+ * 4636259	Infinity
+ * </pre>
+ *
+ * @see MapGraph#overrideWeights(Map)
+ */
+public class WeightFeed implements Runnable {
+    private static final System.Logger LOGGER = System.getLogger(WeightFeed.class.getName());
+    /**
+     * Milliseconds to wait before the first attempt to reconnect to a socket feed.
+     */
+    private static final long MIN_BACKOFF = 1_000;
+    /**
+     * Maximum milliseconds to wait between attempts to reconnect to a socket feed.
+     */
+    private static final long MAX_BACKOFF = 60_000;
+    private final String source;
+    private final Consumer<Map<Long, Float>> overrides;
+
+    /**
+     * Constructs a feed that reads from the source and overrides the weights of the map graph.
+     *
+     * @param source the path to a local file, or a host and port separated by a colon for a TCP socket.
+     * @param map    the map graph whose weights to override.
+     */
+    public WeightFeed(String source, MapGraph map) {
+        this(source, map::overrideWeights);
+    }
+
+    /**
+     * Constructs a feed that reads from the source and passes each batch of overrides to the consumer.
+     *
+     * @param source    the path to a local file, or a host and port separated by a colon for a TCP socket.
+     * @param overrides the consumer of each batch as a {@link Map} of each OSM way ID to its new weight factor.
+     */
+    WeightFeed(String source, Consumer<Map<Long, Float>> overrides) {
+        this.source = source;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Reads the feed, applying each batch of overrides as soon as it is complete. A file is read until it ends, while
+     * a socket is read until this thread is interrupted, reconnecting after each failure or disconnect with a backoff
+     * that doubles up to {@link #MAX_BACKOFF} and resets once a connection applies a batch.
+     */
+    @Override
+    public void run() {
+        int colon = source.lastIndexOf(':');
+        if (colon <= 0 || Files.exists(Path.of(source))) {
+            try (InputStream input = Files.newInputStream(Path.of(source))) {
+                read(input, overrides);
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.ERROR, "Could not read weight feed " + source, e);
+            }
+            return;
+        }
+        String host = source.substring(0, colon);
+        int port = Integer.parseInt(source.substring(colon + 1));
+        long backoff = MIN_BACKOFF;
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Socket socket = new Socket(host, port)) {
+                if (read(socket.getInputStream(), overrides) > 0) {
+                    backoff = MIN_BACKOFF;
+                }
+                LOGGER.log(System.Logger.Level.WARNING, "Weight feed " + source + " disconnected");
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Could not read weight feed " + source, e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(2 * backoff, MAX_BACKOFF);
+        }
+    }
+
+    /**
+     * Reads the feed from the input stream until it ends, passing each complete batch of overrides to the consumer.
+     * The last batch is complete when the input stream ends even without a blank line. If a line in a batch is not a
+     * way ID and a positive factor, the line is logged and the whole batch is dropped so that it is never partially
+     * applied.
+     *
+     * @param input     the input stream of the feed.
+     * @param overrides the consumer of each batch as a {@link Map} of each OSM way ID to its new weight factor.
+     * @return the number of batches passed to the consumer.
+     * @throws IOException if the input stream cannot be read.
+     */
+    public static int read(InputStream input, Consumer<Map<Long, Float>> overrides) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<Long, Float> batch = new HashMap<>();
+        boolean valid = true;
+        int applied = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty()) {
+                if (valid && !batch.isEmpty()) {
+                    overrides.accept(batch);
+                    applied += 1;
+                }
+                batch = new HashMap<>();
+                valid = true;
+            } else if (valid && !line.startsWith("#")) {
+                try {
+                    parse(line, batch);
+                } catch (IllegalArgumentException e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Dropping weight feed batch: " + e.getMessage());
+                    valid = false;
+                }
+            }
+        }
+        if (valid && !batch.isEmpty()) {
+            overrides.accept(batch);
+            applied += 1;
+        }
+        return applied;
+    }
+
+    /**
+     * Adds the way ID and factor on the line to the batch.
+     *
+     * @param line  a line of the feed that is not blank or a comment.
+     * @param batch {@link Map} of each OSM way ID to its new weight factor in the current batch.
+     * @throws IllegalArgumentException if the line is not a way ID and a positive factor.
+     */
+    private static void parse(String line, Map<Long, Float> batch) {
+        String[] fields = line.split("\t");
+        if (fields.length != 2) {
+            throw new IllegalArgumentException("Expected a way ID and a factor: " + line);
+        }
+        try {
+            float factor = Float.parseFloat(fields[1].strip());
+            if (!(factor > 0)) {
+                throw new IllegalArgumentException("Factor must be positive: " + line);
+            }
+            batch.put(Long.parseLong(fields[0].strip()), factor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a way ID and a factor: " + line, e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package graphs;
+
+/**
+ * {@link IntAStarGraph} decorator with the same vertices, edges, and heuristic function as another graph but with
+ * edge weights from a precomputed array, so that searching with a different metric costs nothing extra per edge. The
+ * estimated distances of the original graph remain admissible and consistent as long as no weight is less than the
+ * corresponding weight in the original graph.
+ *
+ * @see IntAStarGraph
+ */
+public class WeightedGraph implements IntAStarGraph {
+    /**
+     * The original graph.
+     */
+    private final IntAStarGraph graph;
+    /**
+     * The weight of each edge.
+     */
+    private final double[] weights;
+
+    /**
+     * Constructs a new instance with the same vertices and edges as the graph but with the given weights.
+     *
+     * @param graph   the original graph.
+     * @param weights the weight of each edge, indexed by the edge indices of the original graph.
+     * @throws IllegalArgumentException if the number of weights is not the number of edges.
+     */
+    public WeightedGraph(IntAStarGraph graph, double[] weights) {
+        if (weights.length != graph.numEdges()) {
+            throw new IllegalArgumentException("Expected " + graph.numEdges() + " weights but got " + weights.length);
+        }
+        this.graph = graph;
+        this.weights = weights;
+    }
+
+    @Override
+    public int numVertices() {
+        return graph.numVertices();
+    }
+
+    @Override
+    public int numEdges() {
+        return graph.numEdges();
+    }
+
+    @Override
+    public int firstEdge(int vertex) {
+        return graph.firstEdge(vertex);
+    }
+
+    @Override
+    public int endEdge(int vertex) {
+        return graph.endEdge(vertex);
+    }
+
+    @Override
+    public int from(int edge) {
+        return graph.from(edge);
+    }
+
+    @Override
+    public int to(int edge) {
+        return graph.to(edge);
+    }
+
+    @Override
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    @Override
+    public double estimatedDistance(int start, int end) {
+        return graph.estimatedDistance(start, end);
+    }
+}
@@ -2,6 +2,7 @@ package graphs.shortestpaths;
 
 import graphs.AStarGraph;
 import graphs.Edge;
+import minpq.BucketMinPQ;
 import minpq.DoubleMapMinPQ;
 import minpq.MinPQ;
 
@@ -26,23 +27,47 @@ public class AStarSolver<V> {
      * @param goal  the goal vertex.
      */
     public AStarSolver(AStarGraph<V> graph, V start, V goal) {
+        this(graph, start, goal, new DoubleMapMinPQ<>(), 0);
+    }
+
+    /**
+     * Constructs a new instance by executing A* search on the graph from the start to the goal using the given empty
+     * perimeter. If the scale is positive, each edge weight is multiplied by the scale and rounded up to an integer,
+     * and each estimated distance is multiplied by the scale and rounded down to an integer so that it never
+     * overestimates. Priorities never decrease below the priority of the last removed vertex, so monotone integer
+     * priority queues such as {@link BucketMinPQ} can be used as the perimeter.
+     *
+     * @param graph     the input graph.
+     * @param start     the start vertex.
+     * @param goal      the goal vertex.
+     * @param perimeter the empty priority queue for the perimeter.
+     * @param scale     the number of integer units per unit of edge weight, or 0 to use the exact edge weights.
+     */
+    public AStarSolver(AStarGraph<V> graph, V start, V goal, MinPQ<V> perimeter, double scale) {
         edgeTo = new HashMap<>();
         distTo = new HashMap<>();
         this.goal = goal;
-        MinPQ<V> perimeter = new DoubleMapMinPQ<>();
         perimeter.add(start, 0.0);
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
         while (!perimeter.isEmpty()) {
+            // Only quantized priorities can drop below the priority of from, so only they need its priority
+            double fromPriority = scale > 0 ? perimeter.getPriority(perimeter.peekMin()) : 0.0;
             V from = perimeter.removeMin();
             for (Edge<V> e : graph.neighbors(from)) {
                 V to = e.to;
                 double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
-                double newDist = distTo.get(from) + e.weight;
+                double weight = scale > 0 ? Math.ceil(e.weight * scale) : e.weight;
+                double newDist = distTo.get(from) + weight;
                 if (newDist < oldDist) {
                     edgeTo.put(to, e);
                     distTo.put(to, newDist);
-                    double priority = newDist + graph.estimatedDistance(to, goal);
+                    double estimate = graph.estimatedDistance(to, goal);
+                    double priority = newDist + estimate;
+                    if (scale > 0) {
+                        // Rounding errors in the estimate could otherwise make the priority less than that of from
+                        priority = Math.max(newDist + Math.floor(estimate * scale), fromPriority);
+                    }
                     perimeter.addOrChangePriority(to, priority);
                 }
             }
@@ -0,0 +1,126 @@
+package graphs.shortestpaths;
+
+import graphs.ArcFlags;
+import graphs.IntAStarGraph;
+
+/**
+ * A* search for single-pair shortest paths in an {@link IntAStarGraph} that only relaxes the edges flagged with the
+ * cell of the goal by the given {@link ArcFlags}. Like {@link IntAStarSolver}, the state is stored in a reusable
+ * {@link SearchWorkspace}, and the search stops as soon as the goal is removed from the perimeter. The arc flags
+ * prune most of the edges leading away from the goal, while the estimated distances focus the search toward it.
+ *
+ * @see ArcFlags
+ * @see IntAStarSolver
+ */
+public class ArcFlagSolver {
+    /**
+     * The input graph.
+     */
+    private final IntAStarGraph graph;
+    /**
+     * The reusable state for each search.
+     */
+    private final SearchWorkspace workspace;
+    /**
+     * The arc flags for the graph.
+     */
+    private final ArcFlags flags;
+    /**
+     * The index of the goal vertex of the last search.
+     */
+    private int goal;
+
+    /**
+     * Constructs a new instance for the graph and its arc flags with its own workspace.
+     *
+     * @param graph the input graph.
+     * @param flags the arc flags for the graph.
+     */
+    public ArcFlagSolver(IntAStarGraph graph, ArcFlags flags) {
+        this(graph, flags, new SearchWorkspace(graph.numVertices()));
+    }
+
+    /**
+     * Constructs a new instance for the graph and its arc flags using the given workspace.
+     *
+     * @param graph     the input graph.
+     * @param flags     the arc flags for the graph.
+     * @param workspace the reusable state for each search.
+     */
+    public ArcFlagSolver(IntAStarGraph graph, ArcFlags flags, SearchWorkspace workspace) {
+        this.graph = graph;
+        this.workspace = workspace;
+        this.flags = flags;
+        this.goal = -1;
+    }
+
+    /**
+     * Executes A* search on the graph from the start to the goal using only the edges flagged with the cell of the
+     * goal, replacing the results of any previous search.
+     *
+     * @param start the index of the start vertex.
+     * @param goal  the index of the goal vertex.
+     */
+    public void solve(int start, int goal) {
+        this.goal = goal;
+        int cell = flags.cell(goal);
+        workspace.reset(graph.numVertices());
+        workspace.relax(start, 0.0, -1, graph.estimatedDistance(start, goal));
+        while (!workspace.isEmpty()) {
+            int from = workspace.removeMin();
+            if (from == goal) {
+                return;
+            }
+            double fromDist = workspace.distTo(from);
+            for (int e = graph.firstEdge(from); e < graph.endEdge(from); e += 1) {
+                if (!flags.isFlagged(e, cell)) {
+                    continue;
+                }
+                int to = graph.to(e);
+                double newDist = fromDist + graph.weight(e);
+                if (newDist < workspace.distTo(to)) {
+                    workspace.relax(to, newDist, e, newDist + graph.estimatedDistance(to, goal));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the distance from the start to the goal of the last search, or positive infinity if unreachable.
+     *
+     * @return the distance from the start to the goal, or positive infinity if unreachable.
+     */
+    public double distance() {
+        return workspace.distTo(goal);
+    }
+
+    /**
+     * Returns the single-pair shortest path from the start to the goal of the last search.
+     *
+     * @return the indices of the vertices on the shortest path.
+     */
+    public int[] solution() {
+        return workspace.path(graph, goal);
+    }
+
+    /**
+     * Traces the shortest path from the start to the goal of the last search into the reusable path buffer of the
+     * workspace, so that the vertices on the path can be read with {@link #pathVertex(int)} without allocating.
+     *
+     * @return the number of vertices on the shortest path.
+     * @see SearchWorkspace#tracePath(graphs.IntGraph, int)
+     */
+    public int tracePath() {
+        return workspace.tracePath(graph, goal);
+    }
+
+    /**
+     * Returns the vertex at the given position on the last traced path.
+     *
+     * @param i the position on the last traced path, where 0 is the start.
+     * @return the index of the vertex at the given position on the last traced path.
+     */
+    public int pathVertex(int i) {
+        return workspace.pathVertex(i);
+    }
+}
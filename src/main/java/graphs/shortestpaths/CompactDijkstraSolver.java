@@ -0,0 +1,54 @@
+package graphs.shortestpaths;
+
+import graphs.CompactGraph;
+import graphs.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dijkstra's algorithm implementation of the {@link ShortestPathSolver} interface that first copies the vertices
+ * reachable from the start into a {@link CompactGraph} and then runs an {@link IntDijkstraSolver} on the integer
+ * indices of the vertices.
+ *
+ * @param <V> the type of vertices.
+ * @see ShortestPathSolver
+ * @see CompactGraph
+ * @see IntDijkstraSolver
+ */
+public class CompactDijkstraSolver<V> implements ShortestPathSolver<V> {
+    /**
+     * The vertices reachable from the start.
+     */
+    private final CompactGraph<V> graph;
+    /**
+     * The solver for the integer indices of the vertices.
+     */
+    private final IntDijkstraSolver solver;
+
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     */
+    public CompactDijkstraSolver(Graph<V> graph, V start) {
+        this.graph = new CompactGraph<>(graph, List.of(start));
+        solver = new IntDijkstraSolver(this.graph);
+        solver.solve(this.graph.indexOf(start));
+    }
+
+    @Override
+    public List<V> solution(V goal) {
+        List<V> path = new ArrayList<>();
+        int index = graph.indexOf(goal);
+        if (index < 0) {
+            path.add(goal);
+            return path;
+        }
+        for (int vertex : solver.solution(index)) {
+            path.add(graph.vertex(vertex));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,162 @@
+package graphs.shortestpaths;
+
+import graphs.Edge;
+import graphs.Graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Delta-stepping implementation of the {@link ShortestPathSolver} interface. Vertices are grouped into buckets of
+ * width delta by their distance from the start. Buckets are processed in order like Dijkstra's algorithm, but all
+ * vertices in the same bucket are processed in parallel like the Bellman-Ford algorithm. Light edges (with weight at
+ * most delta) can add vertices back into the current bucket, so they are relaxed repeatedly until the bucket is empty.
+ * Heavy edges can only add vertices to later buckets, so they are relaxed once after the bucket is empty. Edge weights
+ * must be non-negative, and the graph must be safe to access from multiple threads.
+ *
+ * @param <V> the type of vertices.
+ * @see ShortestPathSolver
+ */
+public class DeltaSteppingSolver<V> implements ShortestPathSolver<V> {
+    private final Map<V, Edge<V>> edgeTo;
+    private final Map<V, Double> distTo;
+    /**
+     * The width of each bucket.
+     */
+    private final double delta;
+    /**
+     * {@link NavigableMap} of bucket indices to the vertices that were added to that bucket. A vertex whose distance
+     * later decreased may remain in an earlier bucket, so vertices are checked against their current bucket before
+     * being processed.
+     */
+    private final NavigableMap<Long, Set<V>> buckets;
+
+    /**
+     * Constructs a new instance by executing delta-stepping on the graph from the start using the common fork/join pool
+     * and a delta equal to the mean weight of the outgoing edges from the start.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     */
+    public DeltaSteppingSolver(Graph<V> graph, V start) {
+        this(graph, start, meanWeight(graph.neighbors(start)), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new instance by executing delta-stepping on the graph from the start using the given fork/join
+     * pool. A smaller delta means less redundant work but fewer vertices to process in parallel in each bucket.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     * @param delta the width of each bucket.
+     * @param pool  the fork/join pool for relaxing edges in parallel.
+     * @throws IllegalArgumentException if delta is not positive.
+     */
+    public DeltaSteppingSolver(Graph<V> graph, V start, double delta, ForkJoinPool pool) {
+        if (!(delta > 0)) {
+            throw new IllegalArgumentException("Delta must be positive: " + delta);
+        }
+        edgeTo = new ConcurrentHashMap<>();
+        distTo = new ConcurrentHashMap<>();
+        this.delta = delta;
+        buckets = new ConcurrentSkipListMap<>();
+        distTo.put(start, 0.0);
+        bucketOf(0.0).add(start);
+        while (!buckets.isEmpty()) {
+            long i = buckets.firstKey();
+            // Every vertex removed from the current bucket, whose outgoing heavy edges still need relaxing
+            Set<V> removed = new HashSet<>();
+            Set<V> bucket = buckets.remove(i);
+            while (bucket != null) {
+                List<V> frontier = new ArrayList<>(bucket.size());
+                for (V vertex : bucket) {
+                    if (index(distTo.get(vertex)) == i) {
+                        frontier.add(vertex);
+                    }
+                }
+                removed.addAll(frontier);
+                pool.submit(() -> frontier.parallelStream().forEach(from -> relax(graph, from, true))).join();
+                bucket = buckets.remove(i);
+            }
+            pool.submit(() -> removed.parallelStream().forEach(from -> relax(graph, from, false))).join();
+        }
+    }
+
+    @Override
+    public List<V> solution(V goal) {
+        List<V> path = new ArrayList<>();
+        V curr = goal;
+        path.add(curr);
+        while (edgeTo.get(curr) != null) {
+            curr = edgeTo.get(curr).from;
+            path.add(curr);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Relaxes either the light or the heavy outgoing edges from the given vertex.
+     *
+     * @param graph the input graph.
+     * @param from  the vertex whose outgoing edges should be relaxed.
+     * @param light true to relax the edges with weight at most delta, or false to relax the heavier edges.
+     */
+    private void relax(Graph<V> graph, V from, boolean light) {
+        double fromDist = distTo.get(from);
+        for (Edge<V> e : graph.neighbors(from)) {
+            if ((e.weight <= delta) == light) {
+                V to = e.to;
+                Double newDist = fromDist + e.weight;
+                // Atomically compare and update the distance and edge to the vertex
+                Double result = distTo.compute(to, (v, oldDist) -> {
+                    if (oldDist == null || newDist < oldDist) {
+                        edgeTo.put(v, e);
+                        return newDist;
+                    }
+                    return oldDist;
+                });
+                // Compare identities since only this call could have stored this exact object
+                if (result == newDist) {
+                    bucketOf(newDist).add(to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the bucket for the given distance, creating it if it does not exist yet.
+     *
+     * @param dist the distance from the start.
+     * @return the bucket for the given distance.
+     */
+    private Set<V> bucketOf(double dist) {
+        return buckets.computeIfAbsent(index(dist), i -> ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Returns the index of the bucket for the given distance.
+     *
+     * @param dist the distance from the start.
+     * @return the index of the bucket for the given distance.
+     */
+    private long index(double dist) {
+        return (long) Math.floor(dist / delta);
+    }
+
+    /**
+     * Returns the mean weight of the given edges, or 1 if there are no edges with positive weight.
+     *
+     * @param edges the edges.
+     * @return the mean weight of the given edges, or 1 if there are no edges with positive weight.
+     */
+    private static <V> double meanWeight(List<Edge<V>> edges) {
+        double total = 0.0;
+        for (Edge<V> e : edges) {
+            total += e.weight;
+        }
+        return total > 0 ? total / edges.size() : 1.0;
+    }
+}
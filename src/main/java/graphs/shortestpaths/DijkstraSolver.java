@@ -2,6 +2,7 @@ package graphs.shortestpaths;
 
 import graphs.Edge;
 import graphs.Graph;
+import minpq.BucketMinPQ;
 import minpq.DoubleMapMinPQ;
 import minpq.MinPQ;
 
@@ -24,9 +25,22 @@ public class DijkstraSolver<V> implements ShortestPathSolver<V> {
      * @param start the start vertex.
      */
     public DijkstraSolver(Graph<V> graph, V start) {
+        this(graph, start, new DoubleMapMinPQ<>(), 0);
+    }
+
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start using the given empty
+     * perimeter. If the scale is positive, each edge weight is multiplied by the scale and rounded up to an integer so
+     * that monotone integer priority queues such as {@link BucketMinPQ} can be used as the perimeter.
+     *
+     * @param graph     the input graph.
+     * @param start     the start vertex.
+     * @param perimeter the empty priority queue for the perimeter.
+     * @param scale     the number of integer units per unit of edge weight, or 0 to use the exact edge weights.
+     */
+    public DijkstraSolver(Graph<V> graph, V start, MinPQ<V> perimeter, double scale) {
         edgeTo = new HashMap<>();
         distTo = new HashMap<>();
-        MinPQ<V> perimeter = new DoubleMapMinPQ<>();
         perimeter.add(start, 0.0);
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
@@ -35,7 +49,8 @@ public class DijkstraSolver<V> implements ShortestPathSolver<V> {
             for (Edge<V> e : graph.neighbors(from)) {
                 V to = e.to;
                 double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
-                double newDist = distTo.get(from) + e.weight;
+                double weight = scale > 0 ? Math.ceil(e.weight * scale) : e.weight;
+                double newDist = distTo.get(from) + weight;
                 if (newDist < oldDist) {
                     edgeTo.put(to, e);
                     distTo.put(to, newDist);
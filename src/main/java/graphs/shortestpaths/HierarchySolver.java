@@ -0,0 +1,269 @@
+package graphs.shortestpaths;
+
+import graphs.CustomizableHierarchy;
+
+import java.util.Arrays;
+
+/**
+ * Single-pair shortest path queries on a {@link CustomizableHierarchy.Metric}. Every vertex reachable from a vertex by
+ * following upward arcs is an ancestor of that vertex in the elimination tree of the hierarchy, so the forward search
+ * simply scans the ancestors of the start in order with the upward weights, and the backward search scans the
+ * ancestors of the goal in order with the downward weights. No priority queue is needed, and the shortest path passes
+ * through the common ancestor with the smallest sum of forward and backward distances. The path of arcs is then
+ * unpacked into the vertices of the original graph by recursively replacing each shortcut with its lower triangle.
+ * <p>
+ * The same instance can be reused to solve with any metric of its hierarchy, and only allocates when the path buffer
+ * must grow to fit a longer path. Vertices are identified by their indices in the original graph.
+ *
+ * @see CustomizableHierarchy
+ */
+public class HierarchySolver {
+    /**
+     * The input hierarchy.
+     */
+    private final CustomizableHierarchy hierarchy;
+    /**
+     * The distance from the start to each rank, or positive infinity if not yet reached.
+     */
+    private final float[] forward;
+    /**
+     * The distance from each rank to the goal, or positive infinity if not yet reached.
+     */
+    private final float[] backward;
+    /**
+     * The arc used to reach each rank in the forward search.
+     */
+    private final int[] forwardArcs;
+    /**
+     * The arc used to reach each rank in the backward search.
+     */
+    private final int[] backwardArcs;
+    /**
+     * The metric of the last search.
+     */
+    private CustomizableHierarchy.Metric metric;
+    /**
+     * The rank of the start of the last search.
+     */
+    private int start;
+    /**
+     * The rank of the goal of the last search.
+     */
+    private int goal;
+    /**
+     * The rank where the forward and backward shortest paths of the last search meet, or -1 if unreachable.
+     */
+    private int meet;
+    /**
+     * The distance from the start to the goal of the last search.
+     */
+    private float distance;
+    /**
+     * The arcs on the shortest path of the last search, each shifted left by one bit with the lowest bit set if the
+     * arc is traversed downward.
+     */
+    private int[] hops;
+    /**
+     * The number of arcs on the shortest path of the last search.
+     */
+    private int numHops;
+    /**
+     * The reusable buffer for the last traced path.
+     */
+    private int[] path;
+    /**
+     * The number of vertices on the last traced path.
+     */
+    private int pathLength;
+
+    /**
+     * Constructs a new instance for the hierarchy.
+     *
+     * @param hierarchy the input hierarchy.
+     */
+    public HierarchySolver(CustomizableHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        int n = hierarchy.numVertices();
+        forward = new float[n];
+        backward = new float[n];
+        forwardArcs = new int[n];
+        backwardArcs = new int[n];
+        Arrays.fill(forward, Float.POSITIVE_INFINITY);
+        Arrays.fill(backward, Float.POSITIVE_INFINITY);
+        hops = new int[16];
+        path = new int[16];
+        meet = -1;
+    }
+
+    /**
+     * Finds the shortest path in the metric from the start to the goal, replacing the results of any previous search.
+     *
+     * @param metric the metric, which must be customized from the hierarchy of this solver.
+     * @param start  the index of the start vertex.
+     * @param goal   the index of the goal vertex.
+     * @throws IllegalArgumentException if the metric belongs to a different hierarchy.
+     */
+    public void solve(CustomizableHierarchy.Metric metric, int start, int goal) {
+        if (metric.hierarchy() != hierarchy) {
+            throw new IllegalArgumentException("Metric belongs to a different hierarchy");
+        }
+        this.metric = metric;
+        this.start = hierarchy.rank(start);
+        this.goal = hierarchy.rank(goal);
+        forward[this.start] = 0;
+        forwardArcs[this.start] = -1;
+        for (int v = this.start; v >= 0; v = hierarchy.parent(v)) {
+            float dist = forward[v];
+            if (dist < Float.POSITIVE_INFINITY) {
+                for (int arc = hierarchy.firstArc(v); arc < hierarchy.endArc(v); arc += 1) {
+                    int to = hierarchy.head(arc);
+                    float newDist = dist + metric.upWeight(arc);
+                    if (newDist < forward[to]) {
+                        forward[to] = newDist;
+                        forwardArcs[to] = arc;
+                    }
+                }
+            }
+        }
+        backward[this.goal] = 0;
+        backwardArcs[this.goal] = -1;
+        distance = Float.POSITIVE_INFINITY;
+        meet = -1;
+        for (int v = this.goal; v >= 0; v = hierarchy.parent(v)) {
+            float dist = backward[v];
+            if (dist < Float.POSITIVE_INFINITY) {
+                if (forward[v] + dist < distance) {
+                    distance = forward[v] + dist;
+                    meet = v;
+                }
+                for (int arc = hierarchy.firstArc(v); arc < hierarchy.endArc(v); arc += 1) {
+                    int from = hierarchy.head(arc);
+                    float newDist = dist + metric.downWeight(arc);
+                    if (newDist < backward[from]) {
+                        backward[from] = newDist;
+                        backwardArcs[from] = arc;
+                    }
+                }
+            }
+        }
+        numHops = 0;
+        if (meet >= 0) {
+            // Collect the forward arcs from the meeting rank back to the start, then reverse them
+            for (int v = meet; forwardArcs[v] >= 0; v = hierarchy.tail(forwardArcs[v])) {
+                addHop(forwardArcs[v] << 1);
+            }
+            for (int i = 0, j = numHops - 1; i < j; i += 1, j -= 1) {
+                int swap = hops[i];
+                hops[i] = hops[j];
+                hops[j] = swap;
+            }
+            for (int v = meet; backwardArcs[v] >= 0; v = hierarchy.tail(backwardArcs[v])) {
+                addHop(backwardArcs[v] << 1 | 1);
+            }
+        }
+        // Only the ancestors of the start and the goal were reached, so clearing them resets the search
+        for (int v = this.start; v >= 0; v = hierarchy.parent(v)) {
+            forward[v] = Float.POSITIVE_INFINITY;
+        }
+        for (int v = this.goal; v >= 0; v = hierarchy.parent(v)) {
+            backward[v] = Float.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Appends the hop to the arcs on the shortest path, growing the buffer if needed.
+     *
+     * @param hop the arc shifted left by one bit with the lowest bit set if the arc is traversed downward.
+     */
+    private void addHop(int hop) {
+        if (numHops == hops.length) {
+            hops = Arrays.copyOf(hops, 2 * numHops);
+        }
+        hops[numHops] = hop;
+        numHops += 1;
+    }
+
+    /**
+     * Returns the distance from the start to the goal of the last search, or positive infinity if unreachable.
+     *
+     * @return the distance from the start to the goal, or positive infinity if unreachable.
+     */
+    public double distance() {
+        return distance;
+    }
+
+    /**
+     * Returns the single-pair shortest path from the start to the goal of the last search.
+     *
+     * @return the indices of the vertices on the shortest path.
+     */
+    public int[] solution() {
+        int length = tracePath();
+        return Arrays.copyOf(path, length);
+    }
+
+    /**
+     * Unpacks the shortest path from the start to the goal of the last search into the reusable path buffer, so that
+     * the vertices on the path can be read with {@link #pathVertex(int)} without allocating. If the goal is
+     * unreachable, the path contains only the goal.
+     *
+     * @return the number of vertices on the shortest path.
+     */
+    public int tracePath() {
+        pathLength = 0;
+        if (meet < 0) {
+            addVertex(goal);
+            return pathLength;
+        }
+        addVertex(start);
+        for (int i = 0; i < numHops; i += 1) {
+            unpack(hops[i] >>> 1, (hops[i] & 1) == 0);
+        }
+        return pathLength;
+    }
+
+    /**
+     * Appends the vertices after the first vertex of the given arc to the path by recursively replacing each shortcut
+     * with the two arcs of its lower triangle.
+     *
+     * @param arc    the index of the arc.
+     * @param upward true if the arc is traversed from its lower rank to its higher rank, or false for the other.
+     */
+    private void unpack(int arc, boolean upward) {
+        int lower = hierarchy.tail(arc);
+        int higher = hierarchy.head(arc);
+        int via = metric.via(arc, upward);
+        if (via < 0) {
+            addVertex(upward ? higher : lower);
+        } else if (upward) {
+            unpack(hierarchy.findArc(via, lower), false);
+            unpack(hierarchy.findArc(via, higher), true);
+        } else {
+            unpack(hierarchy.findArc(via, higher), false);
+            unpack(hierarchy.findArc(via, lower), true);
+        }
+    }
+
+    /**
+     * Appends the vertex with the given rank to the path, growing the buffer if needed.
+     *
+     * @param rank the rank of the vertex.
+     */
+    private void addVertex(int rank) {
+        if (pathLength == path.length) {
+            path = Arrays.copyOf(path, 2 * pathLength);
+        }
+        path[pathLength] = hierarchy.vertex(rank);
+        pathLength += 1;
+    }
+
+    /**
+     * Returns the vertex at the given position on the last traced path.
+     *
+     * @param i the position on the last traced path, where 0 is the start.
+     * @return the index of the vertex at the given position on the last traced path.
+     */
+    public int pathVertex(int i) {
+        return path[i];
+    }
+}
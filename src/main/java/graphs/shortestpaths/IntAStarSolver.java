@@ -0,0 +1,116 @@
+package graphs.shortestpaths;
+
+import graphs.IntAStarGraph;
+
+/**
+ * A* search for single-pair shortest paths in an {@link IntAStarGraph}. Unlike {@link AStarSolver}, the distance to
+ * and the edge to each vertex are stored in the primitive arrays of a {@link SearchWorkspace} rather than in maps, so
+ * relaxing an edge neither boxes a distance nor hashes a vertex. The same instance can be reused to solve between
+ * different vertices, which only allocates when the workspace must grow to fit the graph. The search stops as soon as
+ * the goal is removed from the perimeter, so the estimated distances must be consistent: the estimate from a vertex
+ * must never exceed the weight of an edge to a neighbor plus the estimate from that neighbor.
+ *
+ * @see IntAStarGraph
+ * @see SearchWorkspace
+ * @see AStarSolver
+ */
+public class IntAStarSolver {
+    /**
+     * The input graph.
+     */
+    private final IntAStarGraph graph;
+    /**
+     * The reusable state for each search.
+     */
+    private final SearchWorkspace workspace;
+    /**
+     * The index of the goal vertex of the last search.
+     */
+    private int goal;
+
+    /**
+     * Constructs a new instance for the graph with its own workspace.
+     *
+     * @param graph the input graph.
+     */
+    public IntAStarSolver(IntAStarGraph graph) {
+        this(graph, new SearchWorkspace(graph.numVertices()));
+    }
+
+    /**
+     * Constructs a new instance for the graph using the given workspace.
+     *
+     * @param graph     the input graph.
+     * @param workspace the reusable state for each search.
+     */
+    public IntAStarSolver(IntAStarGraph graph, SearchWorkspace workspace) {
+        this.graph = graph;
+        this.workspace = workspace;
+        this.goal = -1;
+    }
+
+    /**
+     * Executes A* search on the graph from the start to the goal, replacing the results of any previous search.
+     *
+     * @param start the index of the start vertex.
+     * @param goal  the index of the goal vertex.
+     */
+    public void solve(int start, int goal) {
+        this.goal = goal;
+        workspace.reset(graph.numVertices());
+        workspace.relax(start, 0.0, -1, graph.estimatedDistance(start, goal));
+        while (!workspace.isEmpty()) {
+            int from = workspace.removeMin();
+            if (from == goal) {
+                return;
+            }
+            double fromDist = workspace.distTo(from);
+            for (int e = graph.firstEdge(from); e < graph.endEdge(from); e += 1) {
+                int to = graph.to(e);
+                double newDist = fromDist + graph.weight(e);
+                if (newDist < workspace.distTo(to)) {
+                    workspace.relax(to, newDist, e, newDist + graph.estimatedDistance(to, goal));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the distance from the start to the goal of the last search, or positive infinity if unreachable.
+     *
+     * @return the distance from the start to the goal, or positive infinity if unreachable.
+     */
+    public double distance() {
+        return workspace.distTo(goal);
+    }
+
+    /**
+     * Returns the single-pair shortest path from the start to the goal of the last search.
+     *
+     * @return the indices of the vertices on the shortest path.
+     */
+    public int[] solution() {
+        return workspace.path(graph, goal);
+    }
+
+    /**
+     * Traces the shortest path from the start to the goal of the last search into the reusable path buffer of the
+     * workspace, so that the vertices on the path can be read with {@link #pathVertex(int)} without allocating.
+     *
+     * @return the number of vertices on the shortest path.
+     * @see SearchWorkspace#tracePath(graphs.IntGraph, int)
+     */
+    public int tracePath() {
+        return workspace.tracePath(graph, goal);
+    }
+
+    /**
+     * Returns the vertex at the given position on the last traced path.
+     *
+     * @param i the position on the last traced path, where 0 is the start.
+     * @return the index of the vertex at the given position on the last traced path.
+     */
+    public int pathVertex(int i) {
+        return workspace.pathVertex(i);
+    }
+}
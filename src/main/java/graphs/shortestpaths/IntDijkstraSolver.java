@@ -0,0 +1,143 @@
+package graphs.shortestpaths;
+
+import graphs.IntGraph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm for single-source shortest paths in an {@link IntGraph}. Unlike {@link DijkstraSolver}, the
+ * distance to and the edge to each vertex are stored in the primitive arrays of a {@link SearchWorkspace} rather than
+ * in maps, so relaxing an edge neither boxes a distance nor hashes a vertex. The same instance can be reused to solve
+ * from different start vertices, which only allocates when the workspace must grow to fit the graph.
+ *
+ * @see IntGraph
+ * @see SearchWorkspace
+ * @see DijkstraSolver
+ */
+public class IntDijkstraSolver {
+    /**
+     * The input graph.
+     */
+    private final IntGraph graph;
+    /**
+     * The reusable state for each search.
+     */
+    private final SearchWorkspace workspace;
+
+    /**
+     * Constructs a new instance for the graph with its own workspace.
+     *
+     * @param graph the input graph.
+     */
+    public IntDijkstraSolver(IntGraph graph) {
+        this(graph, new SearchWorkspace(graph.numVertices()));
+    }
+
+    /**
+     * Constructs a new instance for the graph using the given workspace.
+     *
+     * @param graph     the input graph.
+     * @param workspace the reusable state for each search.
+     */
+    public IntDijkstraSolver(IntGraph graph, SearchWorkspace workspace) {
+        this.graph = graph;
+        this.workspace = workspace;
+    }
+
+    /**
+     * Executes Dijkstra's algorithm on the graph from the start, replacing the results of any previous search.
+     *
+     * @param start the index of the start vertex.
+     */
+    public void solve(int start) {
+        workspace.reset(graph.numVertices());
+        workspace.relax(start, 0.0, -1, 0.0);
+        while (!workspace.isEmpty()) {
+            int from = workspace.removeMin();
+            double fromDist = workspace.distTo(from);
+            for (int e = graph.firstEdge(from); e < graph.endEdge(from); e += 1) {
+                int to = graph.to(e);
+                double newDist = fromDist + graph.weight(e);
+                if (newDist < workspace.distTo(to)) {
+                    workspace.relax(to, newDist, e, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes Dijkstra's algorithm on the graph from the start until the distance to every target is final, replacing
+     * the results of any previous search. Only the distances to the targets and to vertices closer than the farthest
+     * target are guaranteed to be shortest path distances.
+     *
+     * @param start   the index of the start vertex.
+     * @param targets the indices of the target vertices.
+     */
+    public void solve(int start, int[] targets) {
+        solve(start, targets, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Executes Dijkstra's algorithm on the graph from the start until the distance to every target is final or every
+     * remaining vertex is farther than the maximum distance, replacing the results of any previous search. Only the
+     * distances to the targets that are at most the maximum distance are guaranteed to be shortest path distances.
+     *
+     * @param start       the index of the start vertex.
+     * @param targets     the indices of the target vertices.
+     * @param maxDistance the maximum distance from the start to search.
+     */
+    public void solve(int start, int[] targets, double maxDistance) {
+        int[] sorted = Arrays.stream(targets).sorted().distinct().toArray();
+        int remaining = sorted.length;
+        workspace.reset(graph.numVertices());
+        workspace.relax(start, 0.0, -1, 0.0);
+        while (!workspace.isEmpty() && remaining > 0) {
+            int from = workspace.removeMin();
+            if (workspace.distTo(from) > maxDistance) {
+                return;
+            }
+            if (Arrays.binarySearch(sorted, from) >= 0) {
+                remaining -= 1;
+            }
+            double fromDist = workspace.distTo(from);
+            for (int e = graph.firstEdge(from); e < graph.endEdge(from); e += 1) {
+                int to = graph.to(e);
+                double newDist = fromDist + graph.weight(e);
+                if (newDist < workspace.distTo(to)) {
+                    workspace.relax(to, newDist, e, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the distance from the start to the given vertex in the last search, or positive infinity if unreachable.
+     *
+     * @param vertex the index of the vertex.
+     * @return the distance from the start to the given vertex, or positive infinity if unreachable.
+     */
+    public double distTo(int vertex) {
+        return workspace.distTo(vertex);
+    }
+
+    /**
+     * Returns the index of the last edge on the shortest path from the start to the given vertex in the last search, or
+     * -1 if the vertex is the start or unreachable.
+     *
+     * @param vertex the index of the vertex.
+     * @return the index of the last edge on the shortest path to the given vertex, or -1 if there is no such edge.
+     */
+    public int edgeTo(int vertex) {
+        return workspace.edgeTo(vertex);
+    }
+
+    /**
+     * Returns the single-pair shortest path from the start of the last search to the goal.
+     *
+     * @param goal the index of the goal vertex.
+     * @return the indices of the vertices on the shortest path.
+     */
+    public int[] solution(int goal) {
+        return workspace.path(graph, goal);
+    }
+}
@@ -0,0 +1,201 @@
+package graphs.shortestpaths;
+
+import graphs.IntGraph;
+import graphs.ReverseGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Alternative routes in an {@link IntGraph} with the plateau method. A forward shortest path tree is computed from the
+ * start and a backward shortest path tree is computed to the goal, both with {@link IntDijkstraSolver}. A plateau is a
+ * maximal path whose edges are in both trees, so every plateau from a to b gives a route that follows the forward tree
+ * from the start to a, the plateau to b, and the backward tree from b to the goal. The shortest path itself is the
+ * plateau from the start to the goal. Long plateaus are segments where a detour is locally optimal, so routes are
+ * ranked by their cost minus the length of their plateau, and a route is only accepted if:
+ * <ul>
+ *     <li>its cost is at most the maximum stretch times the cost of the shortest path,</li>
+ *     <li>it does not visit any vertex twice, and</li>
+ *     <li>the fraction of its cost along edges of previously-accepted routes is at most the maximum overlap.</li>
+ * </ul>
+ *
+ * @see IntDijkstraSolver
+ * @see ReverseGraph
+ */
+public class PlateauSolver {
+    /**
+     * The input graph.
+     */
+    private final IntGraph graph;
+    /**
+     * The reverse of the input graph.
+     */
+    private final ReverseGraph reverse;
+    /**
+     * The search from the start.
+     */
+    private final IntDijkstraSolver forward;
+    /**
+     * The search to the goal on the reverse graph.
+     */
+    private final IntDijkstraSolver backward;
+
+    /**
+     * Constructs a new instance for the graph using the given workspaces, which must be different.
+     *
+     * @param graph             the input graph.
+     * @param reverse           the reverse of the input graph.
+     * @param forwardWorkspace  the reusable state for the search from the start.
+     * @param backwardWorkspace the reusable state for the search to the goal.
+     */
+    public PlateauSolver(IntGraph graph, ReverseGraph reverse, SearchWorkspace forwardWorkspace,
+                         SearchWorkspace backwardWorkspace) {
+        this.graph = graph;
+        this.reverse = reverse;
+        this.forward = new IntDijkstraSolver(graph, forwardWorkspace);
+        this.backward = new IntDijkstraSolver(reverse, backwardWorkspace);
+    }
+
+    /**
+     * Returns up to k routes from the start to the goal, starting with the shortest path. If the goal is unreachable,
+     * returns a single route containing only the goal. Once the deadline passes, no more routes are considered.
+     *
+     * @param start      the index of the start vertex.
+     * @param goal       the index of the goal vertex.
+     * @param k          the maximum number of routes.
+     * @param maxStretch the largest ratio of the cost of a route to the cost of the shortest path.
+     * @param maxOverlap the largest fraction of the cost of a route along edges of previously-accepted routes.
+     * @param deadline   the {@link System#nanoTime()} after which no more routes are considered.
+     * @return a list of up to k routes, each given by the indices of the vertices on the route.
+     */
+    public List<int[]> solve(int start, int goal, int k, double maxStretch, double maxOverlap, long deadline) {
+        forward.solve(start);
+        double shortest = forward.distTo(goal);
+        List<int[]> result = new ArrayList<>();
+        if (shortest == Double.POSITIVE_INFINITY) {
+            result.add(new int[]{goal});
+            return result;
+        }
+        backward.solve(goal);
+
+        // Find the first vertex of every plateau with a low enough cost
+        List<int[]> plateaus = new ArrayList<>();
+        for (int a = 0; a < graph.numVertices(); a += 1) {
+            double cost = forward.distTo(a) + backward.distTo(a);
+            if (cost <= maxStretch * shortest && nextPlateauEdge(a) >= 0 && previousPlateauEdge(a) < 0) {
+                int b = a;
+                for (int e = nextPlateauEdge(b); e >= 0; e = nextPlateauEdge(b)) {
+                    b = graph.to(e);
+                }
+                plateaus.add(new int[]{a, b});
+            }
+        }
+        // The cost of a route minus the length of its plateau is the cost of the parts outside the plateau
+        plateaus.sort(Comparator.comparingDouble(plateau -> forward.distTo(plateau[0]) + backward.distTo(plateau[1])));
+        // The shortest path in the forward tree always comes first, even if ties split it into several plateaus
+        plateaus.addFirst(new int[]{goal, goal});
+
+        BitSet accepted = new BitSet(graph.numEdges());
+        BitSet visited = new BitSet(graph.numVertices());
+        for (int[] plateau : plateaus) {
+            if (result.size() == k || (!result.isEmpty() && System.nanoTime() > deadline)) {
+                break;
+            }
+            int[] edges = route(plateau[0]);
+            double cost = 0.0;
+            double shared = 0.0;
+            boolean simple = true;
+            visited.clear();
+            visited.set(start);
+            for (int e : edges) {
+                cost += graph.weight(e);
+                if (accepted.get(e)) {
+                    shared += graph.weight(e);
+                }
+                if (visited.get(graph.to(e))) {
+                    simple = false;
+                }
+                visited.set(graph.to(e));
+            }
+            if (simple && (result.isEmpty() || shared <= maxOverlap * cost)) {
+                int[] vertices = new int[edges.length + 1];
+                vertices[0] = start;
+                for (int i = 0; i < edges.length; i += 1) {
+                    accepted.set(edges[i]);
+                    vertices[i + 1] = graph.to(edges[i]);
+                }
+                result.add(vertices);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the edges of the route that follows the forward tree from the start to a, and then the backward tree
+     * from a to the goal, which passes through the entire plateau starting at a.
+     *
+     * @param a the first vertex of the plateau.
+     * @return the indices of the edges on the route in order.
+     */
+    private int[] route(int a) {
+        int[] result = new int[16];
+        int size = 0;
+        // The forward tree gives the edges from a back to the start, so add them in reverse
+        for (int e = forward.edgeTo(a); e >= 0; e = forward.edgeTo(graph.from(e))) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, 2 * size);
+            }
+            result[size] = e;
+            size += 1;
+        }
+        for (int i = 0, j = size - 1; i < j; i += 1, j -= 1) {
+            int swap = result[i];
+            result[i] = result[j];
+            result[j] = swap;
+        }
+        // The backward tree gives the edges from a through the plateau and onward to the goal
+        for (int v = a; backward.edgeTo(v) >= 0; v = reverse.from(backward.edgeTo(v))) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, 2 * size);
+            }
+            result[size] = reverse.originalEdge(backward.edgeTo(v));
+            size += 1;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Returns the edge from the vertex toward the goal in the backward tree if it is also in the forward tree, or -1
+     * if there is no such edge.
+     *
+     * @param vertex the index of the vertex.
+     * @return the index of the plateau edge from the vertex, or -1 if there is no such edge.
+     */
+    private int nextPlateauEdge(int vertex) {
+        int edge = backward.edgeTo(vertex);
+        if (edge < 0) {
+            return -1;
+        }
+        int e = reverse.originalEdge(edge);
+        return forward.edgeTo(graph.to(e)) == e ? e : -1;
+    }
+
+    /**
+     * Returns the edge into the vertex from the start in the forward tree if it is also in the backward tree, or -1 if
+     * there is no such edge.
+     *
+     * @param vertex the index of the vertex.
+     * @return the index of the plateau edge into the vertex, or -1 if there is no such edge.
+     */
+    private int previousPlateauEdge(int vertex) {
+        int e = forward.edgeTo(vertex);
+        if (e < 0) {
+            return -1;
+        }
+        int edge = backward.edgeTo(graph.from(e));
+        return edge >= 0 && reverse.originalEdge(edge) == e ? e : -1;
+    }
+}
@@ -0,0 +1,300 @@
+package graphs.shortestpaths;
+
+import graphs.IntGraph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Reusable state for shortest path searches on an {@link IntGraph}: the distance to and the edge to each vertex, and
+ * an indexed binary heap of vertices for the perimeter, all stored in primitive arrays indexed by vertex. Rather than
+ * clearing the arrays before each search, every vertex is stamped with the epoch of the search that last reached it,
+ * so vertices with an older stamp are treated as unreached. Starting a new search only increments the epoch, and the
+ * arrays only grow when searching a graph larger than any before, so repeated searches allocate nothing. A workspace
+ * must not be used by more than one search at a time.
+ *
+ * @see IntDijkstraSolver
+ * @see IntAStarSolver
+ * @see ArcFlagSolver
+ */
+public class SearchWorkspace {
+    /**
+     * The distance from the start to each reached vertex.
+     */
+    private double[] distTo;
+    /**
+     * The index of the last edge on the shortest known path to each reached vertex, or -1 for the start.
+     */
+    private int[] edgeTo;
+    /**
+     * The epoch of the search that last reached each vertex.
+     */
+    private int[] stamps;
+    /**
+     * The epoch of the current search, which is always positive once a search has started.
+     */
+    private int epoch;
+    /**
+     * The vertices in the perimeter stored as a binary heap ordered by priority value, starting at index 0.
+     */
+    private int[] heap;
+    /**
+     * The number of vertices in the perimeter.
+     */
+    private int size;
+    /**
+     * The priority value of each reached vertex.
+     */
+    private double[] priorities;
+    /**
+     * The index of each reached vertex in the heap, or -1 if it has been removed from the perimeter.
+     */
+    private int[] positions;
+    /**
+     * Reusable buffer of the vertices on the last traced path, which only grows when tracing a longer path.
+     */
+    private int[] path;
+
+    /**
+     * Constructs an empty workspace.
+     */
+    public SearchWorkspace() {
+        this(0);
+    }
+
+    /**
+     * Constructs a workspace with enough space for searching graphs with up to the given number of vertices.
+     *
+     * @param capacity the initial number of vertices.
+     */
+    public SearchWorkspace(int capacity) {
+        distTo = new double[capacity];
+        edgeTo = new int[capacity];
+        stamps = new int[capacity];
+        epoch = 0;
+        heap = new int[capacity];
+        size = 0;
+        priorities = new double[capacity];
+        positions = new int[capacity];
+        path = new int[0];
+    }
+
+    /**
+     * Starts a new search by marking every vertex as unreached and emptying the perimeter, growing the arrays if they
+     * have less than the given number of vertices.
+     *
+     * @param numVertices the number of vertices in the graph to search.
+     */
+    public void reset(int numVertices) {
+        if (stamps.length < numVertices) {
+            int capacity = Math.max(numVertices, 2 * stamps.length);
+            distTo = new double[capacity];
+            edgeTo = new int[capacity];
+            stamps = new int[capacity];
+            heap = new int[capacity];
+            priorities = new double[capacity];
+            positions = new int[capacity];
+        }
+        if (epoch == Integer.MAX_VALUE) {
+            // Only clear the stamps once every few billion searches when the epoch would overflow
+            Arrays.fill(stamps, 0);
+            epoch = 0;
+        }
+        epoch += 1;
+        size = 0;
+    }
+
+    /**
+     * Returns true if and only if the vertex has been reached in the current search.
+     *
+     * @param vertex the index of the vertex.
+     * @return true if and only if the vertex has been reached in the current search.
+     */
+    public boolean isReached(int vertex) {
+        return stamps[vertex] == epoch;
+    }
+
+    /**
+     * Returns the distance from the start to the vertex, or positive infinity if it has not been reached.
+     *
+     * @param vertex the index of the vertex.
+     * @return the distance from the start to the vertex, or positive infinity if it has not been reached.
+     */
+    public double distTo(int vertex) {
+        return isReached(vertex) ? distTo[vertex] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the index of the last edge on the shortest known path to the vertex, or -1 if it is the start or if it
+     * has not been reached.
+     *
+     * @param vertex the index of the vertex.
+     * @return the index of the last edge on the shortest known path to the vertex, or -1 if there is no such edge.
+     */
+    public int edgeTo(int vertex) {
+        return isReached(vertex) ? edgeTo[vertex] : -1;
+    }
+
+    /**
+     * Records a shorter path to the vertex and adds it to the perimeter with the given priority value, or updates its
+     * priority value if it is already in the perimeter.
+     *
+     * @param vertex   the index of the vertex.
+     * @param dist     the distance from the start to the vertex.
+     * @param edge     the index of the last edge on the path to the vertex, or -1 for the start.
+     * @param priority the priority value for the vertex in the perimeter.
+     */
+    public void relax(int vertex, double dist, int edge, double priority) {
+        if (!isReached(vertex)) {
+            stamps[vertex] = epoch;
+            positions[vertex] = -1;
+        }
+        distTo[vertex] = dist;
+        edgeTo[vertex] = edge;
+        int i = positions[vertex];
+        if (i < 0) {
+            i = size;
+            size += 1;
+            heap[i] = vertex;
+            positions[vertex] = i;
+        } else if (priority > priorities[vertex]) {
+            priorities[vertex] = priority;
+            sink(i);
+            return;
+        }
+        priorities[vertex] = priority;
+        swim(i);
+    }
+
+    /**
+     * Returns true if and only if the perimeter is empty.
+     *
+     * @return true if and only if the perimeter is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns and removes the vertex with the minimum priority value from the perimeter.
+     *
+     * @return the index of the vertex with the minimum priority value.
+     * @throws NoSuchElementException if the perimeter is empty.
+     */
+    public int removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        int min = heap[0];
+        size -= 1;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            sink(0);
+        }
+        positions[min] = -1;
+        return min;
+    }
+
+    /**
+     * Returns the vertices on the shortest known path from the start to the goal by following the edges to each
+     * vertex backwards from the goal.
+     *
+     * @param graph the graph that was searched.
+     * @param goal  the index of the goal vertex.
+     * @return the indices of the vertices on the shortest known path from the start to the goal.
+     */
+    public int[] path(IntGraph graph, int goal) {
+        // Trace first, since tracing may replace the path buffer with a larger one
+        int length = tracePath(graph, goal);
+        return Arrays.copyOf(path, length);
+    }
+
+    /**
+     * Traces the shortest known path from the start to the goal into the reusable path buffer, so that the vertices
+     * on the path can be read with {@link #pathVertex(int)} without allocating a new array.
+     *
+     * @param graph the graph that was searched.
+     * @param goal  the index of the goal vertex.
+     * @return the number of vertices on the shortest known path from the start to the goal.
+     */
+    public int tracePath(IntGraph graph, int goal) {
+        int length = 0;
+        int curr = goal;
+        while (true) {
+            if (length == path.length) {
+                path = Arrays.copyOf(path, Math.max(16, 2 * length));
+            }
+            path[length] = curr;
+            length += 1;
+            int e = edgeTo(curr);
+            if (e < 0) {
+                break;
+            }
+            curr = graph.from(e);
+        }
+        // The path was traced backwards from the goal, so reverse it in place
+        for (int i = 0, j = length - 1; i < j; i += 1, j -= 1) {
+            int temp = path[i];
+            path[i] = path[j];
+            path[j] = temp;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the vertex at the given position on the last traced path.
+     *
+     * @param i the position on the last traced path, where 0 is the start.
+     * @return the index of the vertex at the given position on the last traced path.
+     * @see #tracePath(IntGraph, int)
+     */
+    public int pathVertex(int i) {
+        return path[i];
+    }
+
+    /**
+     * Moves the vertex at the given heap index up until its parent has no larger priority value.
+     *
+     * @param i the heap index of the vertex.
+     */
+    private void swim(int i) {
+        int vertex = heap[i];
+        double priority = priorities[vertex];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (priorities[heap[parent]] <= priority) {
+                break;
+            }
+            heap[i] = heap[parent];
+            positions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = vertex;
+        positions[vertex] = i;
+    }
+
+    /**
+     * Moves the vertex at the given heap index down until its children have no smaller priority value.
+     *
+     * @param i the heap index of the vertex.
+     */
+    private void sink(int i) {
+        int vertex = heap[i];
+        double priority = priorities[vertex];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]]) {
+                child += 1;
+            }
+            if (priorities[heap[child]] >= priority) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = vertex;
+        positions[vertex] = i;
+    }
+}
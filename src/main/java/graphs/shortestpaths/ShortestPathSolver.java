@@ -12,6 +12,8 @@ import java.util.List;
  * @see Graph
  * @see DijkstraSolver
  * @see ToposortDAGSolver
+ * @see DeltaSteppingSolver
+ * @see CompactDijkstraSolver
  */
 public interface ShortestPathSolver<V> {
     /**
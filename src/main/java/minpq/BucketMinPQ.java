@@ -0,0 +1,278 @@
+package minpq;
+
+import java.util.*;
+
+/**
+ * Bucket queue (Dial's algorithm) implementation of the {@link MinPQ} interface for <b>monotone</b> workloads with
+ * <b>integer</b> priority values, such as Dijkstra's algorithm on edge weights quantized to integers. The priority of
+ * each added element must never be less than the priority of the most recently removed (or peeked) minimum element.
+ * Each integer priority value has its own bucket in a circular array, so adding or changing a priority takes constant
+ * time and removing the minimum only has to scan forward to the next nonempty bucket.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see MinPQ
+ */
+public class BucketMinPQ<E> implements MinPQ<E> {
+    /**
+     * Initial number of buckets in the circular array.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * Circular array of buckets indexed by priority value modulo the number of buckets. The number of buckets is
+     * always a power of 2 that is larger than the difference between the largest and smallest priority values. Each
+     * bucket is null until a node is first added to it.
+     */
+    private List<List<Node<E>>> buckets;
+    /**
+     * {@link Map} of elements to their associated nodes.
+     */
+    private final Map<E, Node<E>> nodes;
+    /**
+     * The smallest priority value that could be in this priority queue.
+     */
+    private long min;
+    /**
+     * The largest priority value that could be in this priority queue.
+     */
+    private long max;
+    /**
+     * The priority value of the most recently removed or peeked minimum element. No smaller priorities may be added.
+     */
+    private double last;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public BucketMinPQ() {
+        buckets = emptyBuckets(INITIAL_CAPACITY);
+        nodes = new HashMap<>();
+        min = 0;
+        max = 0;
+        last = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Constructs an instance containing all the given elements and their priority values.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     */
+    public BucketMinPQ(Map<E, Double> elementsAndPriorities) {
+        this();
+        for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority is not an integer or is less than the last minimum priority.
+     */
+    @Override
+    public void add(E element, double priority) {
+        if (contains(element)) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        Node<E> node = new Node<>(element);
+        node.priority = checkPriority(priority);
+        insert(node);
+        nodes.put(element, node);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return nodes.containsKey(element);
+    }
+
+    @Override
+    public double getPriority(E element) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return nodes.get(element).priority;
+    }
+
+    @Override
+    public E peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        List<Node<E>> bucket = bucketOf(min);
+        while (bucket == null || bucket.isEmpty()) {
+            min += 1;
+            bucket = bucketOf(min);
+        }
+        last = min;
+        return bucket.get(bucket.size() - 1).element;
+    }
+
+    @Override
+    public E removeMin() {
+        E element = peekMin();
+        List<Node<E>> bucket = bucketOf(min);
+        bucket.remove(bucket.size() - 1);
+        nodes.remove(element);
+        return element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority is not an integer or is less than the last minimum priority.
+     */
+    @Override
+    public void changePriority(E element, double priority) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        Node<E> node = nodes.get(element);
+        long key = checkPriority(priority);
+        if (key != node.priority) {
+            delete(node);
+            node.priority = key;
+            insert(node);
+        }
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public String toString() {
+        return nodes.values() + ", min=" + min;
+    }
+
+    /**
+     * Returns the given priority value as an integer key after checking that it is valid.
+     *
+     * @param priority the priority value.
+     * @return the given priority value as an integer key.
+     * @throws IllegalArgumentException if the priority is not an integer or is less than the last minimum priority.
+     */
+    private long checkPriority(double priority) {
+        if (priority != Math.rint(priority) || Math.abs(priority) > 1L << 53) {
+            throw new IllegalArgumentException("Priority " + priority + " is not an integer");
+        } else if (priority < last) {
+            throw new IllegalArgumentException("Priority " + priority + " is less than the last minimum priority");
+        }
+        return (long) priority;
+    }
+
+    /**
+     * Adds the node to the end of its bucket, first growing the circular array if necessary.
+     *
+     * @param node the node to add.
+     */
+    private void insert(Node<E> node) {
+        long key = node.priority;
+        if (isEmpty()) {
+            min = key;
+            max = key;
+        } else if (key < min || key > max) {
+            long newMin = Math.min(min, key);
+            long newMax = Math.max(max, key);
+            if (newMax - newMin >= buckets.size()) {
+                resize(newMax - newMin + 1);
+            }
+            min = newMin;
+            max = newMax;
+        }
+        append(node);
+    }
+
+    /**
+     * Removes the node from its bucket by swapping it with the last node in the bucket.
+     *
+     * @param node the node to remove.
+     */
+    private void delete(Node<E> node) {
+        List<Node<E>> bucket = bucketOf(node.priority);
+        Node<E> moved = bucket.remove(bucket.size() - 1);
+        if (moved != node) {
+            moved.index = node.index;
+            bucket.set(node.index, moved);
+        }
+    }
+
+    /**
+     * Replaces the circular array with one that has room for at least the given number of consecutive priority values.
+     *
+     * @param span the number of consecutive priority values.
+     */
+    private void resize(long span) {
+        if (span > 1 << 30) {
+            throw new IllegalArgumentException("Priority values span too many buckets: " + span);
+        }
+        int capacity = buckets.size();
+        while (capacity < span) {
+            capacity *= 2;
+        }
+        List<List<Node<E>>> old = buckets;
+        buckets = emptyBuckets(capacity);
+        for (List<Node<E>> bucket : old) {
+            if (bucket != null) {
+                for (Node<E> node : bucket) {
+                    append(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the node to the end of its bucket, creating the bucket if it does not exist yet.
+     *
+     * @param node the node to add.
+     */
+    private void append(Node<E> node) {
+        int i = (int) (node.priority & (buckets.size() - 1));
+        List<Node<E>> bucket = buckets.get(i);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.set(i, bucket);
+        }
+        node.index = bucket.size();
+        bucket.add(node);
+    }
+
+    /**
+     * Returns the bucket for the given priority value, or null if no node has ever been added to the bucket.
+     *
+     * @param key the priority value.
+     * @return the bucket for the given priority value, or null if no node has ever been added to the bucket.
+     */
+    private List<Node<E>> bucketOf(long key) {
+        return buckets.get((int) (key & (buckets.size() - 1)));
+    }
+
+    /**
+     * Returns a list of the given number of null buckets.
+     *
+     * @param capacity the number of buckets.
+     * @return a list of the given number of null buckets.
+     */
+    private static <E> List<List<Node<E>>> emptyBuckets(int capacity) {
+        return new ArrayList<>(Collections.nCopies(capacity, null));
+    }
+
+    /**
+     * An element and its integer priority value, and its index in its bucket.
+     *
+     * @param <E> the type of element represented by this node.
+     */
+    private static class Node<E> {
+        private final E element;
+        private long priority;
+        private int index;
+
+        Node(E element) {
+            this.element = element;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + element + ", " + priority + ')';
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package minpq;
+
+import java.util.*;
+
+/**
+ * Fibonacci heap implementation of the {@link MinPQ} interface. Each element is stored in a node of a collection of
+ * heap-ordered trees whose roots are kept in a circular doubly-linked list. Adding an element or decreasing its
+ * priority value takes amortized constant time, while removing the minimum element takes amortized logarithmic time by
+ * consolidating trees of the same degree.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see MinPQ
+ */
+public class FibonacciHeapMinPQ<E> implements MinPQ<E> {
+    /**
+     * {@link Map} of elements to their associated nodes.
+     */
+    private final Map<E, Node<E>> nodes;
+    /**
+     * The root node with the minimum priority value, or null if this priority queue is empty.
+     */
+    private Node<E> min;
+    /**
+     * Reusable table of roots indexed by degree for consolidating trees after removing the minimum.
+     */
+    private final List<Node<E>> degrees;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public FibonacciHeapMinPQ() {
+        nodes = new HashMap<>();
+        min = null;
+        degrees = new ArrayList<>();
+    }
+
+    /**
+     * Constructs an instance containing all the given elements and their priority values. Since adding an element
+     * takes constant time, this takes linear time overall.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     */
+    public FibonacciHeapMinPQ(Map<E, Double> elementsAndPriorities) {
+        this();
+        addAll(elementsAndPriorities);
+    }
+
+    @Override
+    public void add(E element, double priority) {
+        if (contains(element)) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        Node<E> node = new Node<>(element, priority);
+        nodes.put(element, node);
+        if (min == null) {
+            min = node;
+        } else {
+            splice(min, node);
+            if (priority < min.priority) {
+                min = node;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return nodes.containsKey(element);
+    }
+
+    @Override
+    public double getPriority(E element) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return nodes.get(element).priority;
+    }
+
+    @Override
+    public E peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return min.element;
+    }
+
+    @Override
+    public E removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        Node<E> node = min;
+        promoteChildren(node);
+        if (node.right == node) {
+            min = null;
+        } else {
+            node.left.right = node.right;
+            node.right.left = node.left;
+            min = node.right;
+            consolidate();
+        }
+        nodes.remove(node.element);
+        return node.element;
+    }
+
+    @Override
+    public void changePriority(E element, double priority) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        Node<E> node = nodes.get(element);
+        if (priority < node.priority) {
+            // Decreasing the priority only affects the order between the node and its parent
+            node.priority = priority;
+            Node<E> parent = node.parent;
+            if (parent != null && priority < parent.priority) {
+                cut(node);
+                cascadingCut(parent);
+            }
+            if (priority < min.priority) {
+                min = node;
+            }
+        } else if (priority > node.priority) {
+            // Increasing the priority could affect the order between the node and its children
+            Node<E> parent = node.parent;
+            if (parent != null) {
+                cut(node);
+                cascadingCut(parent);
+            }
+            promoteChildren(node);
+            node.priority = priority;
+            if (min == node) {
+                Node<E> root = node.right;
+                while (root != node) {
+                    if (root.priority < min.priority) {
+                        min = root;
+                    }
+                    root = root.right;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public String toString() {
+        return nodes.values().toString();
+    }
+
+    /**
+     * Links roots of the same degree until every root has a distinct degree, and then updates the minimum root.
+     */
+    private void consolidate() {
+        // Collect the roots first since linking removes them from the root list
+        List<Node<E>> roots = new ArrayList<>();
+        Node<E> root = min;
+        do {
+            roots.add(root);
+            root = root.right;
+        } while (root != min);
+        for (Node<E> node : roots) {
+            int degree = node.degree;
+            while (degree < degrees.size() && degrees.get(degree) != null) {
+                Node<E> other = degrees.get(degree);
+                if (other.priority < node.priority) {
+                    Node<E> temp = node;
+                    node = other;
+                    other = temp;
+                }
+                link(other, node);
+                degrees.set(degree, null);
+                degree += 1;
+            }
+            while (degrees.size() <= degree) {
+                degrees.add(null);
+            }
+            degrees.set(degree, node);
+        }
+        min = null;
+        for (int i = 0; i < degrees.size(); i += 1) {
+            Node<E> node = degrees.get(i);
+            if (node != null && (min == null || node.priority < min.priority)) {
+                min = node;
+            }
+            degrees.set(i, null);
+        }
+    }
+
+    /**
+     * Removes the child root from the root list and makes it a child of the parent root.
+     *
+     * @param child  the root with the larger priority value.
+     * @param parent the root with the smaller priority value.
+     */
+    private void link(Node<E> child, Node<E> parent) {
+        child.left.right = child.right;
+        child.right.left = child.left;
+        child.left = child;
+        child.right = child;
+        child.parent = parent;
+        child.marked = false;
+        if (parent.child == null) {
+            parent.child = child;
+        } else {
+            splice(parent.child, child);
+        }
+        parent.degree += 1;
+    }
+
+    /**
+     * Removes the non-root node and its subtree from its parent and adds it to the root list.
+     *
+     * @param node the node to cut.
+     */
+    private void cut(Node<E> node) {
+        Node<E> parent = node.parent;
+        if (node.right == node) {
+            parent.child = null;
+        } else {
+            node.left.right = node.right;
+            node.right.left = node.left;
+            if (parent.child == node) {
+                parent.child = node.right;
+            }
+        }
+        parent.degree -= 1;
+        node.left = node;
+        node.right = node;
+        node.parent = null;
+        node.marked = false;
+        splice(min, node);
+    }
+
+    /**
+     * Cuts the node from its parent if it has already lost a child since it became a child itself, and repeats for
+     * its ancestors. Otherwise, marks the node as having lost a child.
+     *
+     * @param node the node that lost a child.
+     */
+    private void cascadingCut(Node<E> node) {
+        while (node.parent != null) {
+            if (!node.marked) {
+                node.marked = true;
+                return;
+            }
+            Node<E> parent = node.parent;
+            cut(node);
+            node = parent;
+        }
+    }
+
+    /**
+     * Moves all children of the node into the root list.
+     *
+     * @param node the node whose children should be moved.
+     */
+    private void promoteChildren(Node<E> node) {
+        Node<E> child = node.child;
+        if (child != null) {
+            Node<E> curr = child;
+            do {
+                curr.parent = null;
+                curr.marked = false;
+                curr = curr.right;
+            } while (curr != child);
+            splice(min, child);
+            node.child = null;
+            node.degree = 0;
+        }
+    }
+
+    /**
+     * Concatenates two circular doubly-linked lists of nodes.
+     *
+     * @param a a node in the first list.
+     * @param b a node in the second list.
+     */
+    private static <E> void splice(Node<E> a, Node<E> b) {
+        Node<E> aRight = a.right;
+        Node<E> bLeft = b.left;
+        a.right = b;
+        b.left = a;
+        bLeft.right = aRight;
+        aRight.left = bLeft;
+    }
+
+    /**
+     * An element and its priority value, and its location in the Fibonacci heap.
+     *
+     * @param <E> the type of element represented by this node.
+     */
+    private static class Node<E> {
+        private final E element;
+        private double priority;
+        private Node<E> parent;
+        /**
+         * Any one of the children of this node.
+         */
+        private Node<E> child;
+        /**
+         * The previous and next siblings of this node in a circular doubly-linked list.
+         */
+        private Node<E> left, right;
+        /**
+         * The number of children of this node.
+         */
+        private int degree;
+        /**
+         * Whether this node has lost a child since it became a child of its parent.
+         */
+        private boolean marked;
+
+        Node(E element, double priority) {
+            this.element = element;
+            this.priority = priority;
+            left = this;
+            right = this;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + element + ", " + priority + ')';
+        }
+    }
+}
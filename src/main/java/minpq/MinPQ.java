@@ -1,7 +1,6 @@
 package minpq;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Priority queue where objects have <b>extrinsic priority</b>. Whereas {@link java.util.PriorityQueue} relies on
@@ -13,6 +12,11 @@ import java.util.List;
  * @see UnsortedArrayMinPQ
  * @see HeapMinPQ
  * @see OptimizedHeapMinPQ
+ * @see PairingHeapMinPQ
+ * @see FibonacciHeapMinPQ
+ * @see MultiQueueMinPQ
+ * @see RadixHeapMinPQ
+ * @see BucketMinPQ
  */
 public interface MinPQ<E> {
 
@@ -25,6 +29,18 @@ public interface MinPQ<E> {
      */
     void add(E element, double priority);
 
+    /**
+     * Adds all the given elements and their priority values.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     * @throws IllegalArgumentException if any element is null or already present.
+     */
+    default void addAll(Map<E, Double> elementsAndPriorities) {
+        for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Adds an element with the given priority value if it is not already present. Otherwise, updates the priority value
      * of the existing element.
@@ -88,6 +104,39 @@ public interface MinPQ<E> {
         return result;
     }
 
+    /**
+     * Returns up to the given number of lowest-priority elements in order of priority value. Rather than building a
+     * priority queue of all the elements only to discard most of them, this keeps a bounded max-heap of the lowest
+     * elements seen so far, so it takes time linear in the number of elements and logarithmic in the number selected.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     * @param numElements           the desired number of lowest-priority elements to return.
+     * @return a list containing up to the given number of lowest-priority elements.
+     */
+    static <E> List<E> selectMin(Map<E, Double> elementsAndPriorities, int numElements) {
+        numElements = Math.min(numElements, elementsAndPriorities.size());
+        if (numElements <= 0) {
+            return new ArrayList<>();
+        }
+        // The root of the max-heap is the highest-priority element of the lowest elements seen so far
+        PriorityQueue<Map.Entry<E, Double>> lowest = new PriorityQueue<>(numElements,
+                Map.Entry.<E, Double>comparingByValue().reversed());
+        for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
+            if (lowest.size() < numElements) {
+                lowest.add(entry);
+            } else if (entry.getValue() < lowest.peek().getValue()) {
+                lowest.poll();
+                lowest.add(entry);
+            }
+        }
+        List<E> result = new ArrayList<>(numElements);
+        while (!lowest.isEmpty()) {
+            result.add(lowest.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
     /**
      * Updates the given elements' associated priority value.
      *
@@ -0,0 +1,272 @@
+package minpq;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe MultiQueue implementation of the {@link MinPQ} interface. Elements are spread across several sequential
+ * priority queues that are each guarded by their own lock. Adding an element locks a random queue, while removing the
+ * minimum element locks whichever of two random queues has the smaller minimum priority value. Threads rarely contend
+ * for the same lock, so throughput scales with the number of threads. In exchange, the priority queue is <b>relaxed</b>:
+ * {@code peekMin} and {@code removeMin} return an element whose priority is close to, but not necessarily equal to,
+ * the minimum priority value. With a single queue, every operation is linearizable and the priority queue is strict.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see MinPQ
+ */
+public class MultiQueueMinPQ<E> implements MinPQ<E> {
+    /**
+     * Number of queues per available processor in the default configuration.
+     */
+    private static final int QUEUES_PER_PROCESSOR = 2;
+    /**
+     * The sequential priority queues, each only accessed while holding the lock with the same index.
+     */
+    private final List<MinPQ<E>> queues;
+    /**
+     * The locks guarding each of the sequential priority queues.
+     */
+    private final List<ReentrantLock> locks;
+    /**
+     * The minimum priority value in each of the sequential priority queues, or positive infinity if empty, stored as
+     * raw long bits so that they can be read without acquiring the lock.
+     */
+    private final AtomicLongArray mins;
+    /**
+     * {@link Map} of elements to the index of the queue containing the element. An element is only added to or
+     * removed from the map while holding the lock of its queue.
+     */
+    private final Map<E, Integer> elementToQueue;
+    /**
+     * The number of elements in this priority queue.
+     */
+    private final AtomicInteger size;
+
+    /**
+     * Constructs an empty instance with two queues per available processor.
+     */
+    public MultiQueueMinPQ() {
+        this(QUEUES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty instance with the given number of queues. More queues means less contention between
+     * threads but a more relaxed order of removal, while a single queue is strict but allows no parallelism.
+     *
+     * @param numQueues the number of queues.
+     * @throws IllegalArgumentException if the number of queues is not positive.
+     */
+    public MultiQueueMinPQ(int numQueues) {
+        if (numQueues <= 0) {
+            throw new IllegalArgumentException("Number of queues must be positive: " + numQueues);
+        }
+        queues = new ArrayList<>(numQueues);
+        locks = new ArrayList<>(numQueues);
+        mins = new AtomicLongArray(numQueues);
+        for (int i = 0; i < numQueues; i += 1) {
+            queues.add(new PairingHeapMinPQ<>());
+            locks.add(new ReentrantLock());
+            mins.set(i, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+        }
+        elementToQueue = new ConcurrentHashMap<>();
+        size = new AtomicInteger();
+    }
+
+    /**
+     * Constructs an instance with the given number of queues containing all the given elements and their priority
+     * values.
+     *
+     * @param numQueues             the number of queues.
+     * @param elementsAndPriorities each element and its corresponding priority.
+     */
+    public MultiQueueMinPQ(int numQueues, Map<E, Double> elementsAndPriorities) {
+        this(numQueues);
+        addAll(elementsAndPriorities);
+    }
+
+    @Override
+    public void add(E element, double priority) {
+        if (!tryAdd(element, priority)) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+    }
+
+    @Override
+    public void addOrChangePriority(E element, double priority) {
+        // Checking contains before add could race with other threads, so retry until one succeeds
+        while (!tryAdd(element, priority) && !tryChangePriority(element, priority)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return elementToQueue.containsKey(element);
+    }
+
+    @Override
+    public double getPriority(E element) {
+        while (true) {
+            Integer i = elementToQueue.get(element);
+            if (i == null) {
+                throw new NoSuchElementException("PQ does not contain " + element);
+            }
+            ReentrantLock lock = locks.get(i);
+            lock.lock();
+            try {
+                if (Objects.equals(elementToQueue.get(element), i)) {
+                    return queues.get(i).getPriority(element);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public E peekMin() {
+        return poll(false);
+    }
+
+    @Override
+    public E removeMin() {
+        return poll(true);
+    }
+
+    @Override
+    public void changePriority(E element, double priority) {
+        if (!tryChangePriority(element, priority)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public String toString() {
+        return queues.toString();
+    }
+
+    /**
+     * Adds the element to a random queue unless it is already present.
+     *
+     * @param element  the element to add.
+     * @param priority the priority value for the element.
+     * @return true if the element was added, or false if it was already present.
+     */
+    private boolean tryAdd(E element, double priority) {
+        int i = ThreadLocalRandom.current().nextInt(queues.size());
+        ReentrantLock lock = locks.get(i);
+        lock.lock();
+        try {
+            if (elementToQueue.putIfAbsent(element, i) != null) {
+                return false;
+            }
+            MinPQ<E> queue = queues.get(i);
+            queue.add(element, priority);
+            size.incrementAndGet();
+            updateMin(i);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the priority value of the element if it is present.
+     *
+     * @param element  the element whose associated priority value should be modified.
+     * @param priority the updated priority value.
+     * @return true if the element was updated, or false if it was not present.
+     */
+    private boolean tryChangePriority(E element, double priority) {
+        while (true) {
+            Integer i = elementToQueue.get(element);
+            if (i == null) {
+                return false;
+            }
+            ReentrantLock lock = locks.get(i);
+            lock.lock();
+            try {
+                // The element could have been removed while waiting for the lock
+                if (Objects.equals(elementToQueue.get(element), i)) {
+                    queues.get(i).changePriority(element, priority);
+                    updateMin(i);
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns, and optionally removes, the minimum element of the better of two random queues.
+     *
+     * @param remove whether to remove the returned element.
+     * @return an element with a close-to-minimum priority value.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    private E poll(boolean remove) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!isEmpty()) {
+            int i = random.nextInt(queues.size());
+            int j = random.nextInt(queues.size());
+            if (min(j) < min(i)) {
+                i = j;
+            }
+            ReentrantLock lock = locks.get(i);
+            if (min(i) == Double.POSITIVE_INFINITY) {
+                // The queue is probably empty, so wait for the lock to check rather than sampling again
+                lock.lock();
+            } else if (!lock.tryLock()) {
+                // Try a different pair of queues rather than wait for a lock held by another thread
+                continue;
+            }
+            try {
+                MinPQ<E> queue = queues.get(i);
+                if (!queue.isEmpty()) {
+                    if (!remove) {
+                        return queue.peekMin();
+                    }
+                    E element = queue.removeMin();
+                    elementToQueue.remove(element);
+                    size.decrementAndGet();
+                    updateMin(i);
+                    return element;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        throw new NoSuchElementException("PQ is empty");
+    }
+
+    /**
+     * Returns the last published minimum priority value of the queue at the given index.
+     *
+     * @param i the index of the queue.
+     * @return the last published minimum priority value of the queue at the given index.
+     */
+    private double min(int i) {
+        return Double.longBitsToDouble(mins.get(i));
+    }
+
+    /**
+     * Publishes the minimum priority value of the queue at the given index. Must be called while holding its lock.
+     *
+     * @param i the index of the queue.
+     */
+    private void updateMin(int i) {
+        MinPQ<E> queue = queues.get(i);
+        double min = queue.isEmpty() ? Double.POSITIVE_INFINITY : queue.getPriority(queue.peekMin());
+        mins.set(i, Double.doubleToRawLongBits(min));
+    }
+}
@@ -0,0 +1,240 @@
+package minpq;
+
+import java.util.*;
+
+/**
+ * Pairing heap implementation of the {@link MinPQ} interface. Each element is stored in a node of a multiway tree
+ * where every node has a priority value no less than its parent. Adding an element or decreasing its priority value
+ * takes constant time by melding a single-node tree with the root, while removing the minimum element takes amortized
+ * logarithmic time by melding the subtrees of the root in two passes.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see MinPQ
+ */
+public class PairingHeapMinPQ<E> implements MinPQ<E> {
+    /**
+     * {@link Map} of elements to their associated nodes.
+     */
+    private final Map<E, Node<E>> nodes;
+    /**
+     * The root node with the minimum priority value, or null if this priority queue is empty.
+     */
+    private Node<E> root;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public PairingHeapMinPQ() {
+        nodes = new HashMap<>();
+        root = null;
+    }
+
+    /**
+     * Constructs an instance containing all the given elements and their priority values. Since adding an element
+     * takes constant time, this takes linear time overall.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     */
+    public PairingHeapMinPQ(Map<E, Double> elementsAndPriorities) {
+        this();
+        addAll(elementsAndPriorities);
+    }
+
+    @Override
+    public void add(E element, double priority) {
+        if (contains(element)) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        Node<E> node = new Node<>(element, priority);
+        nodes.put(element, node);
+        root = meld(root, node);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return nodes.containsKey(element);
+    }
+
+    @Override
+    public double getPriority(E element) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return nodes.get(element).priority;
+    }
+
+    @Override
+    public E peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return root.element;
+    }
+
+    @Override
+    public E removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        Node<E> min = root;
+        root = mergePairs(min.child);
+        min.child = null;
+        nodes.remove(min.element);
+        return min.element;
+    }
+
+    @Override
+    public void changePriority(E element, double priority) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        Node<E> node = nodes.get(element);
+        if (priority < node.priority) {
+            // Decreasing the priority only affects the order between the node and its ancestors
+            node.priority = priority;
+            if (node != root) {
+                cut(node);
+                root = meld(root, node);
+            }
+        } else if (priority > node.priority) {
+            // Increasing the priority could affect the order between the node and its children
+            if (node == root) {
+                root = null;
+            } else {
+                cut(node);
+            }
+            Node<E> children = mergePairs(node.child);
+            node.child = null;
+            node.priority = priority;
+            root = meld(meld(root, children), node);
+        }
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public String toString() {
+        return nodes.values().toString();
+    }
+
+    /**
+     * Returns the root of the tree formed by melding the two trees, making the root with the larger priority value the
+     * leftmost child of the other root.
+     *
+     * @param a the root of the first tree, or null if empty.
+     * @param b the root of the second tree, or null if empty.
+     * @return the root of the tree formed by melding the two trees, or null if both are empty.
+     */
+    private static <E> Node<E> meld(Node<E> a, Node<E> b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else if (b.priority < a.priority) {
+            Node<E> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.prev = a;
+        b.sibling = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Returns the root of the tree formed by melding the given list of sibling trees in two passes: first melding
+     * adjacent pairs from left to right, and then melding the results from right to left.
+     *
+     * @param first the root of the leftmost tree in the list, or null if empty.
+     * @return the root of the tree formed by melding the list of trees, or null if empty.
+     */
+    private static <E> Node<E> mergePairs(Node<E> first) {
+        // The first pass links each melded pair in reverse order through their sibling references
+        Node<E> pairs = null;
+        while (first != null) {
+            Node<E> a = first;
+            Node<E> b = a.sibling;
+            first = b == null ? null : b.sibling;
+            detach(a);
+            if (b != null) {
+                detach(b);
+                a = meld(a, b);
+            }
+            a.sibling = pairs;
+            pairs = a;
+        }
+        Node<E> result = null;
+        while (pairs != null) {
+            Node<E> next = pairs.sibling;
+            pairs.sibling = null;
+            result = meld(result, pairs);
+            pairs = next;
+        }
+        return result;
+    }
+
+    /**
+     * Removes the non-root node and its subtree from the tree.
+     *
+     * @param node the node to remove.
+     */
+    private static <E> void cut(Node<E> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.sibling;
+        } else {
+            node.prev.sibling = node.sibling;
+        }
+        if (node.sibling != null) {
+            node.sibling.prev = node.prev;
+        }
+        detach(node);
+    }
+
+    /**
+     * Clears the references from the node to its previous sibling (or parent) and its next sibling.
+     *
+     * @param node the node to detach.
+     */
+    private static <E> void detach(Node<E> node) {
+        node.prev = null;
+        node.sibling = null;
+    }
+
+    /**
+     * An element and its priority value, and its location in the pairing heap.
+     *
+     * @param <E> the type of element represented by this node.
+     */
+    private static class Node<E> {
+        private final E element;
+        private double priority;
+        /**
+         * The leftmost child of this node.
+         */
+        private Node<E> child;
+        /**
+         * The next sibling to the right of this node.
+         */
+        private Node<E> sibling;
+        /**
+         * The previous sibling to the left of this node, or its parent if this node is the leftmost child.
+         */
+        private Node<E> prev;
+
+        Node(E element, double priority) {
+            this.element = element;
+            this.priority = priority;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + element + ", " + priority + ')';
+        }
+    }
+}
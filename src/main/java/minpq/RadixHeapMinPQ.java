@@ -0,0 +1,248 @@
+package minpq;
+
+import java.util.*;
+
+/**
+ * Radix heap implementation of the {@link MinPQ} interface for <b>monotone</b> workloads such as Dijkstra's algorithm,
+ * where the priority of each added element is never less than the priority of the most recently removed (or peeked)
+ * minimum element. Elements are kept in 65 buckets according to the highest bit in which their priority differs from
+ * the last minimum priority. Removing the minimum only has to redistribute one bucket, and each element can only move
+ * into a lower bucket, so operations take amortized constant time rather than logarithmic time.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see MinPQ
+ */
+public class RadixHeapMinPQ<E> implements MinPQ<E> {
+    /**
+     * Number of buckets: one for priorities equal to the last minimum, and one for each highest differing bit.
+     */
+    private static final int NUM_BUCKETS = Long.SIZE + 1;
+    /**
+     * Each bucket is a {@link List} of nodes whose keys share the same highest bit differing from the last key.
+     */
+    private final List<List<Node<E>>> buckets;
+    /**
+     * {@link Map} of elements to their associated nodes.
+     */
+    private final Map<E, Node<E>> nodes;
+    /**
+     * The key of the most recently removed or peeked minimum element. No smaller keys may be added.
+     */
+    private long last;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public RadixHeapMinPQ() {
+        buckets = new ArrayList<>(NUM_BUCKETS);
+        for (int i = 0; i < NUM_BUCKETS; i += 1) {
+            buckets.add(new ArrayList<>());
+        }
+        nodes = new HashMap<>();
+        last = 0;
+    }
+
+    /**
+     * Constructs an instance containing all the given elements and their priority values.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     */
+    public RadixHeapMinPQ(Map<E, Double> elementsAndPriorities) {
+        this();
+        for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority is less than the last minimum priority.
+     */
+    @Override
+    public void add(E element, double priority) {
+        if (contains(element)) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        Node<E> node = new Node<>(element);
+        setKey(node, priority);
+        insert(node);
+        nodes.put(element, node);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return nodes.containsKey(element);
+    }
+
+    @Override
+    public double getPriority(E element) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return nodes.get(element).priority;
+    }
+
+    @Override
+    public E peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        List<Node<E>> bucket = buckets.get(0);
+        if (bucket.isEmpty()) {
+            redistribute();
+        }
+        return bucket.get(bucket.size() - 1).element;
+    }
+
+    @Override
+    public E removeMin() {
+        E element = peekMin();
+        List<Node<E>> bucket = buckets.get(0);
+        bucket.remove(bucket.size() - 1);
+        nodes.remove(element);
+        return element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority is less than the last minimum priority.
+     */
+    @Override
+    public void changePriority(E element, double priority) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        Node<E> node = nodes.get(element);
+        long oldKey = node.key;
+        setKey(node, priority);
+        if (bucketOf(oldKey) != bucketOf(node.key)) {
+            delete(node, bucketOf(oldKey));
+            insert(node);
+        }
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public String toString() {
+        return buckets + ", last=" + last;
+    }
+
+    /**
+     * Empties the lowest nonempty bucket into the lower buckets after making its minimum key the last key. Every key
+     * in the bucket shares more high bits with its minimum than with the old last key, so the minimum moves into
+     * bucket 0 and all other keys move into lower buckets than before.
+     */
+    private void redistribute() {
+        int i = 1;
+        while (buckets.get(i).isEmpty()) {
+            i += 1;
+        }
+        List<Node<E>> bucket = buckets.get(i);
+        long min = bucket.get(0).key;
+        for (Node<E> node : bucket) {
+            if (Long.compareUnsigned(node.key, min) < 0) {
+                min = node.key;
+            }
+        }
+        last = min;
+        for (Node<E> node : bucket) {
+            insert(node);
+        }
+        bucket.clear();
+    }
+
+    /**
+     * Adds the node to the end of its bucket.
+     *
+     * @param node the node to add.
+     */
+    private void insert(Node<E> node) {
+        List<Node<E>> bucket = buckets.get(bucketOf(node.key));
+        node.index = bucket.size();
+        bucket.add(node);
+    }
+
+    /**
+     * Removes the node from the given bucket by swapping it with the last node in the bucket.
+     *
+     * @param node   the node to remove.
+     * @param bucket the index of the bucket containing the node.
+     */
+    private void delete(Node<E> node, int bucket) {
+        List<Node<E>> list = buckets.get(bucket);
+        Node<E> moved = list.remove(list.size() - 1);
+        if (moved != node) {
+            moved.index = node.index;
+            list.set(node.index, moved);
+        }
+    }
+
+    /**
+     * Returns the index of the bucket for the given key: 0 if it is equal to the last key, or otherwise one more than
+     * the position of the highest bit in which it differs from the last key.
+     *
+     * @param key the key.
+     * @return the index of the bucket for the given key.
+     */
+    private int bucketOf(long key) {
+        return Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Sets the priority and key of the node.
+     *
+     * @param node     the node to update.
+     * @param priority the new priority value.
+     * @throws IllegalArgumentException if the priority is less than the last minimum priority.
+     */
+    private void setKey(Node<E> node, double priority) {
+        long key = keyOf(priority);
+        if (Long.compareUnsigned(key, last) < 0) {
+            throw new IllegalArgumentException("Priority " + priority + " is less than the last minimum priority");
+        }
+        node.priority = priority;
+        node.key = key;
+    }
+
+    /**
+     * Returns a key whose unsigned order is the same as the numeric order of the given priority value.
+     *
+     * @param priority the priority value.
+     * @return a key whose unsigned order is the same as the numeric order of the given priority value.
+     */
+    private static long keyOf(double priority) {
+        if (Double.isNaN(priority)) {
+            throw new IllegalArgumentException("Priority is NaN");
+        }
+        long bits = Double.doubleToLongBits(priority + 0.0);
+        // Flip all bits of negative values and only the sign bit of positive values
+        return bits ^ ((bits >> (Long.SIZE - 1)) | Long.MIN_VALUE);
+    }
+
+    /**
+     * An element and its priority value, and its location in the radix heap.
+     *
+     * @param <E> the type of element represented by this node.
+     */
+    private static class Node<E> {
+        private final E element;
+        private double priority;
+        private long key;
+        private int index;
+
+        Node(E element) {
+            this.element = element;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + element + ", " + priority + ')';
+        }
+    }
+}
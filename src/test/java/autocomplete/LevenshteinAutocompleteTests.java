@@ -0,0 +1,87 @@
+package autocomplete;
+
+import net.jqwik.api.Example;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link LevenshteinAutocomplete} class. With a maximum edit distance of 0, the results must match the
+ * exact prefix matches of the reference implementation.
+ *
+ * @see LevenshteinAutocomplete
+ */
+public class LevenshteinAutocompleteTests extends AutocompleteTests {
+    /**
+     * Typo-tolerant instance for checking matches within a nonzero edit distance.
+     */
+    private final Autocomplete fuzzy = new LevenshteinAutocomplete(2, List.of(
+            "starbucks", "starbucks reserve", "stardust", "seattle", "seatac", "tacoma", "university of washington"
+    ));
+
+    @Override
+    public Autocomplete createAutocomplete(Collection<? extends CharSequence> terms) {
+        return new LevenshteinAutocomplete(0, terms);
+    }
+
+    @Example
+    void substitution() {
+        assertMatches("stsrbu", "starbucks", "starbucks reserve");
+        assertMatches("seattie", "seattle");
+    }
+
+    @Example
+    void transposition() {
+        assertMatches("strabu", "starbucks", "starbucks reserve");
+    }
+
+    @Example
+    void insertionAndDeletion() {
+        assertMatches("starrbu", "starbucks", "starbucks reserve");
+        assertMatches("strbuc", "starbucks", "starbucks reserve");
+    }
+
+    @Example
+    void shortPrefixesAreExact() {
+        assertMatches("se", "seattle", "seatac");
+        assertMatches("ta", "tacoma");
+        assertTrue(fuzzy.allMatches("sx").isEmpty());
+        assertTrue(fuzzy.allMatches("xa").isEmpty());
+    }
+
+    @Example
+    void oneEditFromThreeCharacters() {
+        assertMatches("sxa", "seattle", "seatac", "starbucks", "starbucks reserve", "stardust");
+        assertMatches("tac", "tacoma");
+        assertMatches("tca", "tacoma");
+        assertMatches("seattl", "seattle");
+        assertTrue(fuzzy.allMatches("sxx").isEmpty());
+        assertTrue(fuzzy.allMatches("sxxttle").isEmpty());
+    }
+
+    @Example
+    void twoEditsForLongerPrefixes() {
+        assertMatches("univresity fo", "university of washington");
+        assertMatches("unvresity of", "university of washington");
+        assertTrue(fuzzy.allMatches("sxxttle").isEmpty());
+        assertTrue(fuzzy.allMatches("unxvrxsity of").isEmpty());
+    }
+
+    /**
+     * Asserts that the typo-tolerant instance returns exactly the expected terms ignoring order.
+     *
+     * @param prefix   the prefix string to pass to {@code allMatches}.
+     * @param expected the expected matching terms.
+     */
+    private void assertMatches(String prefix, String... expected) {
+        List<CharSequence> actual = fuzzy.allMatches(prefix);
+        assertEquals(expected.length, actual.size(), () -> "matches for " + prefix + ": " + actual);
+        assertTrue(actual.containsAll(List.of(expected)));
+    }
+
+    public static void main(String[] args) {
+        runtimeExperiments(() -> new LevenshteinAutocomplete(2));
+    }
+}
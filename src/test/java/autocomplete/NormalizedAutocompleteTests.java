@@ -0,0 +1,76 @@
+package autocomplete;
+
+import net.jqwik.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link NormalizedAutocomplete} class.
+ *
+ * @see NormalizedAutocomplete
+ */
+public class NormalizedAutocompleteTests {
+    /**
+     * Place names with a mix of case, accents, and punctuation.
+     */
+    private static final List<String> PLACES = List.of(
+            "Starbucks",
+            "STARBUCKS RESERVE",
+            "The Northlake Tavern & Pizza House",
+            "Voula's Offshore Cafe",
+            "Agua Verde Café",
+            "Caffè Umbria",
+            "St. Mark's Cathedral"
+    );
+
+    private final Autocomplete testing = new NormalizedAutocomplete(new TreeSetAutocomplete(), PLACES);
+
+    @Example
+    void ignoresCase() {
+        assertMatches(testing, "starbu", "Starbucks", "STARBUCKS RESERVE");
+        assertMatches(testing, "STARBU", "Starbucks", "STARBUCKS RESERVE");
+    }
+
+    @Example
+    void ignoresAccents() {
+        assertMatches(testing, "agua verde cafe", "Agua Verde Café");
+        assertMatches(testing, "caffe", "Caffè Umbria");
+        assertMatches(testing, "caffè", "Caffè Umbria");
+    }
+
+    @Example
+    void ignoresPunctuation() {
+        assertMatches(testing, "voulas", "Voula's Offshore Cafe");
+        assertMatches(testing, "st marks", "St. Mark's Cathedral");
+        assertMatches(testing, "the northlake tavern pizza", "The Northlake Tavern & Pizza House");
+    }
+
+    @Example
+    void returnsOriginalTerms() {
+        assertMatches(testing, "Voula's", "Voula's Offshore Cafe");
+        assertTrue(testing.allMatches("zzz").isEmpty());
+        assertTrue(testing.allMatches("").isEmpty());
+        assertTrue(testing.allMatches("'").isEmpty());
+    }
+
+    @Example
+    void sharedNormalizedForms() {
+        Autocomplete autocomplete = new NormalizedAutocomplete(new TreeSetAutocomplete(), List.of("Café", "cafe"));
+        assertMatches(autocomplete, "CAF", "Café", "cafe");
+    }
+
+    /**
+     * Asserts that the given {@link Autocomplete} returns exactly the expected terms ignoring order.
+     *
+     * @param autocomplete the {@link Autocomplete} to check.
+     * @param prefix       the prefix string to pass to {@code allMatches}.
+     * @param expected     the expected matching terms.
+     */
+    private static void assertMatches(Autocomplete autocomplete, String prefix, String... expected) {
+        List<CharSequence> actual = autocomplete.allMatches(prefix);
+        assertEquals(expected.length, actual.size());
+        assertTrue(actual.containsAll(List.of(expected)));
+    }
+}
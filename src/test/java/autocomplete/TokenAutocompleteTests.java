@@ -0,0 +1,108 @@
+package autocomplete;
+
+import net.jqwik.api.*;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link TokenAutocomplete} class.
+ *
+ * @see TokenAutocomplete
+ */
+public class TokenAutocompleteTests {
+    /**
+     * Maximum number of cities to parse.
+     */
+    private static final int MAX_CITIES = 43187;
+    /**
+     * Path to the cities dataset.
+     */
+    private static final String PATH = "data/cities.tsv";
+    /**
+     * City names for comparison against exact prefix matching.
+     */
+    private static final List<String> CITIES = new ArrayList<>(MAX_CITIES);
+    static {
+        try (Scanner input = new Scanner(new FileInputStream(PATH))) {
+            while (input.hasNextLine() && CITIES.size() < MAX_CITIES) {
+                try (Scanner line = new Scanner(input.nextLine()).useDelimiter("\t")) {
+                    CITIES.add(line.next());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final Autocomplete reference = new TreeSetAutocomplete(CITIES);
+    private final Autocomplete testing = new TokenAutocomplete(CITIES);
+    private final Autocomplete places = new TokenAutocomplete(List.of(
+            "The Northlake Tavern & Pizza House",
+            "Tavern Law",
+            "Pizza Hut",
+            "Northgate Station",
+            "Northlake Way"
+    ));
+
+    @Example
+    void infixToken() {
+        assertMatches("Tavern", "The Northlake Tavern & Pizza House", "Tavern Law");
+        assertMatches("Pizza", "The Northlake Tavern & Pizza House", "Pizza Hut");
+    }
+
+    @Example
+    void everyTokenMustMatch() {
+        assertMatches("Tav Pi", "The Northlake Tavern & Pizza House");
+        assertMatches("Pi Tav", "The Northlake Tavern & Pizza House");
+        assertMatches("North", "The Northlake Tavern & Pizza House", "Northgate Station", "Northlake Way");
+        assertMatches("Northl Way", "Northlake Way");
+        assertTrue(places.allMatches("Tavern Hut").isEmpty());
+    }
+
+    @Example
+    void addAllInBatches() {
+        Autocomplete batched = new TokenAutocomplete(List.of("Northlake Way", "Tavern Law"));
+        batched.addAll(List.of("Pizza Hut", "The Northlake Tavern & Pizza House"));
+        batched.addAll(List.of("Northgate Station"));
+        for (String prefix : List.of("North", "Tavern", "Pizza", "Tav Pi", "Northl Way", "Station", "Law")) {
+            List<CharSequence> expected = places.allMatches(prefix);
+            List<CharSequence> actual = batched.allMatches(prefix);
+            assertEquals(expected.size(), actual.size(), () -> "matches for " + prefix + ": " + actual);
+            assertTrue(actual.containsAll(expected));
+        }
+    }
+
+    @Example
+    void emptyPrefix() {
+        assertTrue(places.allMatches("").isEmpty());
+        assertTrue(places.allMatches("   ").isEmpty());
+    }
+
+    @Property
+    void containsAllPrefixMatches(@ForAll("validPrefix") String prefix) {
+        List<CharSequence> actual = testing.allMatches(prefix);
+        assertTrue(actual.containsAll(reference.allMatches(prefix)));
+    }
+
+    @Provide
+    Arbitrary<String> validPrefix() {
+        Arbitrary<String> city = Arbitraries.of(CITIES);
+        return city.flatMap(s -> Arbitraries.integers().between(1, s.length()).map(i -> s.substring(0, i)));
+    }
+
+    /**
+     * Asserts that the place names instance returns exactly the expected terms ignoring order.
+     *
+     * @param prefix   the prefix string to pass to {@code allMatches}.
+     * @param expected the expected matching terms.
+     */
+    private void assertMatches(String prefix, String... expected) {
+        List<CharSequence> actual = places.allMatches(prefix);
+        assertEquals(expected.length, actual.size());
+        assertTrue(actual.containsAll(List.of(expected)));
+    }
+}
@@ -0,0 +1,219 @@
+package graphs;
+
+import graphs.shortestpaths.AStarSolver;
+import graphs.shortestpaths.DijkstraSolver;
+import graphs.shortestpaths.IntDijkstraSolver;
+import net.jqwik.api.Example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link LandmarkGraph} class, comparing its estimates with the shortest path distances from
+ * {@link IntDijkstraSolver} on random road-like graphs.
+ *
+ * @see LandmarkGraph
+ */
+public class LandmarkGraphTests {
+    /**
+     * Maximum relative difference between distances, since the landmark distances are stored as floats.
+     */
+    private static final double TOLERANCE = 1e-6;
+
+    @Example
+    void estimatesNeverOverestimate() {
+        Random random = new Random(373);
+        for (int trial = 0; trial < 30; trial += 1) {
+            AStarGraph<Integer> graph = randomGraph(random, 1 + random.nextInt(150));
+            CompactGraph<Integer> compact = compact(graph);
+            LandmarkGraph<Integer> landmarks = new LandmarkGraph<>(graph, compact, random.nextInt(9));
+            IntDijkstraSolver dijkstra = new IntDijkstraSolver(compact);
+            for (int s = 0; s < compact.numVertices(); s += 1) {
+                dijkstra.solve(s);
+                for (int t = 0; t < compact.numVertices(); t += 1) {
+                    double estimate = landmarks.estimatedDistance(s, t);
+                    assertTrue(estimate <= dijkstra.distTo(t), estimate + " > " + dijkstra.distTo(t));
+                    assertTrue(estimate >= compact.estimatedDistance(s, t));
+                    assertEquals(estimate, landmarks.estimatedDistance(compact.vertex(s), compact.vertex(t)));
+                }
+            }
+        }
+    }
+
+    @Example
+    void estimatesAreConsistent() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 30; trial += 1) {
+            AStarGraph<Integer> graph = randomGraph(random, 1 + random.nextInt(150));
+            CompactGraph<Integer> compact = compact(graph);
+            LandmarkGraph<Integer> landmarks = new LandmarkGraph<>(graph, compact, 8);
+            IntDijkstraSolver backward = new IntDijkstraSolver(new ReverseGraph(compact));
+            for (int t = 0; t < compact.numVertices(); t += 1) {
+                backward.solve(t);
+                for (int e = 0; e < compact.numEdges(); e += 1) {
+                    // Edges into vertices that cannot reach the goal are never on a path to the goal
+                    if (backward.distTo(compact.to(e)) == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    double from = landmarks.estimatedDistance(compact.from(e), t);
+                    double to = landmarks.estimatedDistance(compact.to(e), t);
+                    assertTrue(from <= compact.weight(e) + to + TOLERANCE,
+                            from + " > " + compact.weight(e) + " + " + to);
+                }
+            }
+        }
+    }
+
+    @Example
+    void estimatesFromLandmarksAreExact() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 20; trial += 1) {
+            AStarGraph<Integer> graph = randomGraph(random, 20 + random.nextInt(200));
+            CompactGraph<Integer> compact = compact(graph);
+            LandmarkGraph<Integer> landmarks = new LandmarkGraph<>(graph, compact, 4);
+            List<Integer> selected = landmarks.landmarks();
+            assertEquals(4, selected.size());
+            assertEquals(4, new HashSet<>(selected).size());
+            IntDijkstraSolver dijkstra = new IntDijkstraSolver(compact);
+            for (int landmark : selected) {
+                int l = compact.indexOf(landmark);
+                dijkstra.solve(l);
+                for (int v = 0; v < compact.numVertices(); v += 1) {
+                    double expected = dijkstra.distTo(v);
+                    if (expected < Double.POSITIVE_INFINITY) {
+                        assertEquals(expected, landmarks.estimatedDistance(l, v), TOLERANCE * Math.max(1, expected));
+                    }
+                }
+            }
+        }
+    }
+
+    @Example
+    void aStarWithLandmarksMatchesDijkstra() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 20; trial += 1) {
+            AStarGraph<Integer> graph = randomGraph(random, 1 + random.nextInt(300));
+            CompactGraph<Integer> compact = compact(graph);
+            LandmarkGraph<Integer> landmarks = new LandmarkGraph<>(graph, compact, 8);
+            for (int i = 0; i < 10; i += 1) {
+                int start = random.nextInt(compact.numVertices());
+                int goal = random.nextInt(compact.numVertices());
+                List<Integer> expected = new DijkstraSolver<>(graph, start).solution(goal);
+                List<Integer> actual = new AStarSolver<>(landmarks, start, goal).solution();
+                if (expected.size() == 1) {
+                    // The goal is the start or unreachable
+                    assertEquals(expected, actual);
+                    continue;
+                }
+                assertEquals(start, (int) actual.get(0));
+                assertEquals(goal, (int) actual.get(actual.size() - 1));
+                double expectedWeight = pathWeight(graph, expected);
+                assertEquals(expectedWeight, pathWeight(graph, actual), TOLERANCE * Math.max(1, expectedWeight));
+            }
+        }
+    }
+
+    @Example
+    void landmarkLimits() {
+        AStarGraph<Integer> graph = randomGraph(new Random(1), 10);
+        CompactGraph<Integer> compact = compact(graph);
+        assertThrows(IllegalArgumentException.class, () -> new LandmarkGraph<>(graph, compact, -1));
+        // Without landmarks, the estimates are the estimates of the original graph
+        LandmarkGraph<Integer> none = new LandmarkGraph<>(graph, compact, 0);
+        assertEquals(List.of(), none.landmarks());
+        for (int s = 0; s < compact.numVertices(); s += 1) {
+            for (int t = 0; t < compact.numVertices(); t += 1) {
+                assertEquals(compact.estimatedDistance(s, t), none.estimatedDistance(s, t));
+            }
+        }
+        // There cannot be more landmarks than vertices
+        assertEquals(compact.numVertices(), new LandmarkGraph<>(graph, compact, 100).landmarks().size());
+    }
+
+    /**
+     * Returns the total weight of the path using the lightest edge between each pair of consecutive vertices.
+     *
+     * @param graph the graph.
+     * @param path  the vertices on the path.
+     * @return the total weight of the path, or positive infinity if consecutive vertices are not adjacent.
+     */
+    private static double pathWeight(Graph<Integer> graph, List<Integer> path) {
+        double result = 0.0;
+        for (int i = 1; i < path.size(); i += 1) {
+            double lightest = Double.POSITIVE_INFINITY;
+            for (Edge<Integer> edge : graph.neighbors(path.get(i - 1))) {
+                if (edge.to.equals(path.get(i))) {
+                    lightest = Math.min(lightest, edge.weight);
+                }
+            }
+            result += lightest;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the compact graph of every vertex of a graph returned by {@link #randomGraph(Random, int)}.
+     *
+     * @param graph the random graph.
+     * @return the compact graph of every vertex of the random graph.
+     */
+    private static CompactGraph<Integer> compact(AStarGraph<Integer> graph) {
+        List<Integer> vertices = new ArrayList<>();
+        for (int v = 0; graph.neighbors(v) != null; v += 1) {
+            vertices.add(v);
+        }
+        return new CompactGraph<>(graph, vertices);
+    }
+
+    /**
+     * Returns a random road-like graph where each vertex in the unit square has edges to its nearest neighbors, most
+     * in both directions and some in only one direction, weighted by their length times a random congestion factor of
+     * at least 1. The estimated distance between vertices is their straight-line distance.
+     *
+     * @param random      the random number generator.
+     * @param numVertices the number of vertices.
+     * @return a random road-like graph, whose neighbors are null for vertices that are not in the graph.
+     */
+    private static AStarGraph<Integer> randomGraph(Random random, int numVertices) {
+        double[] xs = new double[numVertices];
+        double[] ys = new double[numVertices];
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        List<Integer> vertices = new ArrayList<>(numVertices);
+        for (int v = 0; v < numVertices; v += 1) {
+            xs[v] = random.nextDouble();
+            ys[v] = random.nextDouble();
+            adjacency.put(v, new ArrayList<>());
+            vertices.add(v);
+        }
+        for (int from = 0; from < numVertices; from += 1) {
+            int f = from;
+            List<Integer> nearest = new ArrayList<>(vertices);
+            nearest.sort((a, b) -> Double.compare(Math.hypot(xs[f] - xs[a], ys[f] - ys[a]),
+                    Math.hypot(xs[f] - xs[b], ys[f] - ys[b])));
+            for (int to : nearest.subList(1, Math.min(4, numVertices))) {
+                double length = Math.hypot(xs[from] - xs[to], ys[from] - ys[to]);
+                adjacency.get(from).add(new Edge<>(from, to, length * (1.01 + random.nextDouble(0.3))));
+                if (random.nextInt(5) > 0) {
+                    adjacency.get(to).add(new Edge<>(to, from, length * (1.01 + random.nextDouble(0.3))));
+                }
+            }
+        }
+        return new AStarGraph<>() {
+            @Override
+            public List<Edge<Integer>> neighbors(Integer vertex) {
+                return adjacency.get(vertex);
+            }
+
+            @Override
+            public double estimatedDistance(Integer start, Integer end) {
+                return Math.hypot(xs[start] - xs[end], ys[start] - ys[end]);
+            }
+        };
+    }
+}
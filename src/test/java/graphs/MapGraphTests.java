@@ -0,0 +1,440 @@
+package graphs;
+
+import graphs.shortestpaths.AStarSolver;
+import graphs.shortestpaths.IntDijkstraSolver;
+import net.jqwik.api.Example;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link MapGraph} class on a small grid of streets with one-way streets, a roundabout, and speed limits
+ * in several units.
+ *
+ * @see MapGraph
+ */
+public class MapGraphTests {
+    /**
+     * Path to the OpenStreetMap data for the grid, loaded as a resource.
+     */
+    private static final String OSM_PATH = "grid.osm.gz";
+    /**
+     * Path to the place-importance data for the grid, loaded as a resource.
+     */
+    private static final String PLACES_PATH = "grid-places.tsv";
+    /**
+     * Path to the access scores for the grid, loaded as a resource.
+     */
+    private static final String ACCESS_PATH = "grid-access.tsv";
+    /**
+     * Maximum relative difference between path weights, since the hierarchy adds weights as floats.
+     */
+    private static final double TOLERANCE = 1e-5;
+    private final SpatialContext context = SpatialContext.GEO;
+
+    @Example
+    void shortestPathMatchesDijkstraForEveryProfile() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        Random random = new Random(373);
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            assertShortestPaths(graph, profile, random);
+        }
+    }
+
+    @Example
+    void shortestPathMatchesDijkstraAfterOverridingWeights() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        Random random = new Random(42);
+        graph.overrideWeights(Map.of(1002L, 4.0f, 1003L, 2.5f, 2005L, Float.POSITIVE_INFINITY));
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            assertShortestPaths(graph, profile, random);
+        }
+        // A later batch replaces the factors for its ways and keeps the factors for the others
+        graph.overrideWeights(Map.of(1002L, 1.0f, 2007L, 10.0f));
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            assertShortestPaths(graph, profile, random);
+        }
+    }
+
+    @Example
+    void closuresMakeGoalsUnreachable() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        Point corner = graph.getLocations("Corner 0-0").get(0);
+        Point center = graph.getLocations("Corner 5-5").get(0);
+        // Close both streets through the corner, which stays in the largest strongly connected component
+        graph.overrideWeights(Map.of(1000L, Float.POSITIVE_INFINITY, 2000L, Float.POSITIVE_INFINITY));
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            assertEquals(List.of(corner), graph.shortestPath(center, corner, profile));
+            assertEquals(List.of(center), graph.shortestPath(corner, center, profile));
+            assertEquals(List.of(List.of(corner)), graph.alternativePaths(center, corner, 3, profile));
+        }
+        // Reopening one street makes the corner reachable again
+        graph.overrideWeights(Map.of(2000L, 1.0f));
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            for (List<Point> path : List.of(graph.shortestPath(center, corner, profile),
+                    graph.alternativePaths(center, corner, 3, profile).get(0))) {
+                assertTrue(path.size() > 1);
+                assertEquals(center, path.get(0));
+                assertEquals(corner, path.get(path.size() - 1));
+            }
+        }
+    }
+
+    @Example
+    void getLocationsInsideBounds() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        Random random = new Random(373);
+        // Bus stops have enough locations for their own spatial index, while the others are checked one by one
+        for (String name : List.of("Bus Stop", "Cafe", "Corner 3-4", "Roundabout East", "Nowhere")) {
+            for (int i = 0; i < 50; i += 1) {
+                double minLon = random.nextDouble(-122.301, -122.283);
+                double minLat = random.nextDouble(47.599, 47.611);
+                Rectangle bounds = context.getShapeFactory().rect(minLon, minLon + random.nextDouble(0.01),
+                        minLat, minLat + random.nextDouble(0.01));
+                List<Point> expected = new ArrayList<>();
+                for (Point location : graph.getLocations(name)) {
+                    if (bounds.getMinX() <= location.getLon() && location.getLon() <= bounds.getMaxX()
+                            && bounds.getMinY() <= location.getLat() && location.getLat() <= bounds.getMaxY()) {
+                        expected.add(location);
+                    }
+                }
+                List<Point> actual = graph.getLocations(name, bounds);
+                assertEquals(new HashSet<>(expected), new HashSet<>(actual), name + " inside " + bounds);
+                assertEquals(expected.size(), actual.size());
+            }
+        }
+        assertEquals(80, graph.getLocations("Bus Stop").size());
+        Rectangle everything = context.getShapeFactory().rect(-123, -122, 47, 48);
+        assertEquals(80, graph.getLocations("Bus Stop", everything).size());
+        assertEquals(List.of(), graph.getLocations("Nowhere", everything));
+    }
+
+    @Example
+    void overridingWeightsKeepsEarlierSnapshots() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        IntGraph before = graph.weightedGraph(MapGraph.Profile.SHORTEST);
+        double[] weights = weights(before);
+        graph.overrideWeights(Map.of(1000L, 3.0f));
+        IntGraph after = graph.weightedGraph(MapGraph.Profile.SHORTEST);
+        // Queries that started with the earlier snapshot must keep seeing its weights
+        assertArrayEquals(weights, weights(before));
+        int changed = 0;
+        for (int e = 0; e < weights.length; e += 1) {
+            if (after.weight(e) != weights[e]) {
+                assertEquals(3 * weights[e], after.weight(e), TOLERANCE * weights[e]);
+                changed += 1;
+            }
+        }
+        assertEquals(2 * 11, changed, "every edge in both directions along row 0");
+        // A batch that does not change any factor keeps the current snapshot
+        graph.overrideWeights(Map.of(1000L, 3.0f, 999_999L, 2.0f));
+        assertSame(after, graph.weightedGraph(MapGraph.Profile.SHORTEST));
+    }
+
+    @Example
+    void queriesSeeEitherTheOldOrTheNewSnapshot() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        Point start = graph.getLocations("Corner 0-0").get(0);
+        Point goal = graph.getLocations("Corner 11-11").get(0);
+        // Alternate between congestion on every row and congestion on every column
+        Map<Long, Float> rows = new HashMap<>();
+        Map<Long, Float> columns = new HashMap<>();
+        for (long i = 0; i < 12; i += 1) {
+            rows.put(1000 + i, 5.0f);
+            rows.put(2000 + i, 1.0f);
+            columns.put(1000 + i, 1.0f);
+            columns.put(2000 + i, 5.0f);
+        }
+        Map<MapGraph.Profile, List<List<Point>>> expected = new EnumMap<>(MapGraph.Profile.class);
+        graph.overrideWeights(rows);
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            expected.put(profile, new ArrayList<>(List.of(graph.shortestPath(start, goal, profile))));
+        }
+        graph.overrideWeights(columns);
+        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+            expected.get(profile).add(graph.shortestPath(start, goal, profile));
+            assertNotEquals(expected.get(profile).get(0), expected.get(profile).get(1), profile.toString());
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i += 1) {
+                readers.add(executor.submit(() -> {
+                    while (!done.get()) {
+                        for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+                            List<Point> path = graph.shortestPath(start, goal, profile);
+                            assertTrue(expected.get(profile).contains(path), profile + " path from a mixed snapshot");
+                        }
+                    }
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 50; i += 1) {
+                    graph.overrideWeights(i % 2 == 0 ? rows : columns);
+                }
+                done.set(true);
+            });
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    @Example
+    void onewayTags() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        for (int r = 0; r + 1 < 12; r += 1) {
+            // Column 3 is oneway=yes and column 9 is a motorway, which is one-way in the order of its nodes
+            for (int c : new int[]{3, 9}) {
+                assertTrue(hasEdge(graph, corner(graph, r, c), corner(graph, r + 1, c)), "column " + c);
+                assertFalse(hasEdge(graph, corner(graph, r + 1, c), corner(graph, r, c)), "column " + c);
+            }
+            // Column 6 is oneway=-1, which is one-way against the order of its nodes
+            assertFalse(hasEdge(graph, corner(graph, r, 6), corner(graph, r + 1, 6)));
+            assertTrue(hasEdge(graph, corner(graph, r + 1, 6), corner(graph, r, 6)));
+            // Column 10 is a motorway tagged oneway=no, and the other columns have no oneway tag
+            for (int c : new int[]{0, 5, 10}) {
+                assertTrue(hasEdge(graph, corner(graph, r, c), corner(graph, r + 1, c)), "column " + c);
+                assertTrue(hasEdge(graph, corner(graph, r + 1, c), corner(graph, r, c)), "column " + c);
+            }
+        }
+        // The roundabout is one-way in the order of its nodes without a oneway tag
+        List<Point> ring = new ArrayList<>();
+        for (String name : List.of("North", "East", "South", "West")) {
+            ring.add(graph.getLocations("Roundabout " + name).get(0));
+        }
+        for (int i = 0; i < ring.size(); i += 1) {
+            Point next = ring.get((i + 1) % ring.size());
+            assertTrue(hasEdge(graph, ring.get(i), next));
+            assertFalse(hasEdge(graph, next, ring.get(i)));
+        }
+        Point west = ring.get(3);
+        List<Point> path = graph.shortestPath(corner(graph, 5, 11), graph.getLocations("Roundabout South").get(0),
+                MapGraph.Profile.SHORTEST);
+        assertEquals(List.of(corner(graph, 5, 11), west, ring.get(0), ring.get(1), ring.get(2)), path);
+        // Footways are not routable, so their nodes are not in the graph
+        assertEquals(List.of(), graph.neighbors(graph.getLocations("Footway Start").get(0)));
+        assertEquals(-1, graph.indexOf(graph.getLocations("Footway End").get(0)));
+    }
+
+    @Example
+    void speedTags() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        IntGraph fastest = graph.weightedGraph(MapGraph.Profile.FASTEST);
+        // Rows cycle through maxspeed=50, residential without maxspeed, maxspeed="30 mph", and maxspeed=none
+        int[] rowSpeeds = {50, 25, 48, 40};
+        for (int r = 0; r < 12; r += 1) {
+            assertEquals(rowSpeeds[r % 4], speed(graph, fastest, corner(graph, r, 0), corner(graph, r, 1)), 0.01,
+                    "row " + r);
+        }
+        // Columns default to tertiary except for maxspeed="20 knots", maxspeed="40;30", and the motorways
+        Map<Integer, Integer> columnSpeeds = Map.of(0, 40, 1, 37, 2, 40, 3, 25, 9, 100, 10, 100);
+        for (Map.Entry<Integer, Integer> entry : columnSpeeds.entrySet()) {
+            int c = entry.getKey();
+            assertEquals(entry.getValue(), speed(graph, fastest, corner(graph, 0, c), corner(graph, 1, c)), 0.01,
+                    "column " + c);
+        }
+    }
+
+    @Example
+    void parseSpeedUnits() {
+        assertEquals(50, MapGraph.parseSpeed("50", 25));
+        assertEquals(60, MapGraph.parseSpeed("60 km/h", 25));
+        assertEquals(48, MapGraph.parseSpeed("30 mph", 25));
+        assertEquals(37, MapGraph.parseSpeed("20 knots", 25));
+        assertEquals(40, MapGraph.parseSpeed("40;30", 25));
+        assertEquals(25, MapGraph.parseSpeed(null, 25));
+        assertEquals(25, MapGraph.parseSpeed("none", 25));
+        assertEquals(25, MapGraph.parseSpeed("signals", 25));
+        assertEquals(25, MapGraph.parseSpeed("50 furlongs", 25));
+        assertEquals(1, MapGraph.parseSpeed("0", 25));
+        assertEquals(255, MapGraph.parseSpeed("300", 25));
+    }
+
+    @Example
+    void arcFlagsMatchTheHierarchy() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        Random random = new Random(13);
+        for (int round = 0; round < 2; round += 1) {
+            if (round == 1) {
+                // The arc flags are recomputed for the new weights
+                graph.overrideWeights(Map.of(1002L, 4.0f, 2004L, 3.0f, 2005L, Float.POSITIVE_INFINITY));
+            }
+            for (MapGraph.Profile profile : MapGraph.Profile.values()) {
+                IntGraph weighted = graph.weightedGraph(profile);
+                for (int i = 0; i < 20; i += 1) {
+                    Point start = graph.closest(randomPoint(random));
+                    Point goal = graph.closest(randomPoint(random));
+                    double expected = pathWeight(graph, weighted, graph.shortestPath(start, goal, profile));
+                    List<Point> path = graph.shortestPath(start, goal, profile, MapGraph.Speedup.ARC_FLAGS);
+                    assertEquals(start, path.get(0));
+                    assertEquals(goal, path.get(path.size() - 1));
+                    assertEquals(expected, pathWeight(graph, weighted, path), TOLERANCE * expected,
+                            profile + " path from " + start + " to " + goal);
+                }
+            }
+        }
+        // Closing both streets through the corner makes it unreachable
+        graph.overrideWeights(Map.of(1000L, Float.POSITIVE_INFINITY, 2000L, Float.POSITIVE_INFINITY));
+        Point corner = graph.getLocations("Corner 0-0").get(0);
+        Point center = graph.getLocations("Corner 5-5").get(0);
+        assertEquals(List.of(corner),
+                graph.shortestPath(center, corner, MapGraph.Profile.SHORTEST, MapGraph.Speedup.ARC_FLAGS));
+    }
+
+    @Example
+    void aStarWithLandmarksMatchesShortestPath() throws Exception {
+        MapGraph graph = new MapGraph(OSM_PATH, PLACES_PATH, ACCESS_PATH, context);
+        LandmarkGraph<Point> landmarks = graph.landmarks(8);
+        assertEquals(8, landmarks.landmarks().size());
+        IntGraph weighted = graph.weightedGraph(MapGraph.Profile.SHORTEST);
+        Random random = new Random(11);
+        for (int i = 0; i < 20; i += 1) {
+            Point start = graph.closest(randomPoint(random));
+            Point goal = graph.closest(randomPoint(random));
+            double expected = pathWeight(graph, weighted, graph.shortestPath(start, goal));
+            List<Point> path = new AStarSolver<>(landmarks, start, goal).solution();
+            assertEquals(start, path.get(0));
+            assertEquals(goal, path.get(path.size() - 1));
+            assertEquals(expected, pathWeight(graph, weighted, path), TOLERANCE * expected);
+        }
+    }
+
+    /**
+     * Returns the location of the grid corner in the given row and column.
+     *
+     * @param graph  the grid.
+     * @param row    the row of the corner.
+     * @param column the column of the corner.
+     * @return the location of the grid corner.
+     */
+    private static Point corner(MapGraph graph, int row, int column) {
+        return graph.getLocations("Corner " + row + "-" + column).get(0);
+    }
+
+    /**
+     * Returns whether the graph has an edge from one location to another.
+     *
+     * @param graph the map graph.
+     * @param from  the originating location.
+     * @param to    the destination location.
+     * @return whether the graph has an edge from one location to another.
+     */
+    private static boolean hasEdge(MapGraph graph, Point from, Point to) {
+        for (Edge<Point> edge : graph.neighbors(from)) {
+            if (edge.to.equals(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the speed in kilometers per hour along the edge between adjacent locations, which is its length divided
+     * by its travel time.
+     *
+     * @param graph   the map graph.
+     * @param fastest the compact graph with the weights of the fastest routing profile.
+     * @param from    the originating location.
+     * @param to      the destination location.
+     * @return the speed in kilometers per hour along the edge.
+     */
+    private static double speed(MapGraph graph, IntGraph fastest, Point from, Point to) {
+        double kilometers = graph.estimatedDistance(from, to) * DistanceUtils.DEG_TO_KM;
+        return kilometers / pathWeight(graph, fastest, List.of(from, to)) * 3600;
+    }
+
+    /**
+     * Asserts that the paths for the routing profile between random locations on the grid cost the same as the
+     * shortest paths from {@link IntDijkstraSolver} on the graph weighted for the profile.
+     *
+     * @param graph   the grid.
+     * @param profile the routing profile.
+     * @param random  the random number generator for choosing the locations.
+     */
+    private void assertShortestPaths(MapGraph graph, MapGraph.Profile profile, Random random) {
+        IntGraph weighted = graph.weightedGraph(profile);
+        IntDijkstraSolver dijkstra = new IntDijkstraSolver(weighted);
+        for (int i = 0; i < 20; i += 1) {
+            Point start = graph.closest(randomPoint(random));
+            Point goal = graph.closest(randomPoint(random));
+            List<Point> path = graph.shortestPath(start, goal, profile);
+            assertEquals(start, path.get(0));
+            assertEquals(goal, path.get(path.size() - 1));
+            dijkstra.solve(graph.indexOf(start));
+            double expected = dijkstra.distTo(graph.indexOf(goal));
+            double actual = pathWeight(graph, weighted, path);
+            assertEquals(expected, actual, TOLERANCE * expected, profile + " path from " + start + " to " + goal);
+        }
+    }
+
+    /**
+     * Returns the weight of each edge in the graph.
+     *
+     * @param graph the graph.
+     * @return the weight of each edge in the graph.
+     */
+    private static double[] weights(IntGraph graph) {
+        double[] result = new double[graph.numEdges()];
+        for (int e = 0; e < result.length; e += 1) {
+            result[e] = graph.weight(e);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a random location within the grid.
+     *
+     * @param random the random number generator.
+     * @return a random location within the grid.
+     */
+    private Point randomPoint(Random random) {
+        return context.getShapeFactory().pointLatLon(random.nextDouble(47.6, 47.611),
+                random.nextDouble(-122.3, -122.2835));
+    }
+
+    /**
+     * Returns the total weight of the path using the lightest edge between each pair of consecutive locations.
+     *
+     * @param graph    the map graph.
+     * @param weighted the compact graph with the weights of a routing profile.
+     * @param path     the locations on the path.
+     * @return the total weight of the path, or positive infinity if consecutive locations are not adjacent.
+     */
+    private static double pathWeight(MapGraph graph, IntGraph weighted, List<Point> path) {
+        double result = 0.0;
+        for (int i = 1; i < path.size(); i += 1) {
+            int from = graph.indexOf(path.get(i - 1));
+            int to = graph.indexOf(path.get(i));
+            double lightest = Double.POSITIVE_INFINITY;
+            for (int e = weighted.firstEdge(from); e < weighted.endEdge(from); e += 1) {
+                if (weighted.to(e) == to) {
+                    lightest = Math.min(lightest, weighted.weight(e));
+                }
+            }
+            result += lightest;
+        }
+        return result;
+    }
+}
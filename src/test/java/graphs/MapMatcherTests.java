@@ -0,0 +1,227 @@
+package graphs;
+
+import net.jqwik.api.Example;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link MapMatcher} class on synthetic GPS traces along the streets of the grid used by
+ * {@link MapGraphTests}.
+ *
+ * @see MapMatcher
+ */
+public class MapMatcherTests {
+    /**
+     * Number of meters per degree of distance.
+     */
+    private static final double METERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 1000;
+    /**
+     * Number of GPS points in the window of the map matcher.
+     */
+    private static final int WINDOW = 32;
+    /**
+     * Largest distance in meters of the GPS noise added to the synthetic traces.
+     */
+    private static final double NOISE = 4.0;
+    private final SpatialContext context = SpatialContext.GEO;
+
+    @Example
+    void traceAlongKnownEdgesMatchesThoseEdges() throws Exception {
+        MapGraph graph = graph();
+        Random random = new Random(373);
+        // East along row 2 from column 0 to column 5, then north along column 5 from row 2 to row 8
+        List<Point> corners = new ArrayList<>();
+        List<Long> wayIds = new ArrayList<>();
+        for (int c = 0; c <= 5; c += 1) {
+            corners.add(corner(graph, 2, c));
+            wayIds.add(1002L);
+        }
+        for (int r = 3; r <= 8; r += 1) {
+            corners.add(corner(graph, r, 5));
+            wayIds.add(2005L);
+        }
+        List<Point> trace = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        List<Integer> segments = new ArrayList<>();
+        for (int i = 1; i < corners.size(); i += 1) {
+            // Stay away from the corners, where the GPS point is as close to the crossing street
+            for (double t = 0.1; t <= 0.9; t += 0.1) {
+                trace.add(noisy(random, interpolate(corners.get(i - 1), corners.get(i), t)));
+                expected.add(wayIds.get(i));
+                segments.add(i);
+            }
+        }
+        List<MapMatcher.Match> matches = graph.matchTraces(List.of(trace)).get(0);
+        assertEquals(trace.size(), matches.size());
+        for (int i = 0; i < trace.size(); i += 1) {
+            MapMatcher.Match match = matches.get(i);
+            assertSame(trace.get(i), match.observation());
+            assertEquals((long) expected.get(i), match.wayId(), "GPS point " + i);
+            int segment = segments.get(i);
+            double meters = segmentDistance(match.location(), corners.get(segment - 1), corners.get(segment));
+            assertTrue(meters < 1.0, "GPS point " + i + " is matched " + meters + " m from its street");
+        }
+    }
+
+    @Example
+    void streamingMatchesTheWholeTrace() throws Exception {
+        MapGraph graph = graph();
+        Random random = new Random(42);
+        int longTraces = 0;
+        for (int trial = 0; trial < 10; trial += 1) {
+            Point start = corner(graph, random.nextInt(12), random.nextInt(12));
+            Point goal = corner(graph, random.nextInt(12), random.nextInt(12));
+            List<Point> trace = sample(random, graph.shortestPath(start, goal, MapGraph.Profile.SHORTEST));
+            if (trace.size() <= WINDOW) {
+                continue;
+            }
+            List<MapMatcher.Match> expected = graph.matchTraces(List.of(trace)).get(0);
+            List<MapMatcher.Match> actual = new ArrayList<>();
+            int[] read = new int[1];
+            Iterator<Point> points = trace.iterator();
+            Iterator<Point> counting = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return points.hasNext();
+                }
+
+                @Override
+                public Point next() {
+                    read[0] += 1;
+                    return points.next();
+                }
+            };
+            graph.matchTrace(counting, match -> {
+                // Each match is output at most WINDOW GPS points after its GPS point is read
+                assertTrue(read[0] - actual.size() <= WINDOW, read[0] + " points read before match " + actual.size());
+                actual.add(match);
+            });
+            assertEquals(expected, actual);
+            longTraces += 1;
+        }
+        assertTrue(longTraces > 5, "only " + longTraces + " traces are longer than the window");
+    }
+
+    @Example
+    void offMapPointsAreUnmatched() throws Exception {
+        MapGraph graph = graph();
+        Point far = context.getShapeFactory().pointLatLon(47.0, -121.0);
+        assertEquals(List.of(new MapMatcher.Match(far, null, -1)), graph.matchTraces(List.of(List.of(far))).get(0));
+        // Unmatched points inside a trace split it without losing the points on either side
+        List<Point> trace = sample(new Random(7),
+                graph.shortestPath(corner(graph, 4, 0), corner(graph, 4, 11), MapGraph.Profile.SHORTEST));
+        int middle = trace.size() / 2;
+        trace.add(middle, far);
+        trace.add(0, far);
+        trace.add(far);
+        List<MapMatcher.Match> matches = graph.matchTraces(List.of(trace)).get(0);
+        assertEquals(trace.size(), matches.size());
+        for (int i = 0; i < trace.size(); i += 1) {
+            MapMatcher.Match match = matches.get(i);
+            assertSame(trace.get(i), match.observation());
+            if (trace.get(i) == far) {
+                assertEquals(new MapMatcher.Match(far, null, -1), match);
+            } else {
+                assertEquals(1004L, match.wayId(), "GPS point " + i);
+            }
+        }
+        List<MapMatcher.Match> streamed = new ArrayList<>();
+        graph.matchTrace(trace.iterator(), streamed::add);
+        assertEquals(matches, streamed);
+    }
+
+    /**
+     * Returns a new map graph of the grid.
+     *
+     * @return a new map graph of the grid.
+     * @throws Exception if the grid cannot be loaded.
+     */
+    private MapGraph graph() throws Exception {
+        return new MapGraph("grid.osm.gz", "grid-places.tsv", "grid-access.tsv", context);
+    }
+
+    /**
+     * Returns the location of the grid corner in the given row and column.
+     *
+     * @param graph  the map graph of the grid.
+     * @param row    the row of the corner.
+     * @param column the column of the corner.
+     * @return the location of the grid corner.
+     */
+    private static Point corner(MapGraph graph, int row, int column) {
+        return graph.getLocations("Corner " + row + "-" + column).get(0);
+    }
+
+    /**
+     * Returns noisy GPS points about every 10 meters along the path.
+     *
+     * @param random the random number generator.
+     * @param path   the points on the path.
+     * @return noisy GPS points along the path.
+     */
+    private List<Point> sample(Random random, List<Point> path) {
+        List<Point> result = new ArrayList<>();
+        for (int i = 1; i < path.size(); i += 1) {
+            double meters = context.calcDistance(path.get(i - 1), path.get(i)) * METERS_PER_DEGREE;
+            int steps = Math.max(1, (int) (meters / 10.0));
+            for (int j = 0; j < steps; j += 1) {
+                result.add(noisy(random, interpolate(path.get(i - 1), path.get(i), (double) j / steps)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the point the given fraction of the way from one point to another.
+     *
+     * @param a the first point.
+     * @param b the second point.
+     * @param t the fraction of the way from the first point to the second point.
+     * @return the point the given fraction of the way from one point to another.
+     */
+    private Point interpolate(Point a, Point b, double t) {
+        return context.getShapeFactory().pointLatLon(a.getLat() + t * (b.getLat() - a.getLat()),
+                a.getLon() + t * (b.getLon() - a.getLon()));
+    }
+
+    /**
+     * Returns the point moved by a random offset of up to {@link #NOISE} meters in each direction.
+     *
+     * @param random the random number generator.
+     * @param point  the point.
+     * @return the point moved by a random offset.
+     */
+    private Point noisy(Random random, Point point) {
+        double scale = Math.cos(Math.toRadians(point.getLat()));
+        double lat = point.getLat() + random.nextDouble(-NOISE, NOISE) / METERS_PER_DEGREE;
+        double lon = point.getLon() + random.nextDouble(-NOISE, NOISE) / METERS_PER_DEGREE / scale;
+        return context.getShapeFactory().pointLatLon(lat, lon);
+    }
+
+    /**
+     * Returns the distance in meters from the point to the segment between two points on a plane where degrees of
+     * longitude are scaled to degrees of latitude.
+     *
+     * @param point the point.
+     * @param a     the first endpoint of the segment.
+     * @param b     the second endpoint of the segment.
+     * @return the distance in meters from the point to the segment.
+     */
+    private static double segmentDistance(Point point, Point a, Point b) {
+        double scale = Math.cos(Math.toRadians(point.getLat()));
+        double px = (point.getLon() - a.getLon()) * scale;
+        double py = point.getLat() - a.getLat();
+        double dx = (b.getLon() - a.getLon()) * scale;
+        double dy = b.getLat() - a.getLat();
+        double t = Math.max(0.0, Math.min(1.0, (px * dx + py * dy) / (dx * dx + dy * dy)));
+        return Math.hypot(px - t * dx, py - t * dy) * METERS_PER_DEGREE;
+    }
+}
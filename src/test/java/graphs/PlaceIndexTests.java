@@ -0,0 +1,211 @@
+package graphs;
+
+import net.jqwik.api.Example;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link PlaceIndex} class, comparing every query with a brute-force search over every place.
+ *
+ * @see PlaceIndex
+ */
+public class PlaceIndexTests {
+    /**
+     * Number of meters per degree of distance.
+     */
+    private static final double METERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 1000;
+    private final SpatialContext context = SpatialContext.GEO;
+
+    @Example
+    void insideMatchesBruteForce() {
+        Random random = new Random(373);
+        for (int trial = 0; trial < 50; trial += 1) {
+            List<PlaceIndex.Place> all = randomPlaces(random, random.nextInt(500));
+            PlaceIndex index = index(all);
+            assertEquals(all.size(), index.size());
+            for (int i = 0; i < 20; i += 1) {
+                double minLon = random.nextDouble(-122.45, -122.2);
+                double minLat = random.nextDouble(47.5, 47.75);
+                Rectangle bounds = context.getShapeFactory().rect(minLon, minLon + random.nextDouble(0.2),
+                        minLat, minLat + random.nextDouble(0.2));
+                List<PlaceIndex.Place> expected = new ArrayList<>();
+                for (PlaceIndex.Place place : all) {
+                    Point location = place.location();
+                    if (bounds.getMinX() <= location.getLon() && location.getLon() <= bounds.getMaxX()
+                            && bounds.getMinY() <= location.getLat() && location.getLat() <= bounds.getMaxY()) {
+                        expected.add(place);
+                    }
+                }
+                List<PlaceIndex.Place> actual = index.inside(bounds);
+                assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+                assertEquals(expected.size(), actual.size());
+                assertByImportance(actual);
+                assertEquals(new HashSet<>(expected), new HashSet<>(index.insideUnordered(bounds)));
+            }
+        }
+    }
+
+    @Example
+    void withinMatchesBruteForce() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 50; trial += 1) {
+            List<PlaceIndex.Place> all = randomPlaces(random, random.nextInt(500));
+            PlaceIndex index = index(all);
+            double scale = scale(all);
+            for (int i = 0; i < 20; i += 1) {
+                Point target = randomPoint(random);
+                double radius = random.nextDouble(5000);
+                List<PlaceIndex.Place> expected = new ArrayList<>();
+                for (PlaceIndex.Place place : all) {
+                    if (distance(target, place.location(), scale) * METERS_PER_DEGREE <= radius) {
+                        expected.add(place);
+                    }
+                }
+                List<PlaceIndex.Place> actual = index.within(target, radius);
+                assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+                assertEquals(expected.size(), actual.size());
+                assertByImportance(actual);
+            }
+        }
+    }
+
+    @Example
+    void nearestMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 50; trial += 1) {
+            List<PlaceIndex.Place> all = randomPlaces(random, random.nextInt(500));
+            PlaceIndex index = index(all);
+            double scale = scale(all);
+            for (int i = 0; i < 20; i += 1) {
+                Point target = randomPoint(random);
+                int k = random.nextInt(12);
+                List<PlaceIndex.Place> expected = new ArrayList<>(all);
+                expected.sort(Comparator.comparingDouble(place -> score(target, place, scale)));
+                expected = expected.subList(0, Math.min(k, expected.size()));
+                assertEquals(expected, index.nearest(target, k));
+            }
+        }
+    }
+
+    @Example
+    void emptyIndex() {
+        PlaceIndex index = new PlaceIndex(Map.of(), Map.of());
+        Point target = context.getShapeFactory().pointLatLon(47.6, -122.3);
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.nearest(target, 5));
+        assertEquals(List.of(), index.within(target, 1000));
+        assertEquals(List.of(), index.inside(context.getShapeFactory().rect(-123, -122, 47, 48)));
+    }
+
+    /**
+     * Asserts that the places are ordered by greatest importance.
+     *
+     * @param places the places.
+     */
+    private static void assertByImportance(List<PlaceIndex.Place> places) {
+        for (int i = 1; i < places.size(); i += 1) {
+            assertTrue(places.get(i - 1).importance() >= places.get(i).importance());
+        }
+    }
+
+    /**
+     * Returns the given number of random places in Seattle, where some names have several locations and some names
+     * are missing from the importance data.
+     *
+     * @param random    the random number generator.
+     * @param numPlaces the number of places.
+     * @return the random places.
+     */
+    private List<PlaceIndex.Place> randomPlaces(Random random, int numPlaces) {
+        List<PlaceIndex.Place> result = new ArrayList<>(numPlaces);
+        Map<String, Integer> importance = new HashMap<>();
+        for (int i = 0; i < numPlaces; i += 1) {
+            String name = "Place " + random.nextInt(Math.max(1, numPlaces / 2));
+            if (!importance.containsKey(name)) {
+                importance.put(name, random.nextInt(4) == 0 ? 0 : random.nextInt(10_000));
+            }
+            result.add(new PlaceIndex.Place(name, randomPoint(random), importance.get(name)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new index over the places.
+     *
+     * @param places the places.
+     * @return a new index over the places.
+     */
+    private static PlaceIndex index(List<PlaceIndex.Place> places) {
+        Map<String, List<Point>> locations = new HashMap<>();
+        Map<String, Integer> importance = new HashMap<>();
+        for (PlaceIndex.Place place : places) {
+            locations.computeIfAbsent(place.name(), name -> new ArrayList<>()).add(place.location());
+            if (place.importance() > 0) {
+                importance.put(place.name(), place.importance());
+            }
+        }
+        return new PlaceIndex(locations, importance);
+    }
+
+    /**
+     * Returns a random location in Seattle.
+     *
+     * @param random the random number generator.
+     * @return a random location in Seattle.
+     */
+    private Point randomPoint(Random random) {
+        return context.getShapeFactory().pointLatLon(random.nextDouble(47.5, 47.75), random.nextDouble(-122.45, -122.2));
+    }
+
+    /**
+     * Returns the number of degrees of latitude per degree of longitude at the mean latitude of the places.
+     *
+     * @param places the places.
+     * @return the number of degrees of latitude per degree of longitude.
+     */
+    private static double scale(List<PlaceIndex.Place> places) {
+        double sumLat = 0.0;
+        for (PlaceIndex.Place place : places) {
+            sumLat += place.location().getLat();
+        }
+        return places.isEmpty() ? 1.0 : Math.cos(Math.toRadians(sumLat / places.size()));
+    }
+
+    /**
+     * Returns the distance between the points in degrees of latitude on a plane where degrees of longitude are
+     * multiplied by the given scale.
+     *
+     * @param a     the first point.
+     * @param b     the second point.
+     * @param scale the number of degrees of latitude per degree of longitude.
+     * @return the distance between the points in degrees of latitude.
+     */
+    private static double distance(Point a, Point b, double scale) {
+        return Math.hypot((a.getLon() - b.getLon()) * scale, a.getLat() - b.getLat());
+    }
+
+    /**
+     * Returns the distance from the target to the place divided by its importance weight, which grows with the
+     * logarithm of its importance.
+     *
+     * @param target the target location.
+     * @param place  the place.
+     * @param scale  the number of degrees of latitude per degree of longitude.
+     * @return the distance from the target to the place divided by its importance weight.
+     */
+    private static double score(Point target, PlaceIndex.Place place, double scale) {
+        return distance(target, place.location(), scale) / (1.0 + Math.log10(1.0 + place.importance()));
+    }
+}
@@ -0,0 +1,164 @@
+package graphs;
+
+import net.jqwik.api.Example;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link Route} class.
+ *
+ * @see Route
+ */
+public class RouteTests {
+    /**
+     * Number of meters per degree of distance.
+     */
+    private static final double METERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 1000;
+    private final SpatialContext context = SpatialContext.GEO;
+
+    @Example
+    void simplifyKeepsEndpointsAndStaysWithinTolerance() {
+        Random random = new Random(373);
+        List<Point> points = new ArrayList<>();
+        Point point = context.getShapeFactory().pointLatLon(47.65, -122.3);
+        for (int i = 0; i < 300; i += 1) {
+            points.add(point);
+            point = move(point, random.nextDouble(360), random.nextDouble(5, 50));
+        }
+        Route route = new Route(points, context);
+        double scale = Math.cos(Math.toRadians(points.get(0).getLat()));
+        for (double tolerance : new double[]{0.0, 1e-5, 1e-4, 1e-3, 1.0}) {
+            List<Point> simplified = route.simplify(tolerance);
+            assertEquals(points.get(0), simplified.get(0));
+            assertEquals(points.get(points.size() - 1), simplified.get(simplified.size() - 1));
+            // The simplified points must be a subsequence, and every removed point must be within the tolerance of the
+            // segment between the kept points around it
+            int j = 0;
+            for (int i = 1; i < simplified.size(); i += 1) {
+                int next = points.indexOf(simplified.get(i));
+                assertTrue(next > j, "simplified points must be in order");
+                for (int k = j + 1; k < next; k += 1) {
+                    double dist = segmentDistance(points.get(k), points.get(j), points.get(next), scale);
+                    assertTrue(dist <= tolerance, "removed point " + k + " is " + dist + " from the simplified route");
+                }
+                j = next;
+            }
+            if (tolerance == 0.0) {
+                assertEquals(points.size(), simplified.size());
+            }
+            if (tolerance == 1.0) {
+                assertEquals(2, simplified.size());
+            }
+        }
+    }
+
+    @Example
+    void simplifyRemovesCollinearPoints() {
+        List<Point> points = new ArrayList<>();
+        Point point = context.getShapeFactory().pointLatLon(47.65, -122.3);
+        for (int i = 0; i < 10; i += 1) {
+            points.add(point);
+            point = move(point, 0, 20);
+        }
+        List<Point> simplified = new Route(points, context).simplify(1e-7);
+        assertEquals(List.of(points.get(0), points.get(9)), simplified);
+    }
+
+    @Example
+    void simplifyShortRoutes() {
+        Point a = context.getShapeFactory().pointLatLon(47.65, -122.3);
+        Point b = move(a, 90, 100);
+        assertEquals(List.of(), new Route(List.of(), context).simplify(1.0));
+        assertEquals(List.of(a), new Route(List.of(a), context).simplify(1.0));
+        assertEquals(List.of(a, b), new Route(List.of(a, b), context).simplify(1.0));
+    }
+
+    @Example
+    void maneuversClassifyTurns() {
+        List<Point> points = new ArrayList<>();
+        Point point = context.getShapeFactory().pointLatLon(47.65, -122.3);
+        points.add(point);
+        // Each leg has several edges that bend by less than the straight angle, which are aggregated
+        double[] headings = {0, 10, 90, 100, 0, 200, 245, 245};
+        for (double heading : headings) {
+            point = move(point, heading, 100);
+            points.add(point);
+            point = move(point, heading, 100);
+            points.add(point);
+        }
+        List<Route.Maneuver> maneuvers = new Route(points, context).maneuvers();
+        List<String> turns = maneuvers.stream().map(Route.Maneuver::turn).toList();
+        assertEquals(List.of("depart", "right", "left", "sharp left", "slight right", "arrive"), turns);
+        // 0 to 10 degrees is straight, 10 to 90 is right, 100 to 0 is left, 0 to 200 is sharp left, 200 to 245 is
+        // slight right
+        assertEquals(0, maneuvers.get(0).heading(), 1);
+        assertEquals(90, maneuvers.get(1).heading(), 1);
+        assertEquals(0, maneuvers.get(2).heading(), 1);
+        assertEquals(200, maneuvers.get(3).heading(), 1);
+        assertEquals(245, maneuvers.get(4).heading(), 1);
+
+        Route route = new Route(points, context);
+        double distance = 0.0;
+        for (Route.Maneuver maneuver : maneuvers) {
+            assertEquals(distance, maneuver.distance(), 1e-6);
+            distance += maneuver.length();
+        }
+        assertEquals(route.distance(), distance, 1e-6);
+        Route.Maneuver arrive = maneuvers.get(maneuvers.size() - 1);
+        assertEquals(0.0, arrive.length());
+        assertEquals(points.get(points.size() - 1).getLat(), arrive.lat());
+        assertEquals(points.get(points.size() - 1).getLon(), arrive.lon());
+    }
+
+    @Example
+    void maneuversForShortRoutes() {
+        assertTrue(new Route(List.of(), context).maneuvers().isEmpty());
+        Point a = context.getShapeFactory().pointLatLon(47.65, -122.3);
+        List<Route.Maneuver> maneuvers = new Route(List.of(a, a), context).maneuvers();
+        assertEquals(1, maneuvers.size());
+        assertEquals("arrive", maneuvers.get(0).turn());
+        assertEquals(0.0, maneuvers.get(0).distance());
+    }
+
+    /**
+     * Returns the point the given number of meters from the start in the given compass heading.
+     *
+     * @param start   the start point.
+     * @param heading the heading in degrees clockwise from north.
+     * @param meters  the distance in meters.
+     * @return the point the given distance from the start in the given heading.
+     */
+    private Point move(Point start, double heading, double meters) {
+        double lat = start.getLat() + meters * Math.cos(Math.toRadians(heading)) / METERS_PER_DEGREE;
+        double lon = start.getLon() + meters * Math.sin(Math.toRadians(heading))
+                / (METERS_PER_DEGREE * Math.cos(Math.toRadians(start.getLat())));
+        return context.getShapeFactory().pointLatLon(lat, lon);
+    }
+
+    /**
+     * Returns the distance from the point to the line segment between a and b on a plane where degrees of longitude
+     * are multiplied by the given scale.
+     *
+     * @param p     the point.
+     * @param a     the start of the line segment.
+     * @param b     the end of the line segment.
+     * @param scale the number of degrees of latitude per degree of longitude.
+     * @return the distance in degrees of latitude from the point to the line segment.
+     */
+    private static double segmentDistance(Point p, Point a, Point b, double scale) {
+        double dx = (b.getLon() - a.getLon()) * scale;
+        double dy = b.getLat() - a.getLat();
+        double px = (p.getLon() - a.getLon()) * scale;
+        double py = p.getLat() - a.getLat();
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? Math.clamp((px * dx + py * dy) / lengthSquared, 0.0, 1.0) : 0.0;
+        return Math.hypot(px - t * dx, py - t * dy);
+    }
+}
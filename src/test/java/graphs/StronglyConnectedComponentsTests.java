@@ -0,0 +1,162 @@
+package graphs;
+
+import net.jqwik.api.Example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link StronglyConnectedComponents} class.
+ *
+ * @see StronglyConnectedComponents
+ */
+public class StronglyConnectedComponentsTests {
+    @Example
+    void longOneWayChain() {
+        // Long enough to overflow the call stack with a recursive depth-first search
+        int n = 200_000;
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        for (int v = 0; v < n; v += 1) {
+            adjacency.put(v, v + 1 < n ? List.of(new Edge<>(v, v + 1, 1.0)) : List.of());
+        }
+        CompactGraph<Integer> graph = compact(adjacency);
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        assertEquals(n, components.numComponents());
+        assertEquals(1, components.size(components.largest()));
+        assertFalse(components.isConnected(graph.indexOf(0), graph.indexOf(n - 1)));
+        assertFalse(components.isConnected(graph.indexOf(0), graph.indexOf(1)));
+        assertTrue(components.isConnected(graph.indexOf(7), graph.indexOf(7)));
+    }
+
+    @Example
+    void longTwoWayChain() {
+        int n = 200_000;
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        for (int v = 0; v < n; v += 1) {
+            adjacency.put(v, new ArrayList<>());
+        }
+        for (int v = 0; v + 1 < n; v += 1) {
+            adjacency.get(v).add(new Edge<>(v, v + 1, 1.0));
+            adjacency.get(v + 1).add(new Edge<>(v + 1, v, 1.0));
+        }
+        CompactGraph<Integer> graph = compact(adjacency);
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        assertEquals(1, components.numComponents());
+        assertEquals(n, components.size(components.largest()));
+        assertTrue(components.isConnected(graph.indexOf(0), graph.indexOf(n - 1)));
+    }
+
+    @Example
+    void twoCyclesJoinedByOneWayEdge() {
+        // 0 -> 1 -> 2 -> 3 -> 4 -> 0 and 5 -> 6 -> 7 -> 5 joined by 2 -> 6
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        for (int v = 0; v < 8; v += 1) {
+            adjacency.put(v, new ArrayList<>());
+        }
+        for (int v = 0; v < 5; v += 1) {
+            adjacency.get(v).add(new Edge<>(v, (v + 1) % 5, 1.0));
+        }
+        for (int v = 5; v < 8; v += 1) {
+            adjacency.get(v).add(new Edge<>(v, 5 + (v - 4) % 3, 1.0));
+        }
+        adjacency.get(2).add(new Edge<>(2, 6, 1.0));
+        CompactGraph<Integer> graph = compact(adjacency);
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        assertEquals(2, components.numComponents());
+        int first = components.component(graph.indexOf(0));
+        int second = components.component(graph.indexOf(5));
+        assertEquals(first, components.largest());
+        assertEquals(5, components.size(first));
+        assertEquals(3, components.size(second));
+        for (int u = 0; u < 8; u += 1) {
+            for (int v = 0; v < 8; v += 1) {
+                assertEquals((u < 5) == (v < 5), components.isConnected(graph.indexOf(u), graph.indexOf(v)),
+                        u + " and " + v);
+            }
+        }
+    }
+
+    @Example
+    void emptyGraph() {
+        StronglyConnectedComponents components = new StronglyConnectedComponents(compact(Map.of()));
+        assertEquals(0, components.numComponents());
+        assertEquals(-1, components.largest());
+    }
+
+    @Example
+    void randomGraphsMatchReachability() {
+        Random random = new Random(373);
+        for (int trial = 0; trial < 200; trial += 1) {
+            int n = 1 + random.nextInt(40);
+            Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+            for (int v = 0; v < n; v += 1) {
+                adjacency.put(v, new ArrayList<>());
+            }
+            int numEdges = random.nextInt(2 * n + 1);
+            for (int i = 0; i < numEdges; i += 1) {
+                int from = random.nextInt(n);
+                int to = random.nextInt(n);
+                adjacency.get(from).add(new Edge<>(from, to, 1.0));
+            }
+            CompactGraph<Integer> graph = compact(adjacency);
+            StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+            boolean[][] reachable = new boolean[n][];
+            for (int u = 0; u < n; u += 1) {
+                reachable[u] = reachable(graph, u);
+            }
+            int[] sizes = new int[components.numComponents()];
+            for (int u = 0; u < n; u += 1) {
+                sizes[components.component(u)] += 1;
+                for (int v = 0; v < n; v += 1) {
+                    assertEquals(reachable[u][v] && reachable[v][u], components.isConnected(u, v));
+                }
+            }
+            for (int c = 0; c < sizes.length; c += 1) {
+                assertEquals(sizes[c], components.size(c));
+                assertTrue(sizes[c] <= components.size(components.largest()));
+            }
+        }
+    }
+
+    /**
+     * Returns whether each vertex of the graph is reachable from the start by breadth-first search.
+     *
+     * @param graph the graph.
+     * @param start the index of the start vertex.
+     * @return whether each vertex of the graph is reachable from the start, indexed by vertex.
+     */
+    private static boolean[] reachable(IntGraph graph, int start) {
+        boolean[] result = new boolean[graph.numVertices()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        result[start] = true;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int from = queue.remove();
+            for (int e = graph.firstEdge(from); e < graph.endEdge(from); e += 1) {
+                if (!result[graph.to(e)]) {
+                    result[graph.to(e)] = true;
+                    queue.add(graph.to(e));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the compact graph of every vertex in the adjacency lists.
+     *
+     * @param adjacency {@link Map} of each vertex to its outgoing edges.
+     * @return the compact graph of every vertex in the adjacency lists.
+     */
+    private static CompactGraph<Integer> compact(Map<Integer, List<Edge<Integer>>> adjacency) {
+        Graph<Integer> graph = adjacency::get;
+        return new CompactGraph<>(graph, adjacency.keySet());
+    }
+}
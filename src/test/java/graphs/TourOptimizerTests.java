@@ -0,0 +1,190 @@
+package graphs;
+
+import net.jqwik.api.Example;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link TourOptimizer} class on random asymmetric distances between stops.
+ *
+ * @see TourOptimizer
+ */
+public class TourOptimizerTests {
+    @Example
+    void ordersArePermutationsStartingAtZero() {
+        Random random = new Random(373);
+        for (int n = 0; n <= 40; n += 1) {
+            for (int trial = 0; trial < 5; trial += 1) {
+                double[][] distances = randomDistances(random, n);
+                if (n > 2 && trial == 0) {
+                    // Unreachable stops, such as stops cut off by road closures
+                    distances[1][2] = Double.POSITIVE_INFINITY;
+                    distances[n - 1][0] = Double.POSITIVE_INFINITY;
+                }
+                assertPermutation(TourOptimizer.optimize(distances, Long.MAX_VALUE), n);
+                assertPermutation(TourOptimizer.optimize(distances, System.nanoTime()), n);
+            }
+        }
+    }
+
+    @Example
+    void neverWorseThanNearestInsertion() {
+        Random random = new Random(42);
+        for (int n = 1; n <= 40; n += 1) {
+            for (int trial = 0; trial < 5; trial += 1) {
+                double[][] distances = randomDistances(random, n);
+                double initial = TourOptimizer.distance(distances, nearestInsertion(distances));
+                double optimized = TourOptimizer.distance(distances, TourOptimizer.optimize(distances, Long.MAX_VALUE));
+                assertTrue(optimized <= initial, n + " stops: " + optimized + " > " + initial);
+            }
+        }
+    }
+
+    @Example
+    void optimalOnSmallInstances() {
+        Random random = new Random(7);
+        for (int n = 1; n <= 9; n += 1) {
+            for (int trial = 0; trial < 30; trial += 1) {
+                double[][] distances = randomDistances(random, n);
+                int[] order = new int[n];
+                for (int i = 0; i < n; i += 1) {
+                    order[i] = i;
+                }
+                double optimum = n == 0 ? 0.0 : bruteForce(distances, order, 1);
+                // Small instances are solved exactly even if the deadline has already passed
+                for (long deadline : new long[]{Long.MAX_VALUE, System.nanoTime()}) {
+                    double actual = TourOptimizer.distance(distances, TourOptimizer.optimize(distances, deadline));
+                    assertEquals(optimum, actual, 1e-9 * optimum, n + " stops");
+                }
+            }
+        }
+    }
+
+    @Example
+    void expiredDeadlineReturnsTheInitialOrder() {
+        Random random = new Random(11);
+        for (int n = 13; n <= 40; n += 1) {
+            double[][] distances = randomDistances(random, n);
+            assertArrayEquals(nearestInsertion(distances), TourOptimizer.optimize(distances, System.nanoTime()));
+        }
+    }
+
+    @Example
+    void distancesMustBeSquare() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TourOptimizer.optimize(new double[][]{{0, 1}, {1}}, Long.MAX_VALUE));
+    }
+
+    /**
+     * Asserts that the order visits every stop exactly once starting with stop 0.
+     *
+     * @param order the indices of the stops in visiting order.
+     * @param n     the number of stops.
+     */
+    private static void assertPermutation(int[] order, int n) {
+        assertEquals(n, order.length);
+        boolean[] visited = new boolean[n];
+        for (int stop : order) {
+            assertFalse(visited[stop], "stop " + stop + " is visited twice");
+            visited[stop] = true;
+        }
+        if (n > 0) {
+            assertEquals(0, order[0]);
+        }
+    }
+
+    /**
+     * Returns the shortest distance of every order of the stops that keeps the first i stops of the given order.
+     *
+     * @param distances the distance from each stop to each other stop.
+     * @param order     the order, which is permuted in place and then restored.
+     * @param i         the number of stops at the start of the order to keep.
+     * @return the shortest distance of every order that keeps the first i stops.
+     */
+    private static double bruteForce(double[][] distances, int[] order, int i) {
+        if (i == order.length) {
+            return TourOptimizer.distance(distances, order);
+        }
+        double result = Double.POSITIVE_INFINITY;
+        for (int j = i; j < order.length; j += 1) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+            result = Math.min(result, bruteForce(distances, order, i + 1));
+            order[j] = order[i];
+            order[i] = swap;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the order built by nearest insertion: repeatedly take the unvisited stop nearest in either direction to
+     * any visited stop, and insert it wherever it adds the least distance, preferring the end and then earlier
+     * positions.
+     *
+     * @param distances the distance from each stop to each other stop.
+     * @return the indices of the stops in visiting order, starting with 0.
+     */
+    private static int[] nearestInsertion(double[][] distances) {
+        int n = distances.length;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        if (n == 0) {
+            return order;
+        }
+        visited[0] = true;
+        for (int size = 1; size < n; size += 1) {
+            int next = -1;
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int u = 0; u < n; u += 1) {
+                for (int i = 0; i < size && !visited[u]; i += 1) {
+                    double dist = Math.min(distances[order[i]][u], distances[u][order[i]]);
+                    if (next < 0 || dist < nearest) {
+                        next = u;
+                        nearest = dist;
+                    }
+                }
+            }
+            int position = size;
+            double bestIncrease = distances[order[size - 1]][next];
+            for (int i = 1; i < size; i += 1) {
+                double increase = distances[order[i - 1]][next] + distances[next][order[i]]
+                        - distances[order[i - 1]][order[i]];
+                if (increase < bestIncrease) {
+                    position = i;
+                    bestIncrease = increase;
+                }
+            }
+            System.arraycopy(order, position, order, position + 1, size - position);
+            order[position] = next;
+            visited[next] = true;
+        }
+        return order;
+    }
+
+    /**
+     * Returns random asymmetric distances between stops in the unit square, where each distance is the straight-line
+     * distance times a random detour factor between 1 and 2.
+     *
+     * @param random the random number generator.
+     * @param n      the number of stops.
+     * @return the distance from each stop to each other stop.
+     */
+    private static double[][] randomDistances(Random random, int n) {
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i += 1) {
+            xs[i] = random.nextDouble();
+            ys[i] = random.nextDouble();
+        }
+        double[][] result = new double[n][n];
+        for (int i = 0; i < n; i += 1) {
+            for (int j = 0; j < n; j += 1) {
+                result[i][j] = i == j ? 0.0 : Math.hypot(xs[i] - xs[j], ys[i] - ys[j]) * (1 + random.nextDouble());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+package graphs;
+
+import net.jqwik.api.Example;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link WeightFeed} class.
+ *
+ * @see WeightFeed
+ */
+public class WeightFeedTests {
+    @Example
+    void readSplitsBatchesOnBlankLines() throws IOException {
+        String feed = """
+                # way_id\tfactor
+                1\t2.5
+                2\tInfinity
+
+                # a comment between batches
+
+                3\t1
+                  4 \t 0.5 \s
+                """;
+        List<Map<Long, Float>> batches = new ArrayList<>();
+        assertEquals(2, WeightFeed.read(stream(feed), batches::add));
+        assertEquals(List.of(
+                Map.of(1L, 2.5f, 2L, Float.POSITIVE_INFINITY),
+                Map.of(3L, 1.0f, 4L, 0.5f)
+        ), batches);
+    }
+
+    @Example
+    void readAppliesTheLastBatchWithoutBlankLine() throws IOException {
+        List<Map<Long, Float>> batches = new ArrayList<>();
+        assertEquals(2, WeightFeed.read(stream("1\t2\n\n\n\n2\t3\n2\t4"), batches::add));
+        // A later line for the same way replaces the earlier factor in the batch
+        assertEquals(List.of(Map.of(1L, 2.0f), Map.of(2L, 4.0f)), batches);
+    }
+
+    @Example
+    void readIgnoresEmptyFeeds() throws IOException {
+        List<Map<Long, Float>> batches = new ArrayList<>();
+        assertEquals(0, WeightFeed.read(stream(""), batches::add));
+        assertEquals(0, WeightFeed.read(stream("\n\n# only comments\n\n"), batches::add));
+        assertTrue(batches.isEmpty());
+    }
+
+    @Example
+    void readDropsBatchesWithInvalidLines() throws IOException {
+        String feed = """
+                1\t2
+
+                2\t3
+                not a way\t2
+                3\t4
+
+                4\t0
+
+                5\t-1
+
+                6\tNaN
+
+                7\t2\t3
+
+                8
+
+                9\tfast
+
+                10\t5
+                """;
+        List<Map<Long, Float>> batches = new ArrayList<>();
+        assertEquals(2, WeightFeed.read(stream(feed), batches::add));
+        assertEquals(List.of(Map.of(1L, 2.0f), Map.of(10L, 5.0f)), batches);
+    }
+
+    @Example
+    void runReconnectsAfterDisconnect() throws Exception {
+        BlockingQueue<Map<Long, Float>> batches = new LinkedBlockingQueue<>();
+        try (ServerSocket server = new ServerSocket(0)) {
+            Thread feed = Thread.ofVirtual().start(new WeightFeed("localhost:" + server.getLocalPort(), batches::add));
+            // The first connection ends in the middle of an invalid batch, which must not stop the feed
+            try (Socket socket = server.accept(); OutputStream output = socket.getOutputStream()) {
+                output.write("1\t2\n\n3\tclosed\n".getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(Map.of(1L, 2.0f), batches.poll(10, TimeUnit.SECONDS));
+            try (Socket socket = server.accept(); OutputStream output = socket.getOutputStream()) {
+                output.write("2\t4\n\n".getBytes(StandardCharsets.UTF_8));
+                assertEquals(Map.of(2L, 4.0f), batches.poll(10, TimeUnit.SECONDS));
+            }
+            feed.interrupt();
+            feed.join(10_000);
+            assertFalse(feed.isAlive());
+        }
+        assertTrue(batches.isEmpty());
+    }
+
+    /**
+     * Returns an input stream with the UTF-8 bytes of the string.
+     *
+     * @param feed the contents of the feed.
+     * @return an input stream with the contents of the feed.
+     */
+    private static ByteArrayInputStream stream(String feed) {
+        return new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,181 @@
+package graphs.shortestpaths;
+
+import graphs.AStarGraph;
+import graphs.ArcFlags;
+import graphs.CompactGraph;
+import graphs.Edge;
+import graphs.Graph;
+import net.jqwik.api.Example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link ArcFlagSolver} and {@link ArcFlags} classes, comparing each search with {@link DijkstraSolver}
+ * on random road-like graphs partitioned into random cells.
+ *
+ * @see ArcFlagSolver
+ * @see ArcFlags
+ */
+public class ArcFlagSolverTests {
+    /**
+     * Maximum relative difference between distances, since the estimates are rounded differently from the weights.
+     */
+    private static final double TOLERANCE = 1e-9;
+
+    @Example
+    void randomGraphsMatchDijkstra() {
+        Random random = new Random(373);
+        for (int trial = 0; trial < 40; trial += 1) {
+            Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+            CompactGraph<Integer> graph = randomGraph(random, 1 + random.nextInt(200), adjacency);
+            // Arc flags are exact for any partition, even one that is not contiguous
+            int numCells = 1 + random.nextInt(ArcFlags.MAX_CELLS);
+            int[] cells = new int[graph.numVertices()];
+            for (int v = 0; v < cells.length; v += 1) {
+                cells[v] = random.nextInt(numCells);
+            }
+            ArcFlags flags = new ArcFlags(graph, cells, numCells);
+            Graph<Integer> adjacencyGraph = adjacency::get;
+            // The same solver is reused for every search on the graph
+            ArcFlagSolver solver = new ArcFlagSolver(graph, flags);
+            for (int i = 0; i < 10; i += 1) {
+                int start = random.nextInt(graph.numVertices());
+                DijkstraSolver<Integer> dijkstra = new DijkstraSolver<>(adjacencyGraph, graph.vertex(start));
+                for (int goal = 0; goal < graph.numVertices(); goal += 1) {
+                    solver.solve(start, goal);
+                    List<Integer> expected = dijkstra.solution(graph.vertex(goal));
+                    int[] path = solver.solution();
+                    if (expected.size() == 1) {
+                        // The goal is the start or unreachable
+                        assertArrayEquals(new int[]{goal}, path);
+                        assertEquals(start == goal ? 0.0 : Double.POSITIVE_INFINITY, solver.distance());
+                        continue;
+                    }
+                    double expectedWeight = pathWeight(adjacencyGraph, expected);
+                    assertEquals(expectedWeight, solver.distance(), TOLERANCE * expectedWeight);
+                    assertEquals(start, path[0]);
+                    assertEquals(goal, path[path.length - 1]);
+                    List<Integer> vertices = new ArrayList<>(path.length);
+                    for (int v : path) {
+                        vertices.add(graph.vertex(v));
+                    }
+                    assertEquals(expectedWeight, pathWeight(adjacencyGraph, vertices), TOLERANCE * expectedWeight);
+                }
+            }
+        }
+    }
+
+    @Example
+    void flagsWithinCells() {
+        Random random = new Random(42);
+        CompactGraph<Integer> graph = randomGraph(random, 300, new HashMap<>());
+        int[] cells = new int[graph.numVertices()];
+        for (int v = 0; v < cells.length; v += 1) {
+            cells[v] = v % 8;
+        }
+        ArcFlags flags = new ArcFlags(graph, cells, 8);
+        int pruned = 0;
+        for (int e = 0; e < graph.numEdges(); e += 1) {
+            int cell = cells[graph.to(e)];
+            assertEquals(cell, flags.cell(graph.to(e)));
+            // Every edge within a cell is flagged with that cell
+            if (cells[graph.from(e)] == cell) {
+                assertTrue(flags.isFlagged(e, cell));
+            }
+            for (int c = 0; c < 8; c += 1) {
+                if (!flags.isFlagged(e, c)) {
+                    pruned += 1;
+                }
+            }
+        }
+        assertTrue(pruned > 0, "no edge is pruned for any cell");
+    }
+
+    @Example
+    void numberOfCells() {
+        CompactGraph<Integer> graph = randomGraph(new Random(1), 10, new HashMap<>());
+        int[] cells = new int[graph.numVertices()];
+        assertThrows(IllegalArgumentException.class, () -> new ArcFlags(graph, cells, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ArcFlags(graph, cells, ArcFlags.MAX_CELLS + 1));
+        // A single cell flags every edge, so the search is plain A*
+        ArcFlags flags = new ArcFlags(graph, cells, 1);
+        for (int e = 0; e < graph.numEdges(); e += 1) {
+            assertTrue(flags.isFlagged(e, 0));
+        }
+    }
+
+    /**
+     * Returns the total weight of the path using the lightest edge between each pair of consecutive vertices.
+     *
+     * @param graph the graph.
+     * @param path  the vertices on the path.
+     * @return the total weight of the path, or positive infinity if consecutive vertices are not adjacent.
+     */
+    private static double pathWeight(Graph<Integer> graph, List<Integer> path) {
+        double result = 0.0;
+        for (int i = 1; i < path.size(); i += 1) {
+            double lightest = Double.POSITIVE_INFINITY;
+            for (Edge<Integer> edge : graph.neighbors(path.get(i - 1))) {
+                if (edge.to.equals(path.get(i))) {
+                    lightest = Math.min(lightest, edge.weight);
+                }
+            }
+            result += lightest;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a random road-like graph where each vertex in the unit square has edges to its nearest neighbors, most
+     * in both directions and some in only one direction, weighted by their length times a random congestion factor of
+     * at least 1. The estimated distance between vertices is their straight-line distance, which is consistent.
+     *
+     * @param random      the random number generator.
+     * @param numVertices the number of vertices.
+     * @param adjacency   the empty {@link Map} to fill with the outgoing edges from each vertex.
+     * @return a random road-like graph.
+     */
+    private static CompactGraph<Integer> randomGraph(Random random, int numVertices,
+                                                     Map<Integer, List<Edge<Integer>>> adjacency) {
+        double[] xs = new double[numVertices];
+        double[] ys = new double[numVertices];
+        List<Integer> vertices = new ArrayList<>(numVertices);
+        for (int v = 0; v < numVertices; v += 1) {
+            xs[v] = random.nextDouble();
+            ys[v] = random.nextDouble();
+            adjacency.put(v, new ArrayList<>());
+            vertices.add(v);
+        }
+        for (int from = 0; from < numVertices; from += 1) {
+            int f = from;
+            List<Integer> nearest = new ArrayList<>(vertices);
+            nearest.sort((a, b) -> Double.compare(Math.hypot(xs[f] - xs[a], ys[f] - ys[a]),
+                    Math.hypot(xs[f] - xs[b], ys[f] - ys[b])));
+            for (int to : nearest.subList(1, Math.min(4, numVertices))) {
+                double length = Math.hypot(xs[from] - xs[to], ys[from] - ys[to]);
+                adjacency.get(from).add(new Edge<>(from, to, length * (1.01 + random.nextDouble(0.3))));
+                if (random.nextInt(5) > 0) {
+                    adjacency.get(to).add(new Edge<>(to, from, length * (1.01 + random.nextDouble(0.3))));
+                }
+            }
+        }
+        AStarGraph<Integer> graph = new AStarGraph<>() {
+            @Override
+            public List<Edge<Integer>> neighbors(Integer vertex) {
+                return adjacency.get(vertex);
+            }
+
+            @Override
+            public double estimatedDistance(Integer start, Integer end) {
+                return Math.hypot(xs[start] - xs[end], ys[start] - ys[end]);
+            }
+        };
+        return new CompactGraph<>(graph, vertices);
+    }
+}
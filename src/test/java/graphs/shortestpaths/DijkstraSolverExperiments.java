@@ -0,0 +1,143 @@
+package graphs.shortestpaths;
+
+import graphs.MapGraph;
+import minpq.*;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runtime experiments for {@link DijkstraSolver} on the Seattle graph with each {@link MinPQ} implementation as the
+ * perimeter. Monotone priority queues that only accept integer priorities are run with edge weights quantized to
+ * centimeters.
+ *
+ * @see DijkstraSolver#DijkstraSolver(graphs.Graph, Object, MinPQ, double)
+ */
+public class DijkstraSolverExperiments {
+    /**
+     * Path to the OpenStreetMap data for the Seattle graph, loaded as a resource.
+     */
+    private static final String OSM_DB_PATH = "seattle.osm.gz";
+    /**
+     * Path to the place-importance data for the Seattle graph, loaded as a resource.
+     */
+    private static final String PLACES_PATH = "places.tsv";
+    /**
+     * Number of centimeters per degree of distance, for quantizing edge weights to integers.
+     */
+    private static final double CENTIMETERS_PER_DEGREE = DistanceUtils.DEG_TO_KM * 100_000;
+    /**
+     * Number of trials (random start locations) per implementation run. Making this smaller means experiments run
+     * faster.
+     */
+    private static final int NUM_TRIALS = 25;
+
+    public static void main(String[] args) throws Exception {
+        SpatialContext context = SpatialContext.GEO;
+        MapGraph graph = new MapGraph(OSM_DB_PATH, PLACES_PATH, context);
+        runtimeExperiments(graph, "DoubleMapMinPQ", DoubleMapMinPQ::new, 0);
+        runtimeExperiments(graph, "HeapMinPQ", HeapMinPQ::new, 0);
+        runtimeExperiments(graph, "OptimizedHeapMinPQ", OptimizedHeapMinPQ::new, 0);
+        runtimeExperiments(graph, "UnsortedArrayMinPQ", UnsortedArrayMinPQ::new, 0);
+        runtimeExperiments(graph, "PairingHeapMinPQ", PairingHeapMinPQ::new, 0);
+        runtimeExperiments(graph, "FibonacciHeapMinPQ", FibonacciHeapMinPQ::new, 0);
+        runtimeExperiments(graph, "RadixHeapMinPQ", RadixHeapMinPQ::new, 0);
+        runtimeExperiments(graph, "BucketMinPQ", BucketMinPQ::new, CENTIMETERS_PER_DEGREE);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm on the graph from random start locations using the given perimeter and edge weight
+     * scale, and prints the name, the number of removeMin calls, and their average throughput per millisecond. If the
+     * perimeter throws {@link UnsupportedOperationException}, only the name is printed and the experiment is skipped.
+     *
+     * @param graph       the Seattle graph.
+     * @param name        the name of the perimeter priority queue.
+     * @param constructor the perimeter priority queue constructor.
+     * @param scale       the number of integer units per unit of edge weight, or 0 to use the exact edge weights.
+     */
+    static void runtimeExperiments(MapGraph graph, String name, Supplier<MinPQ<Point>> constructor, double scale) {
+        SpatialContext context = SpatialContext.GEO;
+        SplittableRandom spRandom = new SplittableRandom(373);
+        long totalRemovals = 0;
+        long totalTime = 0;
+        for (int i = 0; i < NUM_TRIALS; i += 1) {
+            // Choose a random start location in Seattle
+            double lat = spRandom.nextDouble(47.5, 47.7);
+            double lon = spRandom.nextDouble(-122.4, -122.25);
+            Point start = graph.closest(context.getShapeFactory().pointLatLon(lat, lon));
+
+            // Measure the time to solve shortest paths to every reachable location
+            CountingMinPQ<Point> perimeter = new CountingMinPQ<>(constructor.get());
+            long startTime = System.nanoTime();
+            try {
+                new DijkstraSolver<>(graph, start, perimeter, scale);
+            } catch (UnsupportedOperationException e) {
+                // Skip priority queues that are not implemented yet so that the remaining ones are still measured
+                System.out.println(name + ",not implemented");
+                return;
+            }
+            totalTime += System.nanoTime() - startTime;
+            totalRemovals += perimeter.removals;
+        }
+        System.out.print(name);
+        System.out.print(',');
+        System.out.print(totalRemovals);
+        System.out.print(',');
+        // Output the average number of removeMin calls per millisecond rounded to the closest integer.
+        System.out.printf("%.0f", totalRemovals / (totalTime / 1e6));
+        System.out.println();
+    }
+
+    /**
+     * {@link MinPQ} decorator that counts calls to {@code removeMin}.
+     *
+     * @param <E> the type of elements in this priority queue.
+     */
+    private static class CountingMinPQ<E> implements MinPQ<E> {
+        private final MinPQ<E> pq;
+        private long removals;
+
+        CountingMinPQ(MinPQ<E> pq) {
+            this.pq = pq;
+        }
+
+        @Override
+        public void add(E element, double priority) {
+            pq.add(element, priority);
+        }
+
+        @Override
+        public boolean contains(E element) {
+            return pq.contains(element);
+        }
+
+        @Override
+        public double getPriority(E element) {
+            return pq.getPriority(element);
+        }
+
+        @Override
+        public E peekMin() {
+            return pq.peekMin();
+        }
+
+        @Override
+        public E removeMin() {
+            removals += 1;
+            return pq.removeMin();
+        }
+
+        @Override
+        public void changePriority(E element, double priority) {
+            pq.changePriority(element, priority);
+        }
+
+        @Override
+        public int size() {
+            return pq.size();
+        }
+    }
+}
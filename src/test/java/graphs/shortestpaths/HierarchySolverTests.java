@@ -0,0 +1,274 @@
+package graphs.shortestpaths;
+
+import graphs.CompactGraph;
+import graphs.CustomizableHierarchy;
+import graphs.Edge;
+import graphs.Graph;
+import graphs.IntGraph;
+import graphs.WeightedGraph;
+import net.jqwik.api.Example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link HierarchySolver} class, comparing each search on a {@link CustomizableHierarchy} with
+ * {@link IntDijkstraSolver} on the same weights.
+ *
+ * @see HierarchySolver
+ * @see CustomizableHierarchy
+ */
+public class HierarchySolverTests {
+    /**
+     * Maximum relative difference between distances, since the hierarchy adds weights as floats.
+     */
+    private static final double TOLERANCE = 1e-5;
+
+    @Example
+    void randomGraphsMatchDijkstra() {
+        Random random = new Random(373);
+        for (int trial = 0; trial < 60; trial += 1) {
+            CompactGraph<Integer> graph = randomGraph(random, 1 + random.nextInt(120));
+            CustomizableHierarchy hierarchy = new CustomizableHierarchy(graph, order(graph, random, trial));
+            float[] weights = randomWeights(graph, random);
+            assertMatchesDijkstra(graph, hierarchy, hierarchy.customize(weights), weights, random);
+        }
+    }
+
+    @Example
+    void recustomizeWithChangedWeights() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 20; trial += 1) {
+            CompactGraph<Integer> graph = randomGraph(random, 20 + random.nextInt(80));
+            CustomizableHierarchy hierarchy = new CustomizableHierarchy(graph, order(graph, random, trial));
+            float[] before = randomWeights(graph, random);
+            CustomizableHierarchy.Metric first = hierarchy.customize(before);
+            // Scale some edges as for congestion and close others with infinite weights
+            float[] after = before.clone();
+            for (int e = 0; e < after.length; e += 1) {
+                int change = random.nextInt(10);
+                if (change == 0) {
+                    after[e] = Float.POSITIVE_INFINITY;
+                } else if (change < 4) {
+                    after[e] *= 1 + random.nextFloat() * 5;
+                }
+            }
+            CustomizableHierarchy.Metric second = hierarchy.customize(after);
+            assertMatchesDijkstra(graph, hierarchy, second, after, random);
+            // Customizing again must not modify earlier metrics
+            assertMatchesDijkstra(graph, hierarchy, first, before, random);
+        }
+    }
+
+    @Example
+    void unreachableGoal() {
+        // 0 -> 1 -> 2 and 3 -> 2, so 3 is unreachable from every other vertex
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        adjacency.put(0, List.of(new Edge<>(0, 1, 1.0)));
+        adjacency.put(1, List.of(new Edge<>(1, 2, 2.0)));
+        adjacency.put(2, List.of());
+        adjacency.put(3, List.of(new Edge<>(3, 2, 1.0)));
+        Graph<Integer> adjacencyGraph = adjacency::get;
+        CompactGraph<Integer> graph = new CompactGraph<>(adjacencyGraph, List.of(0, 1, 2, 3));
+        CustomizableHierarchy hierarchy = new CustomizableHierarchy(graph, new int[]{0, 1, 2, 3});
+        CustomizableHierarchy.Metric metric = hierarchy.customize(weights(graph));
+        HierarchySolver solver = new HierarchySolver(hierarchy);
+        int start = graph.indexOf(0);
+        int goal = graph.indexOf(3);
+        solver.solve(metric, start, goal);
+        assertEquals(Double.POSITIVE_INFINITY, solver.distance());
+        assertArrayEquals(new int[]{goal}, solver.solution());
+        assertEquals(1, solver.tracePath());
+        assertEquals(goal, solver.pathVertex(0));
+
+        // A reachable goal after an unreachable one must not see the previous search
+        solver.solve(metric, start, graph.indexOf(2));
+        assertEquals(3.0, solver.distance(), 0.0);
+        assertArrayEquals(new int[]{start, graph.indexOf(1), graph.indexOf(2)}, solver.solution());
+
+        // Closing the only edge into 2 makes it unreachable
+        float[] closed = weights(graph);
+        closed[graph.firstEdge(graph.indexOf(1))] = Float.POSITIVE_INFINITY;
+        solver.solve(hierarchy.customize(closed), start, graph.indexOf(2));
+        assertEquals(Double.POSITIVE_INFINITY, solver.distance());
+        assertArrayEquals(new int[]{graph.indexOf(2)}, solver.solution());
+    }
+
+    @Example
+    void metricFromAnotherHierarchy() {
+        CompactGraph<Integer> graph = randomGraph(new Random(1), 10);
+        CustomizableHierarchy hierarchy = new CustomizableHierarchy(graph, order(graph, new Random(1), 1));
+        CustomizableHierarchy other = new CustomizableHierarchy(graph, order(graph, new Random(1), 1));
+        CustomizableHierarchy.Metric metric = other.customize(weights(graph));
+        HierarchySolver solver = new HierarchySolver(hierarchy);
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(metric, 0, 1));
+    }
+
+    /**
+     * Asserts that the distance and the path from the hierarchy between random pairs of vertices match
+     * {@link IntDijkstraSolver} on the graph with the given weights.
+     *
+     * @param graph     the graph.
+     * @param hierarchy the hierarchy of the graph.
+     * @param metric    the hierarchy customized with the given weights.
+     * @param weights   the weight of each edge of the graph.
+     * @param random    the random number generator for choosing the pairs.
+     */
+    private static void assertMatchesDijkstra(CompactGraph<Integer> graph, CustomizableHierarchy hierarchy,
+                                              CustomizableHierarchy.Metric metric, float[] weights,
+                                              Random random) {
+        double[] doubleWeights = new double[weights.length];
+        for (int e = 0; e < weights.length; e += 1) {
+            doubleWeights[e] = weights[e];
+        }
+        IntGraph weighted = new WeightedGraph(graph, doubleWeights);
+        IntDijkstraSolver dijkstra = new IntDijkstraSolver(weighted);
+        HierarchySolver solver = new HierarchySolver(hierarchy);
+        for (int i = 0; i < 5; i += 1) {
+            int start = random.nextInt(graph.numVertices());
+            dijkstra.solve(start);
+            for (int goal = 0; goal < graph.numVertices(); goal += 1) {
+                solver.solve(metric, start, goal);
+                double expected = dijkstra.distTo(goal);
+                int[] path = solver.solution();
+                if (expected == Double.POSITIVE_INFINITY) {
+                    assertEquals(Double.POSITIVE_INFINITY, solver.distance());
+                    assertArrayEquals(new int[]{goal}, path);
+                    continue;
+                }
+                assertEquals(expected, solver.distance(), TOLERANCE * Math.max(1, expected));
+                assertEquals(start, path[0]);
+                assertEquals(goal, path[path.length - 1]);
+                assertEquals(expected, pathWeight(weighted, path), TOLERANCE * Math.max(1, expected));
+            }
+        }
+    }
+
+    /**
+     * Returns the total weight of the path using the lightest edge between each pair of consecutive vertices.
+     *
+     * @param graph the graph.
+     * @param path  the vertices on the path.
+     * @return the total weight of the path, or positive infinity if consecutive vertices are not adjacent.
+     */
+    private static double pathWeight(IntGraph graph, int[] path) {
+        double result = 0.0;
+        for (int i = 1; i < path.length; i += 1) {
+            double lightest = Double.POSITIVE_INFINITY;
+            for (int e = graph.firstEdge(path[i - 1]); e < graph.endEdge(path[i - 1]); e += 1) {
+                if (graph.to(e) == path[i]) {
+                    lightest = Math.min(lightest, graph.weight(e));
+                }
+            }
+            result += lightest;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a random graph with the given number of vertices, where about half of the edges connect nearby vertices
+     * in the unit square and the rest connect random vertices, including self-loops and parallel edges.
+     *
+     * @param random      the random number generator.
+     * @param numVertices the number of vertices.
+     * @return a random graph with the vertex locations as the edge weights.
+     */
+    private static CompactGraph<Integer> randomGraph(Random random, int numVertices) {
+        double[] xs = new double[numVertices];
+        double[] ys = new double[numVertices];
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        List<Integer> vertices = new ArrayList<>(numVertices);
+        for (int v = 0; v < numVertices; v += 1) {
+            xs[v] = random.nextDouble();
+            ys[v] = random.nextDouble();
+            adjacency.put(v, new ArrayList<>());
+            vertices.add(v);
+        }
+        int numEdges = random.nextInt(3 * numVertices + 1);
+        for (int i = 0; i < numEdges; i += 1) {
+            int from = random.nextInt(numVertices);
+            int to = random.nextInt(numVertices);
+            if (random.nextBoolean()) {
+                double closest = Double.POSITIVE_INFINITY;
+                for (int v = 0; v < numVertices; v += 1) {
+                    double dist = Math.hypot(xs[from] - xs[v], ys[from] - ys[v]) + random.nextDouble(0.05);
+                    if (v != from && dist < closest) {
+                        closest = dist;
+                        to = v;
+                    }
+                }
+            }
+            adjacency.get(from).add(new Edge<>(from, to, Math.hypot(xs[from] - xs[to], ys[from] - ys[to])));
+        }
+        Graph<Integer> graph = adjacency::get;
+        return new CompactGraph<>(graph, vertices);
+    }
+
+    /**
+     * Returns a contraction order for the graph: a random order for every third trial and otherwise a nested
+     * dissection order using random vertex locations.
+     *
+     * @param graph  the graph.
+     * @param random the random number generator.
+     * @param trial  the trial number.
+     * @return the vertices of the graph from lowest to highest rank.
+     */
+    private static int[] order(IntGraph graph, Random random, int trial) {
+        int n = graph.numVertices();
+        if (trial % 3 == 0) {
+            int[] result = new int[n];
+            for (int i = 0; i < n; i += 1) {
+                result[i] = i;
+            }
+            for (int i = n - 1; i > 0; i -= 1) {
+                int j = random.nextInt(i + 1);
+                int swap = result[i];
+                result[i] = result[j];
+                result[j] = swap;
+            }
+            return result;
+        }
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int v = 0; v < n; v += 1) {
+            xs[v] = random.nextDouble();
+            ys[v] = random.nextDouble();
+        }
+        return CustomizableHierarchy.nestedDissection(graph, xs, ys);
+    }
+
+    /**
+     * Returns random weights for the edges of the graph, where a third of the weights are small integers so that there
+     * are zero weights and ties.
+     *
+     * @param graph  the graph.
+     * @param random the random number generator.
+     * @return a random weight for each edge of the graph.
+     */
+    private static float[] randomWeights(IntGraph graph, Random random) {
+        float[] result = new float[graph.numEdges()];
+        for (int e = 0; e < result.length; e += 1) {
+            result[e] = random.nextInt(3) == 0 ? random.nextInt(5) : random.nextFloat() * 100;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the weights of the edges of the graph as floats.
+     *
+     * @param graph the graph.
+     * @return the weight of each edge of the graph.
+     */
+    private static float[] weights(IntGraph graph) {
+        float[] result = new float[graph.numEdges()];
+        for (int e = 0; e < result.length; e += 1) {
+            result[e] = (float) graph.weight(e);
+        }
+        return result;
+    }
+}
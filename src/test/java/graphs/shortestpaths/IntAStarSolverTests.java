@@ -0,0 +1,197 @@
+package graphs.shortestpaths;
+
+import graphs.AStarGraph;
+import graphs.CompactGraph;
+import graphs.Edge;
+import graphs.Graph;
+import graphs.IntGraph;
+import net.jqwik.api.Example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link IntAStarSolver} class, comparing each search with {@link IntDijkstraSolver} on random
+ * road-like graphs whose straight-line distances are consistent estimates.
+ *
+ * @see IntAStarSolver
+ */
+public class IntAStarSolverTests {
+    /**
+     * Maximum relative difference between distances, since the estimates are rounded differently from the weights.
+     */
+    private static final double TOLERANCE = 1e-9;
+
+    @Example
+    void randomGraphsMatchDijkstra() {
+        Random random = new Random(373);
+        for (int trial = 0; trial < 40; trial += 1) {
+            CompactGraph<Integer> graph = randomGraph(random, 1 + random.nextInt(300));
+            IntDijkstraSolver dijkstra = new IntDijkstraSolver(graph);
+            // The same solver is reused for every search on the graph
+            IntAStarSolver solver = new IntAStarSolver(graph);
+            for (int i = 0; i < 5; i += 1) {
+                int start = random.nextInt(graph.numVertices());
+                dijkstra.solve(start);
+                for (int goal = 0; goal < graph.numVertices(); goal += 1) {
+                    solver.solve(start, goal);
+                    assertMatchesDijkstra(graph, dijkstra, solver, start, goal);
+                }
+            }
+        }
+    }
+
+    @Example
+    void sharedWorkspaceGrows() {
+        Random random = new Random(42);
+        // Solvers for different graphs share one workspace, which starts too small for either graph
+        SearchWorkspace workspace = new SearchWorkspace();
+        CompactGraph<Integer> small = randomGraph(random, 20);
+        CompactGraph<Integer> large = randomGraph(random, 500);
+        IntAStarSolver smallSolver = new IntAStarSolver(small, workspace);
+        IntAStarSolver largeSolver = new IntAStarSolver(large, workspace);
+        IntDijkstraSolver smallDijkstra = new IntDijkstraSolver(small);
+        IntDijkstraSolver largeDijkstra = new IntDijkstraSolver(large);
+        for (int i = 0; i < 20; i += 1) {
+            int start = random.nextInt(large.numVertices());
+            int goal = random.nextInt(large.numVertices());
+            largeDijkstra.solve(start);
+            largeSolver.solve(start, goal);
+            assertMatchesDijkstra(large, largeDijkstra, largeSolver, start, goal);
+            start = random.nextInt(small.numVertices());
+            goal = random.nextInt(small.numVertices());
+            smallDijkstra.solve(start);
+            smallSolver.solve(start, goal);
+            assertMatchesDijkstra(small, smallDijkstra, smallSolver, start, goal);
+        }
+    }
+
+    @Example
+    void unreachableGoal() {
+        // 0 -> 1 -> 2 and 3 -> 2 with every estimate 0, so 3 is unreachable from every other vertex
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        adjacency.put(0, List.of(new Edge<>(0, 1, 1.0)));
+        adjacency.put(1, List.of(new Edge<>(1, 2, 2.0)));
+        adjacency.put(2, List.of());
+        adjacency.put(3, List.of(new Edge<>(3, 2, 1.0)));
+        Graph<Integer> adjacencyGraph = adjacency::get;
+        CompactGraph<Integer> graph = new CompactGraph<>(adjacencyGraph, List.of(0, 1, 2, 3));
+        IntAStarSolver solver = new IntAStarSolver(graph);
+        int start = graph.indexOf(0);
+        int goal = graph.indexOf(3);
+        solver.solve(start, goal);
+        assertEquals(Double.POSITIVE_INFINITY, solver.distance());
+        assertArrayEquals(new int[]{goal}, solver.solution());
+        assertEquals(1, solver.tracePath());
+        assertEquals(goal, solver.pathVertex(0));
+
+        // A reachable goal after an unreachable one must not see the previous search
+        solver.solve(start, graph.indexOf(2));
+        assertEquals(3.0, solver.distance(), 0.0);
+        assertArrayEquals(new int[]{start, graph.indexOf(1), graph.indexOf(2)}, solver.solution());
+        assertEquals(3, solver.tracePath());
+        assertEquals(graph.indexOf(1), solver.pathVertex(1));
+    }
+
+    /**
+     * Asserts that the distance and the path from the last A* search match the last search of
+     * {@link IntDijkstraSolver} from the same start.
+     *
+     * @param graph    the graph.
+     * @param dijkstra the Dijkstra solver after solving from the start.
+     * @param solver   the A* solver after solving from the start to the goal.
+     * @param start    the index of the start vertex.
+     * @param goal     the index of the goal vertex.
+     */
+    private static void assertMatchesDijkstra(IntGraph graph, IntDijkstraSolver dijkstra, IntAStarSolver solver,
+                                              int start, int goal) {
+        double expected = dijkstra.distTo(goal);
+        int[] path = solver.solution();
+        if (expected == Double.POSITIVE_INFINITY) {
+            assertEquals(Double.POSITIVE_INFINITY, solver.distance());
+            assertArrayEquals(new int[]{goal}, path);
+            return;
+        }
+        assertEquals(expected, solver.distance(), TOLERANCE * expected);
+        assertEquals(start, path[0]);
+        assertEquals(goal, path[path.length - 1]);
+        assertEquals(expected, pathWeight(graph, path), TOLERANCE * expected);
+        assertEquals(path.length, solver.tracePath());
+        for (int i = 0; i < path.length; i += 1) {
+            assertEquals(path[i], solver.pathVertex(i));
+        }
+    }
+
+    /**
+     * Returns the total weight of the path using the lightest edge between each pair of consecutive vertices.
+     *
+     * @param graph the graph.
+     * @param path  the vertices on the path.
+     * @return the total weight of the path, or positive infinity if consecutive vertices are not adjacent.
+     */
+    private static double pathWeight(IntGraph graph, int[] path) {
+        double result = 0.0;
+        for (int i = 1; i < path.length; i += 1) {
+            double lightest = Double.POSITIVE_INFINITY;
+            for (int e = graph.firstEdge(path[i - 1]); e < graph.endEdge(path[i - 1]); e += 1) {
+                if (graph.to(e) == path[i]) {
+                    lightest = Math.min(lightest, graph.weight(e));
+                }
+            }
+            result += lightest;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a random road-like graph where each vertex in the unit square has edges to its nearest neighbors, most
+     * in both directions and some in only one direction, weighted by their length times a random congestion factor of
+     * at least 1. The estimated distance between vertices is their straight-line distance, which is consistent.
+     *
+     * @param random      the random number generator.
+     * @param numVertices the number of vertices.
+     * @return a random road-like graph.
+     */
+    private static CompactGraph<Integer> randomGraph(Random random, int numVertices) {
+        double[] xs = new double[numVertices];
+        double[] ys = new double[numVertices];
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        List<Integer> vertices = new ArrayList<>(numVertices);
+        for (int v = 0; v < numVertices; v += 1) {
+            xs[v] = random.nextDouble();
+            ys[v] = random.nextDouble();
+            adjacency.put(v, new ArrayList<>());
+            vertices.add(v);
+        }
+        for (int from = 0; from < numVertices; from += 1) {
+            int f = from;
+            List<Integer> nearest = new ArrayList<>(vertices);
+            nearest.sort((a, b) -> Double.compare(Math.hypot(xs[f] - xs[a], ys[f] - ys[a]),
+                    Math.hypot(xs[f] - xs[b], ys[f] - ys[b])));
+            for (int to : nearest.subList(1, Math.min(4, numVertices))) {
+                double length = Math.hypot(xs[from] - xs[to], ys[from] - ys[to]);
+                adjacency.get(from).add(new Edge<>(from, to, length * (1.01 + random.nextDouble(0.3))));
+                if (random.nextInt(5) > 0) {
+                    adjacency.get(to).add(new Edge<>(to, from, length * (1.01 + random.nextDouble(0.3))));
+                }
+            }
+        }
+        AStarGraph<Integer> graph = new AStarGraph<>() {
+            @Override
+            public List<Edge<Integer>> neighbors(Integer vertex) {
+                return adjacency.get(vertex);
+            }
+
+            @Override
+            public double estimatedDistance(Integer start, Integer end) {
+                return Math.hypot(xs[start] - xs[end], ys[start] - ys[end]);
+            }
+        };
+        return new CompactGraph<>(graph, vertices);
+    }
+}
@@ -0,0 +1,44 @@
+package graphs.shortestpaths;
+
+import graphs.CompactGraph;
+import graphs.Edge;
+import graphs.Graph;
+import net.jqwik.api.Example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link IntDijkstraSolver} class.
+ *
+ * @see IntDijkstraSolver
+ */
+public class IntDijkstraSolverTests {
+    @Example
+    void solutionOfLongPaths() {
+        // Longer than the initial path buffer of the workspace, which must grow while tracing
+        int n = 1000;
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        List<Integer> vertices = new ArrayList<>(n);
+        for (int v = 0; v < n; v += 1) {
+            adjacency.put(v, v + 1 < n ? List.of(new Edge<>(v, v + 1, 1.0)) : List.of());
+            vertices.add(v);
+        }
+        Graph<Integer> adjacencyGraph = adjacency::get;
+        CompactGraph<Integer> graph = new CompactGraph<>(adjacencyGraph, vertices);
+        IntDijkstraSolver solver = new IntDijkstraSolver(graph);
+        solver.solve(graph.indexOf(0));
+        for (int length : new int[]{1, 2, 16, 17, 100, n}) {
+            int[] expected = new int[length];
+            for (int i = 0; i < length; i += 1) {
+                expected[i] = graph.indexOf(i);
+            }
+            assertArrayEquals(expected, solver.solution(graph.indexOf(length - 1)));
+            assertEquals(length - 1, solver.distTo(graph.indexOf(length - 1)), 0.0);
+        }
+    }
+}
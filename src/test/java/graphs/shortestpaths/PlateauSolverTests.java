@@ -0,0 +1,241 @@
+package graphs.shortestpaths;
+
+import graphs.CompactGraph;
+import graphs.Edge;
+import graphs.Graph;
+import graphs.IntGraph;
+import graphs.ReverseGraph;
+import net.jqwik.api.Example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link PlateauSolver} class on random road-like graphs.
+ *
+ * @see PlateauSolver
+ */
+public class PlateauSolverTests {
+    /**
+     * Largest ratio of the cost of an alternative route to the cost of the shortest path.
+     */
+    private static final double MAX_STRETCH = 1.4;
+    /**
+     * Largest fraction of the cost of an alternative route along the edges of earlier routes.
+     */
+    private static final double MAX_OVERLAP = 0.6;
+    /**
+     * Maximum relative difference between route costs, since the costs are sums in different orders.
+     */
+    private static final double TOLERANCE = 1e-9;
+
+    @Example
+    void routesAreSimpleShortAndDifferent() {
+        Random random = new Random(373);
+        int withAlternatives = 0;
+        for (int trial = 0; trial < 40; trial += 1) {
+            IntGraph graph = randomGraph(random, 50 + random.nextInt(250));
+            PlateauSolver solver = solver(graph);
+            IntDijkstraSolver dijkstra = new IntDijkstraSolver(graph);
+            for (int i = 0; i < 10; i += 1) {
+                int start = random.nextInt(graph.numVertices());
+                int goal = random.nextInt(graph.numVertices());
+                dijkstra.solve(start);
+                List<int[]> routes = solver.solve(start, goal, 5, MAX_STRETCH, MAX_OVERLAP, Long.MAX_VALUE);
+                double shortest = dijkstra.distTo(goal);
+                if (shortest == Double.POSITIVE_INFINITY) {
+                    assertEquals(1, routes.size());
+                    assertArrayEquals(new int[]{goal}, routes.get(0));
+                    continue;
+                }
+                assertTrue(routes.size() >= 1 && routes.size() <= 5);
+                // The first route is the shortest path
+                assertArrayEquals(dijkstra.solution(goal), routes.get(0));
+                for (int j = 0; j < routes.size(); j += 1) {
+                    int[] route = routes.get(j);
+                    assertEquals(start, route[0]);
+                    assertEquals(goal, route[route.length - 1]);
+                    Set<Integer> vertices = new HashSet<>();
+                    for (int v : route) {
+                        assertTrue(vertices.add(v), "route visits vertex " + v + " twice");
+                    }
+                    double cost = cost(graph, route);
+                    assertTrue(cost <= MAX_STRETCH * shortest * (1 + TOLERANCE), cost + " > stretch of " + shortest);
+                    for (int earlier = 0; earlier < j; earlier += 1) {
+                        double shared = shared(graph, routes.get(earlier), route);
+                        assertTrue(shared <= MAX_OVERLAP * cost * (1 + TOLERANCE), "route " + j + " shares " + shared
+                                + " of " + cost + " with route " + earlier);
+                    }
+                }
+                if (routes.size() > 1) {
+                    withAlternatives += 1;
+                }
+            }
+        }
+        assertTrue(withAlternatives > 100, "only " + withAlternatives + " searches found alternatives");
+    }
+
+    @Example
+    void routeLimits() {
+        Random random = new Random(42);
+        IntGraph graph = randomGraph(random, 300);
+        PlateauSolver solver = solver(graph);
+        IntDijkstraSolver dijkstra = new IntDijkstraSolver(graph);
+        for (int i = 0; i < 20; i += 1) {
+            int start = random.nextInt(graph.numVertices());
+            int goal = random.nextInt(graph.numVertices());
+            dijkstra.solve(start);
+            if (dijkstra.distTo(goal) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            List<int[]> one = solver.solve(start, goal, 1, MAX_STRETCH, MAX_OVERLAP, Long.MAX_VALUE);
+            assertEquals(1, one.size());
+            assertArrayEquals(dijkstra.solution(goal), one.get(0));
+            // The shortest path is always returned even after the deadline
+            List<int[]> late = solver.solve(start, goal, 5, MAX_STRETCH, MAX_OVERLAP, System.nanoTime() - 1);
+            assertEquals(1, late.size());
+            assertArrayEquals(dijkstra.solution(goal), late.get(0));
+            assertEquals(0, solver.solve(start, goal, 0, MAX_STRETCH, MAX_OVERLAP, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Example
+    void startIsGoal() {
+        IntGraph graph = randomGraph(new Random(1), 50);
+        List<int[]> routes = solver(graph).solve(7, 7, 3, MAX_STRETCH, MAX_OVERLAP, Long.MAX_VALUE);
+        assertEquals(1, routes.size());
+        assertArrayEquals(new int[]{7}, routes.get(0));
+    }
+
+    @Example
+    void unreachableGoal() {
+        // 0 <-> 1 -> 2, so 0 is unreachable from 2
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        adjacency.put(0, List.of(new Edge<>(0, 1, 1.0)));
+        adjacency.put(1, List.of(new Edge<>(1, 0, 1.0), new Edge<>(1, 2, 1.0)));
+        adjacency.put(2, List.of());
+        Graph<Integer> adjacencyGraph = adjacency::get;
+        CompactGraph<Integer> graph = new CompactGraph<>(adjacencyGraph, List.of(0, 1, 2));
+        PlateauSolver solver = solver(graph);
+        List<int[]> routes = solver.solve(graph.indexOf(2), graph.indexOf(0), 3, MAX_STRETCH, MAX_OVERLAP,
+                Long.MAX_VALUE);
+        assertEquals(1, routes.size());
+        assertArrayEquals(new int[]{graph.indexOf(0)}, routes.get(0));
+        // The same solver must still find routes after an unreachable goal
+        routes = solver.solve(graph.indexOf(0), graph.indexOf(2), 3, MAX_STRETCH, MAX_OVERLAP, Long.MAX_VALUE);
+        assertEquals(1, routes.size());
+        assertArrayEquals(new int[]{graph.indexOf(0), graph.indexOf(1), graph.indexOf(2)}, routes.get(0));
+    }
+
+    /**
+     * Returns a new plateau solver for the graph.
+     *
+     * @param graph the graph.
+     * @return a new plateau solver for the graph.
+     */
+    private static PlateauSolver solver(IntGraph graph) {
+        return new PlateauSolver(graph, new ReverseGraph(graph), new SearchWorkspace(graph.numVertices()),
+                new SearchWorkspace(graph.numVertices()));
+    }
+
+    /**
+     * Returns the total weight of the route using the lightest edge between each pair of consecutive vertices.
+     *
+     * @param graph the graph.
+     * @param route the vertices on the route.
+     * @return the total weight of the route.
+     */
+    private static double cost(IntGraph graph, int[] route) {
+        double result = 0.0;
+        for (int i = 1; i < route.length; i += 1) {
+            result += weight(graph, route[i - 1], route[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total weight of the edges of the route that are also on the other route.
+     *
+     * @param graph the graph.
+     * @param other the vertices on the other route.
+     * @param route the vertices on the route.
+     * @return the total weight of the edges of the route that are also on the other route.
+     */
+    private static double shared(IntGraph graph, int[] other, int[] route) {
+        Set<List<Integer>> edges = new HashSet<>();
+        for (int i = 1; i < other.length; i += 1) {
+            edges.add(List.of(other[i - 1], other[i]));
+        }
+        double result = 0.0;
+        for (int i = 1; i < route.length; i += 1) {
+            if (edges.contains(List.of(route[i - 1], route[i]))) {
+                result += weight(graph, route[i - 1], route[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the weight of the lightest edge from one vertex to another.
+     *
+     * @param graph the graph.
+     * @param from  the index of the originating vertex.
+     * @param to    the index of the destination vertex.
+     * @return the weight of the lightest edge, or positive infinity if there is no such edge.
+     */
+    private static double weight(IntGraph graph, int from, int to) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int e = graph.firstEdge(from); e < graph.endEdge(from); e += 1) {
+            if (graph.to(e) == to) {
+                result = Math.min(result, graph.weight(e));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a random road-like graph where each vertex in the unit square has edges to its nearest neighbors, most
+     * in both directions and some in only one direction, weighted by their length times a random congestion factor.
+     *
+     * @param random      the random number generator.
+     * @param numVertices the number of vertices.
+     * @return a random road-like graph.
+     */
+    private static CompactGraph<Integer> randomGraph(Random random, int numVertices) {
+        double[] xs = new double[numVertices];
+        double[] ys = new double[numVertices];
+        Map<Integer, List<Edge<Integer>>> adjacency = new HashMap<>();
+        List<Integer> vertices = new ArrayList<>(numVertices);
+        for (int v = 0; v < numVertices; v += 1) {
+            xs[v] = random.nextDouble();
+            ys[v] = random.nextDouble();
+            adjacency.put(v, new ArrayList<>());
+            vertices.add(v);
+        }
+        Set<List<Integer>> added = new HashSet<>();
+        for (int from = 0; from < numVertices; from += 1) {
+            int f = from;
+            List<Integer> nearest = new ArrayList<>(vertices);
+            nearest.sort((a, b) -> Double.compare(Math.hypot(xs[f] - xs[a], ys[f] - ys[a]),
+                    Math.hypot(xs[f] - xs[b], ys[f] - ys[b])));
+            for (int to : nearest.subList(1, Math.min(4, numVertices))) {
+                double length = Math.hypot(xs[from] - xs[to], ys[from] - ys[to]);
+                if (added.add(List.of(from, to))) {
+                    adjacency.get(from).add(new Edge<>(from, to, length * (1 + random.nextDouble(0.3))));
+                }
+                if (random.nextInt(5) > 0 && added.add(List.of(to, from))) {
+                    adjacency.get(to).add(new Edge<>(to, from, length * (1 + random.nextDouble(0.3))));
+                }
+            }
+        }
+        Graph<Integer> graph = adjacency::get;
+        return new CompactGraph<>(graph, vertices);
+    }
+}
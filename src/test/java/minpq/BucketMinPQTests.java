@@ -0,0 +1,29 @@
+package minpq;
+
+import net.jqwik.api.Example;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link BucketMinPQ} class.
+ *
+ * @see BucketMinPQ
+ */
+public class BucketMinPQTests extends MonotoneMinPQTests {
+    @Override
+    public <E> MinPQ<E> createMinPQ() {
+        return new BucketMinPQ<>();
+    }
+
+    @Example
+    void rejectsNonIntegerPriorities() {
+        MinPQ<String> testing = createMinPQ();
+        assertThrows(IllegalArgumentException.class, () -> testing.add("a", 0.5));
+        assertThrows(IllegalArgumentException.class, () -> testing.add("a", Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> testing.add("a", Double.POSITIVE_INFINITY));
+        testing.add("a", -3);
+        testing.add("b", -7);
+        assertEquals("b", testing.removeMin());
+        assertEquals("a", testing.removeMin());
+    }
+}
@@ -0,0 +1,265 @@
+package minpq;
+
+import net.jqwik.api.Example;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Abstract class providing test cases for thread-safe {@link MinPQ} implementations. The inherited single-threaded
+ * tests and the linearizability test run against a strict configuration, which must behave as if every operation took
+ * effect at a single instant. The other multithreaded tests run against a relaxed configuration, which only needs to
+ * return every element exactly once.
+ *
+ * @see MinPQ
+ * @see MinPQTests
+ */
+public abstract class ConcurrentMinPQTests extends MinPQTests {
+    /**
+     * Number of threads for the multithreaded tests.
+     */
+    private static final int NUM_THREADS = 8;
+    /**
+     * Number of elements added by each thread in the multithreaded tests.
+     */
+    private static final int ELEMENTS_PER_THREAD = 2000;
+
+    /**
+     * Returns an empty thread-safe {@link MinPQ} whose {@code removeMin} may return elements out of order.
+     *
+     * @return an empty thread-safe {@link MinPQ} whose {@code removeMin} may return elements out of order.
+     */
+    public abstract <E> MinPQ<E> createRelaxedMinPQ();
+
+    @Example
+    void concurrentAddAndRemoveEach() throws Exception {
+        MinPQ<Integer> testing = createRelaxedMinPQ();
+        List<Event> history = run(testing, NUM_THREADS);
+        assertTrue(testing.isEmpty());
+        Map<Integer, Integer> removals = new HashMap<>();
+        for (Event event : history) {
+            if (event.removed) {
+                removals.merge(event.element, 1, Integer::sum);
+            }
+        }
+        // Every element must be removed exactly once
+        assertEquals(NUM_THREADS * ELEMENTS_PER_THREAD, removals.size());
+        assertTrue(removals.values().stream().allMatch(count -> count == 1));
+    }
+
+    @Example
+    void concurrentHistoryIsLinearizable() throws Exception {
+        MinPQ<Integer> testing = createMinPQ();
+        List<Event> history = run(testing, NUM_THREADS);
+        assertEquals(0, rankErrors(history));
+    }
+
+    @Example
+    void concurrentChangePriority() throws Exception {
+        MinPQ<Integer> testing = createRelaxedMinPQ();
+        int size = NUM_THREADS * ELEMENTS_PER_THREAD;
+        for (int i = 0; i < size; i += 1) {
+            testing.add(i, i);
+        }
+        // Each thread changes the priority of its own elements to negative values
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < NUM_THREADS; t += 1) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = thread; i < size; i += NUM_THREADS) {
+                    testing.changePriority(i, -i);
+                    testing.addOrChangePriority(i, testing.getPriority(i) - 1);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(size, testing.size());
+        for (int i = 0; i < size; i += 1) {
+            assertEquals(-i - 1, testing.getPriority(i));
+        }
+    }
+
+    /**
+     * Returns a pseudorandom priority value for the given element so that the history can be checked afterwards.
+     *
+     * @param element the element.
+     * @return a pseudorandom priority value for the given element.
+     */
+    private static double priorityOf(int element) {
+        return Math.floorMod(element * 0x9E3779B9, 1000);
+    }
+
+    /**
+     * Runs the given number of threads that each add their own elements with random priority values interleaved with
+     * calls to {@code removeMin}, and then remove elements until the priority queue is empty.
+     *
+     * @param testing    the priority queue to test.
+     * @param numThreads the number of threads.
+     * @return the history of every completed operation.
+     */
+    private static List<Event> run(MinPQ<Integer> testing, int numThreads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CyclicBarrier barrier = new CyclicBarrier(numThreads);
+        List<Future<List<Event>>> futures = new ArrayList<>();
+        for (int t = 0; t < numThreads; t += 1) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                SplittableRandom spRandom = new SplittableRandom(thread);
+                List<Event> events = new ArrayList<>();
+                barrier.await();
+                for (int i = 0; i < ELEMENTS_PER_THREAD; i += 1) {
+                    int element = thread * ELEMENTS_PER_THREAD + i;
+                    double priority = priorityOf(element);
+                    long start = System.nanoTime();
+                    testing.add(element, priority);
+                    events.add(new Event(element, false, start, System.nanoTime()));
+                    if (spRandom.nextBoolean()) {
+                        remove(testing, events);
+                    }
+                }
+                while (remove(testing, events)) {
+                    // Keep removing until the priority queue appears empty
+                }
+                return events;
+            }));
+        }
+        List<Event> history = new ArrayList<>();
+        for (Future<List<Event>> future : futures) {
+            history.addAll(future.get());
+        }
+        executor.shutdown();
+        return history;
+    }
+
+    /**
+     * Removes the minimum element and records the event unless the priority queue is empty.
+     *
+     * @param testing the priority queue to test.
+     * @param events  the history of this thread.
+     * @return true if an element was removed, or false if the priority queue was empty.
+     */
+    private static boolean remove(MinPQ<Integer> testing, List<Event> events) {
+        long start = System.nanoTime();
+        try {
+            int element = testing.removeMin();
+            events.add(new Event(element, true, start, System.nanoTime()));
+            return true;
+        } catch (NoSuchElementException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of removals in the history that could not have returned a minimum element in any sequential
+     * execution: a removal has a rank error if some other element with a lower priority value was definitely added
+     * before the removal started and definitely removed after the removal finished. A linearizable history has no rank
+     * errors, while a relaxed history should have few rank errors.
+     *
+     * @param history the history of every completed operation.
+     * @return the number of removals in the history with a rank error.
+     */
+    private static int rankErrors(List<Event> history) {
+        List<Event> adds = new ArrayList<>();
+        Map<Integer, Event> removes = new HashMap<>();
+        for (Event event : history) {
+            if (event.removed) {
+                removes.put(event.element, event);
+            } else {
+                adds.add(event);
+            }
+        }
+        adds.sort(Comparator.comparingDouble(event -> priorityOf(event.element)));
+        int result = 0;
+        for (Event removal : removes.values()) {
+            double priority = priorityOf(removal.element);
+            for (Event add : adds) {
+                if (priorityOf(add.element) >= priority) {
+                    break;
+                }
+                Event other = removes.get(add.element);
+                if (add.end < removal.start && (other == null || other.start > removal.end)) {
+                    result += 1;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A completed add or remove operation and the times that it started and ended.
+     *
+     * @param element the element that was added or removed.
+     * @param removed true if the element was removed, or false if it was added.
+     * @param start   the time in nanoseconds just before the operation started.
+     * @param end     the time in nanoseconds just after the operation ended.
+     */
+    record Event(int element, boolean removed, long start, long end) {
+    }
+
+    /**
+     * Threads counts for throughput experiments.
+     */
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+    /**
+     * Initial number of elements in the priority queue. Making this smaller means experiments run faster.
+     */
+    private static final int INITIAL_SIZE = 100000;
+    /**
+     * Number of remove-then-add operations per thread. Making this smaller means experiments run faster.
+     */
+    private static final int OPERATIONS_PER_THREAD = 200000;
+
+    /**
+     * Runs a Dijkstra-like workload where each thread repeatedly removes the minimum element and adds it back with a
+     * larger priority value, and prints the total throughput in operations per millisecond for each thread count.
+     *
+     * @param constructor the priority queue constructor.
+     */
+    static void throughputExperiments(Supplier<MinPQ<Integer>> constructor) throws Exception {
+        for (int numThreads : THREAD_COUNTS) {
+            System.out.print(numThreads);
+            System.out.print(',');
+
+            MinPQ<Integer> pq = constructor.get();
+            SplittableRandom spRandom = new SplittableRandom(373);
+            for (int i = 0; i < INITIAL_SIZE; i += 1) {
+                pq.add(i, spRandom.nextDouble(1000));
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+            CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t += 1) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(thread);
+                    barrier.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i += 1) {
+                        int element = pq.removeMin();
+                        pq.add(element, random.nextDouble(1000));
+                    }
+                    return null;
+                }));
+            }
+            barrier.await();
+            long start = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long time = System.nanoTime() - start;
+            executor.shutdown();
+
+            // Output the throughput rounded to the closest integer.
+            System.out.printf("%.0f", numThreads * (double) OPERATIONS_PER_THREAD / (time / 1e6));
+            System.out.println();
+        }
+    }
+}
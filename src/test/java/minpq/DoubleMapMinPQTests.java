@@ -10,4 +10,8 @@ public class DoubleMapMinPQTests extends MinPQTests {
     public <E> MinPQ<E> createMinPQ() {
         return new DoubleMapMinPQ<>();
     }
+
+    public static void main(String[] args) {
+        changePriorityExperiments(DoubleMapMinPQ::new);
+    }
 }
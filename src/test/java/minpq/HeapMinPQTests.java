@@ -10,4 +10,8 @@ public class HeapMinPQTests extends MinPQTests {
     public <E> MinPQ<E> createMinPQ() {
         return new HeapMinPQ<>();
     }
+
+    public static void main(String[] args) {
+        changePriorityExperiments(HeapMinPQ::new);
+    }
 }
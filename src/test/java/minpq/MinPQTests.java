@@ -6,10 +6,8 @@ import net.jqwik.api.footnotes.Footnotes;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Scanner;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,10 +45,52 @@ public abstract class MinPQTests {
         assertTrue(testing.isEmpty());
     }
 
+    @Example
+    void wcagIndexAsPriorityAddAll() throws FileNotFoundException {
+        File inputFile = new File("data/wcag.tsv");
+        Map<String, Double> elementsAndPriorities = new HashMap<>();
+        try (Scanner scanner = new Scanner(inputFile)) {
+            while (scanner.hasNextLine()) {
+                String[] line = scanner.nextLine().split("\t", 2);
+                int index = Integer.parseInt(line[0].replace(".", ""));
+                elementsAndPriorities.put(line[1], (double) index);
+            }
+        }
+        MinPQ<String> reference = new DoubleMapMinPQ<>(elementsAndPriorities);
+        MinPQ<String> testing = createMinPQ();
+        testing.addAll(elementsAndPriorities);
+        assertEquals(reference.size(), testing.size());
+        assertEquals(MinPQ.selectMin(elementsAndPriorities, 10), testing.removeMin(10));
+        reference.removeMin(10);
+        while (!reference.isEmpty()) {
+            assertEquals(reference.removeMin(), testing.removeMin());
+        }
+        assertTrue(testing.isEmpty());
+    }
+
+    @Property
+    void selectMinMatchesRemoveMin(@ForAll("uniquePriorities") List<Double> priorities, @ForAll int numElements) {
+        Map<Integer, Double> elementsAndPriorities = new HashMap<>();
+        for (int i = 0; i < priorities.size(); i += 1) {
+            elementsAndPriorities.put(i, priorities.get(i));
+        }
+        MinPQ<Integer> testing = createMinPQ();
+        testing.addAll(elementsAndPriorities);
+        numElements = Math.floorMod(numElements, priorities.size() + 2);
+        assertEquals(testing.removeMin(numElements), MinPQ.selectMin(elementsAndPriorities, numElements));
+    }
+
+    @Provide
+    Arbitrary<List<Double>> uniquePriorities() {
+        return Arbitraries.doubles().between(-1000, 1000).list().uniqueElements();
+    }
+
     @Property
     void addChangeAndRemove(@ForAll List<@From("operations") String> operations, Footnotes footnotes) {
         MinPQ<Integer> reference = new DoubleMapMinPQ<>();
         MinPQ<Integer> testing = createMinPQ();
+        // The priority value of the most recently removed minimum element
+        double last = 0;
 
         for (String operation : operations) {
             footnotes.addFootnote(testing.toString());
@@ -60,13 +100,15 @@ public abstract class MinPQTests {
                 case "addOrChangePriority" -> {
                     String[] arguments = parts[1].split(", ");
                     int element = Integer.parseInt(arguments[0]);
-                    double priority = Double.parseDouble(arguments[1]);
+                    double min = reference.isEmpty() ? last : reference.getPriority(reference.peekMin());
+                    double priority = priority(min, Double.parseDouble(arguments[1]));
                     reference.addOrChangePriority(element, priority);
                     testing.addOrChangePriority(element, priority);
                 }
                 case "removeMin" -> {
                     if (!reference.isEmpty()) {
                         // Not checked since peekMin is tested instead
+                        last = reference.getPriority(reference.peekMin());
                         reference.removeMin();
                         testing.removeMin();
                     }
@@ -85,6 +127,19 @@ public abstract class MinPQTests {
         }
     }
 
+    /**
+     * Returns the priority value for an add or change operation with the given generated priority value. Subclasses
+     * for priority queues that restrict priority values override this to map the generated value to a valid one.
+     *
+     * @param min       the priority value of the minimum element, or of the most recently removed minimum element if
+     *                  the priority queue is empty.
+     * @param generated the generated priority value.
+     * @return the priority value for the operation.
+     */
+    double priority(double min, double generated) {
+        return generated;
+    }
+
     @Provide
     Arbitrary<String> operations() {
         Set<String> priorities = new HashSet<>();
@@ -105,4 +160,56 @@ public abstract class MinPQTests {
             Arbitraries.just("removeMin()")
         );
     }
+
+    /**
+     * Maximum number of elements in the priority queue. Making this smaller means experiments run faster.
+     */
+    private static final int MAX_SIZE = 100000;
+    /**
+     * Step size increment. Making this smaller means experiments run slower.
+     */
+    private static final int STEP = 5000;
+    /**
+     * Number of decrease-then-remove operations per size. Making this smaller means experiments run faster.
+     */
+    private static final int NUM_OPERATIONS = 1000;
+
+    /**
+     * Runs a Dijkstra-like workload where most operations decrease the priority of an element rather than removing the
+     * minimum element, and prints the average nanoseconds per operation for priority queues of increasing size.
+     *
+     * @param constructor the priority queue constructor.
+     */
+    static void changePriorityExperiments(Supplier<MinPQ<Integer>> constructor) {
+        SplittableRandom spRandom = new SplittableRandom(373);
+        for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+            System.out.print(size);
+            System.out.print(',');
+
+            // Create a new priority queue and add size-number of integers with random priority values
+            MinPQ<Integer> pq = constructor.get();
+            for (int j = 0; j < size; j += 1) {
+                pq.add(j, spRandom.nextDouble(1.0));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < NUM_OPERATIONS; i += 1) {
+                // Decrease the priority of several random elements for each removed element
+                for (int j = 0; j < 4; j += 1) {
+                    int element = spRandom.nextInt(size);
+                    if (pq.contains(element)) {
+                        pq.changePriority(element, pq.getPriority(element) * spRandom.nextDouble());
+                    }
+                }
+                int element = pq.removeMin();
+                // Add the removed element back so that the size stays the same
+                pq.add(element, spRandom.nextDouble(1.0));
+            }
+            long time = System.nanoTime() - start;
+
+            // Output the average rounded to the closest integer.
+            System.out.printf("%.0f", time / (double) NUM_OPERATIONS);
+            System.out.println();
+        }
+    }
 }
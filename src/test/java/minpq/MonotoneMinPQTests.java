@@ -0,0 +1,62 @@
+package minpq;
+
+import net.jqwik.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Abstract class providing test cases for monotone {@link MinPQ} implementations, which only accept integer priority
+ * values that are not less than the priority value of the most recently removed minimum element. Inherits every test
+ * case for all {@link MinPQ} implementations with generated priority values restricted to valid ones.
+ *
+ * @see MinPQ
+ * @see MinPQTests
+ */
+public abstract class MonotoneMinPQTests extends MinPQTests {
+    @Override
+    @Provide
+    Arbitrary<List<Double>> uniquePriorities() {
+        return Arbitraries.integers().between(-1000, 1000).map(Integer::doubleValue).list().uniqueElements();
+    }
+
+    /**
+     * Returns an integer priority value that is offset from the current minimum so that priorities never decrease
+     * below it.
+     */
+    @Override
+    double priority(double min, double generated) {
+        return min + Math.abs(Math.round(generated));
+    }
+
+    @Example
+    void rejectsPriorityLessThanLastMinimum() {
+        MinPQ<String> testing = createMinPQ();
+        testing.add("a", 5);
+        testing.add("b", 7);
+        assertEquals("a", testing.removeMin());
+        assertThrows(IllegalArgumentException.class, () -> testing.add("c", 4));
+        assertThrows(IllegalArgumentException.class, () -> testing.changePriority("b", 4));
+        testing.add("c", 5);
+        testing.changePriority("b", 5);
+        assertEquals(2, testing.size());
+        assertEquals(5, testing.getPriority(testing.peekMin()));
+        testing.removeMin();
+        assertEquals(5, testing.getPriority(testing.peekMin()));
+    }
+
+    @Example
+    void widelySpacedPriorities() {
+        MinPQ<Integer> testing = createMinPQ();
+        for (int i = 10; i >= 0; i -= 1) {
+            testing.add(i, 1 << (2 * i));
+        }
+        for (int i = 0; i <= 10; i += 1) {
+            assertEquals(i, (int) testing.removeMin());
+            testing.add(-i - 1, (1 << (2 * i)) + 1);
+            assertEquals(-i - 1, (int) testing.removeMin());
+        }
+        assertTrue(testing.isEmpty());
+    }
+}
@@ -0,0 +1,23 @@
+package minpq;
+
+/**
+ * Tests for the {@link MultiQueueMinPQ} class.
+ *
+ * @see MultiQueueMinPQ
+ */
+public class MultiQueueMinPQTests extends ConcurrentMinPQTests {
+    @Override
+    public <E> MinPQ<E> createMinPQ() {
+        return new MultiQueueMinPQ<>(1);
+    }
+
+    @Override
+    public <E> MinPQ<E> createRelaxedMinPQ() {
+        return new MultiQueueMinPQ<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        throughputExperiments(MultiQueueMinPQ::new);
+        throughputExperiments(() -> new MultiQueueMinPQ<>(1));
+    }
+}
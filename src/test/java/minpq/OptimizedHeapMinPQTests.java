@@ -10,4 +10,8 @@ public class OptimizedHeapMinPQTests extends MinPQTests {
     public <E> MinPQ<E> createMinPQ() {
         return new OptimizedHeapMinPQ<>();
     }
+
+    public static void main(String[] args) {
+        changePriorityExperiments(OptimizedHeapMinPQ::new);
+    }
 }
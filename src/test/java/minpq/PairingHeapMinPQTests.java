@@ -0,0 +1,17 @@
+package minpq;
+
+/**
+ * Tests for the {@link PairingHeapMinPQ} class.
+ *
+ * @see PairingHeapMinPQ
+ */
+public class PairingHeapMinPQTests extends MinPQTests {
+    @Override
+    public <E> MinPQ<E> createMinPQ() {
+        return new PairingHeapMinPQ<>();
+    }
+
+    public static void main(String[] args) {
+        changePriorityExperiments(PairingHeapMinPQ::new);
+    }
+}
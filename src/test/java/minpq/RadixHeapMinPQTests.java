@@ -0,0 +1,34 @@
+package minpq;
+
+import net.jqwik.api.Example;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link RadixHeapMinPQ} class.
+ *
+ * @see RadixHeapMinPQ
+ */
+public class RadixHeapMinPQTests extends MonotoneMinPQTests {
+    @Override
+    public <E> MinPQ<E> createMinPQ() {
+        return new RadixHeapMinPQ<>();
+    }
+
+    @Example
+    void fractionalAndNegativePriorities() {
+        MinPQ<String> testing = createMinPQ();
+        testing.add("a", 0.5);
+        testing.add("b", -2.25);
+        testing.add("c", -0.0);
+        testing.add("d", 1e-300);
+        assertEquals("b", testing.removeMin());
+        testing.add("e", -1.5);
+        assertEquals("e", testing.removeMin());
+        assertEquals("c", testing.removeMin());
+        assertEquals("d", testing.removeMin());
+        assertEquals("a", testing.removeMin());
+        assertThrows(IllegalArgumentException.class, () -> testing.add("f", 0.25));
+        assertThrows(IllegalArgumentException.class, () -> testing.add("f", Double.NaN));
+    }
+}
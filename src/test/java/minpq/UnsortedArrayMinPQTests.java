@@ -10,4 +10,8 @@ public class UnsortedArrayMinPQTests extends MinPQTests {
     public <E> MinPQ<E> createMinPQ() {
         return new UnsortedArrayMinPQ<>();
     }
+
+    public static void main(String[] args) {
+        changePriorityExperiments(UnsortedArrayMinPQ::new);
+    }
 }
@@ -0,0 +1,20 @@
+package seamfinding;
+
+import graphs.shortestpaths.CompactDijkstraSolver;
+
+/**
+ * Tests for the {@link AdjacencyListSeamFinder} class using the {@link CompactDijkstraSolver}.
+ *
+ * @see AdjacencyListSeamFinder
+ * @see CompactDijkstraSolver
+ */
+public class AdjacencyListSeamFinderCompactDijkstraSolverTests extends SeamFinderTests {
+    @Override
+    public SeamFinder createSeamFinder() {
+        return new AdjacencyListSeamFinder(CompactDijkstraSolver::new);
+    }
+
+    public static void main(String[] args) {
+        runtimeExperiments(() -> new AdjacencyListSeamFinder(CompactDijkstraSolver::new));
+    }
+}
\ No newline at end of file
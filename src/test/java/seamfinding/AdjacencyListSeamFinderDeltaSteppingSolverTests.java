@@ -0,0 +1,20 @@
+package seamfinding;
+
+import graphs.shortestpaths.DeltaSteppingSolver;
+
+/**
+ * Tests for the {@link AdjacencyListSeamFinder} class using the {@link DeltaSteppingSolver}.
+ *
+ * @see AdjacencyListSeamFinder
+ * @see DeltaSteppingSolver
+ */
+public class AdjacencyListSeamFinderDeltaSteppingSolverTests extends SeamFinderTests {
+    @Override
+    public SeamFinder createSeamFinder() {
+        return new AdjacencyListSeamFinder(DeltaSteppingSolver::new);
+    }
+
+    public static void main(String[] args) {
+        runtimeExperiments(() -> new AdjacencyListSeamFinder(DeltaSteppingSolver::new));
+    }
+}
\ No newline at end of file
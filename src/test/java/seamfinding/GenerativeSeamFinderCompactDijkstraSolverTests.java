@@ -0,0 +1,20 @@
+package seamfinding;
+
+import graphs.shortestpaths.CompactDijkstraSolver;
+
+/**
+ * Tests for the {@link GenerativeSeamFinder} class using the {@link CompactDijkstraSolver}.
+ *
+ * @see GenerativeSeamFinder
+ * @see CompactDijkstraSolver
+ */
+public class GenerativeSeamFinderCompactDijkstraSolverTests extends SeamFinderTests {
+    @Override
+    public SeamFinder createSeamFinder() {
+        return new GenerativeSeamFinder(CompactDijkstraSolver::new);
+    }
+
+    public static void main(String[] args) {
+        runtimeExperiments(() -> new GenerativeSeamFinder(CompactDijkstraSolver::new));
+    }
+}
\ No newline at end of file
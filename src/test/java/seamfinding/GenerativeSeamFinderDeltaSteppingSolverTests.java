@@ -0,0 +1,20 @@
+package seamfinding;
+
+import graphs.shortestpaths.DeltaSteppingSolver;
+
+/**
+ * Tests for the {@link GenerativeSeamFinder} class using the {@link DeltaSteppingSolver}.
+ *
+ * @see GenerativeSeamFinder
+ * @see DeltaSteppingSolver
+ */
+public class GenerativeSeamFinderDeltaSteppingSolverTests extends SeamFinderTests {
+    @Override
+    public SeamFinder createSeamFinder() {
+        return new GenerativeSeamFinder(DeltaSteppingSolver::new);
+    }
+
+    public static void main(String[] args) {
+        runtimeExperiments(() -> new GenerativeSeamFinder(DeltaSteppingSolver::new));
+    }
+}
\ No newline at end of file